@@ -2,17 +2,31 @@
 package com.example;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
-import com.example.annotation.Column;
-import com.example.annotation.Id;
-import com.example.annotation.JoinColumn;
-import com.example.annotation.ManyToOne;
-import com.example.annotation.OneToOne;
+import com.example.annotation.FetchMode;
 import com.example.connection.DatabaseSession;
-import com.example.entity.Dao;
+import com.example.connection.IdentityMap;
+import com.example.entity.CollectionMetadata;
+import com.example.entity.ColumnMetadata;
+import com.example.entity.EntityMetadata;
+import com.example.entity.EntityMetadataRegistry;
+import com.example.entity.FetchPlan;
 import com.example.entity.GenericDaoImpl;
+import com.example.lazyloading.LazyInitializer;
+import com.example.mapping.BytecodeRowMapperFactory;
+import com.example.mapping.ColumnIndexCache;
+import com.example.mapping.RowMapper;
 
 /**
  * Responsible for mapping ResultSet to entity instances.
@@ -23,6 +37,17 @@ public class EntityMapper<T> {
 
     private final Class<T> clazz;
     private final DatabaseSession session;
+    private final EntityMetadata metadata;
+    private final Map<Class<?>, GenericDaoImpl<?>> relatedDaos = new HashMap<>();
+    private final RowMapper<T> generatedMapper;
+    private final ColumnIndexCache columnIndexCache;
+    private final Map<Class<?>, EntityMapper<?>> joinedMappers = new HashMap<>();
+    private final int idPosition;
+
+    // Column indexes of the ResultSet currently being mapped, and of its join-fetched entities
+    private ResultSet indexedResultSet;
+    private int[] columnIndexes;
+    private int[][] joinedIndexes;
 
     /**
      * Constructor initializing the mapper with the entity class and database session.
@@ -33,6 +58,10 @@ public class EntityMapper<T> {
     public EntityMapper(Class<T> clazz, DatabaseSession session) {
         this.clazz = clazz;
         this.session = session;
+        this.metadata = EntityMetadataRegistry.getMetadata(clazz);
+        this.generatedMapper = resolveGeneratedMapper();
+        this.columnIndexCache = ColumnIndexCache.forEntity(clazz);
+        this.idPosition = metadata.getColumns().indexOf(metadata.getIdColumn());
     }
 
     /**
@@ -44,46 +73,434 @@ public class EntityMapper<T> {
      * @throws SQLException                 If ResultSet access fails.
      */
     public T mapResultSetToEntity(ResultSet rs) throws ReflectiveOperationException, SQLException {
-        T entity = clazz.getDeclaredConstructor().newInstance();
-
-        for (Field field : clazz.getDeclaredFields()) {
-            field.setAccessible(true);
-
-            if (field.isAnnotationPresent(Column.class)) {
-                Column column = field.getAnnotation(Column.class);
-                String columnName = column.name();
-                Object value = rs.getObject(columnName);
-                field.set(entity, value);
-            }
-
-            if (field.isAnnotationPresent(OneToOne.class)) {
-                JoinColumn joinColumn = field.getAnnotation(JoinColumn.class);
-                if (joinColumn != null) {
-                    Object foreignKey = rs.getObject(joinColumn.name());
-                    if (foreignKey != null) {
-                        Dao<?> dao = new GenericDaoImpl<>(session, field.getType());
-                        Object relatedEntity = dao.findById(foreignKey).orElse(null);
-                        field.set(entity, relatedEntity);
-                    }
+        return mapResultSetToEntity(rs, null);
+    }
+
+    /**
+     * Maps a ResultSet row to an entity instance, loading its to-one
+     * associations as planned. The @OneToMany collections are not loaded, as
+     * one query per row would be needed; see {@link #loadCollections}.
+     *
+     * @param rs   The ResultSet.
+     * @param plan The FetchPlan, or null for the annotation FetchModes.
+     * @return The mapped entity.
+     * @throws ReflectiveOperationException If instantiation fails.
+     * @throws SQLException                 If ResultSet access fails.
+     */
+    public T mapResultSetToEntity(ResultSet rs, FetchPlan plan) throws ReflectiveOperationException, SQLException {
+        PendingAssociations pending = new PendingAssociations();
+        resolveIndexes(rs);
+        List<T> entities = new ArrayList<>(1);
+        entities.add(mapRow(rs, columnIndexes, joinedIndexes, pending, plan));
+        pending.resolve(this);
+        constructDeferred(entities, pending);
+        pending.takeSnapshots(session.getIdentityMap());
+        return entities.get(0);
+    }
+
+    /**
+     * Maps all remaining rows of a ResultSet. Batch-fetched associations are
+     * collected over the whole page and resolved with chunked IN queries once
+     * the last row has been read, then the @OneToMany collections of the page
+     * are loaded.
+     *
+     * @param rs The ResultSet, positioned before the first row to map.
+     * @return The mapped entities.
+     * @throws ReflectiveOperationException If instantiation fails.
+     * @throws SQLException                 If ResultSet access fails.
+     */
+    public List<T> mapRows(ResultSet rs) throws ReflectiveOperationException, SQLException {
+        return mapRows(rs, true, null);
+    }
+
+    /**
+     * Maps all remaining rows of a ResultSet.
+     *
+     * @param rs              The ResultSet, positioned before the first row to map.
+     * @param loadCollections Whether to load the @OneToMany collections; false for
+     *                        entities loaded as the target of an association.
+     * @param plan            The FetchPlan, or null for the annotation FetchModes.
+     *                        Associations are joined when the query selected them
+     *                        with the prefix of {@link QueryBuilder#joinAlias}.
+     * @return The mapped entities.
+     * @throws ReflectiveOperationException If instantiation fails.
+     * @throws SQLException                 If ResultSet access fails.
+     */
+    public List<T> mapRows(ResultSet rs, boolean loadCollections, FetchPlan plan)
+            throws ReflectiveOperationException, SQLException {
+        PendingAssociations pending = new PendingAssociations();
+        List<T> entities = new ArrayList<>();
+        while (rs.next()) {
+            resolveIndexes(rs);
+            entities.add(mapRow(rs, columnIndexes, joinedIndexes, pending, plan)); // null for a deferred record
+        }
+        pending.resolve(this);
+        constructDeferred(entities, pending);
+        pending.takeSnapshots(session.getIdentityMap());
+        if (loadCollections) {
+            loadCollections(entities, plan);
+        }
+        return entities;
+    }
+
+    private void resolveIndexes(ResultSet rs) throws SQLException {
+        if (rs == indexedResultSet) {
+            return;
+        }
+        ResultSetMetaData resultSetMetaData = rs.getMetaData();
+        columnIndexes = columnIndexCache.resolve(resultSetMetaData);
+
+        List<ColumnMetadata> columns = metadata.getColumns();
+        joinedIndexes = new int[columns.size()][];
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnMetadata column = columns.get(i);
+            if (column.isAssociation()) { // JOIN by annotation or FetchPlan
+                int[] indexes = ColumnIndexCache.forEntity(column.getReferencedEntity())
+                        .resolve(resultSetMetaData, QueryBuilder.joinAlias(i) + "_");
+                EntityMetadata joined = column.getReferencedMetadata();
+                // Queries without the join (e.g. custom SQL) fall back to batch fetching
+                joinedIndexes[i] = indexes[joined.getColumns().indexOf(joined.getIdColumn())] > 0 ? indexes : null;
+            }
+        }
+        indexedResultSet = rs;
+    }
+
+    private T mapRow(ResultSet rs, int[] indexes, int[][] joins, PendingAssociations pending, FetchPlan plan)
+            throws ReflectiveOperationException, SQLException {
+        IdentityMap identityMap = session.getIdentityMap();
+        Object id = indexes[idPosition] > 0 ? metadata.getIdColumn().getResult(rs, indexes[idPosition]) : null;
+        if (id != null) {
+            T known = identityMap.get(clazz, id);
+            if (known != null) {
+                return known; // Loaded earlier in the session, keeps its state
+            }
+        }
+
+        T entity;
+        if (generatedMapper != null) {
+            entity = generatedMapper.mapRow(rs, indexes);
+            mapAssociations(rs, entity, indexes, joins, pending, plan);
+        } else if (metadata.isConstructorMapped()) {
+            // Associations are part of the values
+            int waiting = pending.waitingValues;
+            Object[] values = readValues(rs, indexes, joins, pending, plan);
+            if (pending.waitingValues > waiting) {
+                pending.deferred.add(values);
+                return null; // Constructed once the associations of the page are fetched
+            }
+            entity = clazz.cast(metadata.newInstance(values));
+        } else {
+            entity = clazz.cast(metadata.newInstance());
+            mapColumns(rs, entity, indexes);
+            mapAssociations(rs, entity, indexes, joins, pending, plan);
+        }
+
+        return register(id, entity, pending); // @OneToMany collections are loaded per page, see loadCollections
+    }
+
+    // Adds a new entity to the identity map, or returns the instance mapped from an earlier row
+    private T register(Object id, T entity, PendingAssociations pending) {
+        if (id == null) {
+            return entity;
+        }
+        T registered = session.getIdentityMap().putIfAbsent(clazz, id, entity);
+        if (registered == entity) {
+            pending.mapped.add(entity); // Snapshot taken once its associations are resolved
+        }
+        return registered;
+    }
+
+    // Constructs the records deferred by mapRow, in place of their null element, once their associations are set
+    private void constructDeferred(List<T> entities, PendingAssociations pending) throws ReflectiveOperationException {
+        if (pending.deferred.isEmpty()) {
+            return;
+        }
+        Iterator<Object[]> deferred = pending.deferred.iterator();
+        for (int i = 0; i < entities.size(); i++) {
+            if (entities.get(i) == null) {
+                Object[] values = deferred.next();
+                entities.set(i, register(values[idPosition], clazz.cast(metadata.newInstance(values)), pending));
+            }
+        }
+        pending.deferred.clear();
+    }
+
+    // Builds a join-fetched entity from its prefixed columns, null when the LEFT JOIN matched nothing
+    private T mapJoinedRow(ResultSet rs, int[] indexes, PendingAssociations pending, FetchPlan plan)
+            throws ReflectiveOperationException, SQLException {
+        if (metadata.getIdColumn().getResult(rs, indexes[idPosition]) == null) {
+            return null;
+        }
+        return mapRow(rs, indexes, null, pending, plan); // Nested JOIN associations are batch-fetched
+    }
+
+    // Mapper emitted by the annotation processor first, then the runtime-generated one
+    @SuppressWarnings("unchecked")
+    private RowMapper<T> resolveGeneratedMapper() {
+        RowMapper<T> compiled = (RowMapper<T>) metadata.getGeneratedRowMapper();
+        return compiled != null ? compiled : BytecodeRowMapperFactory.getMapper(clazz);
+    }
+
+    // Reflective fallback for entities without a generated mapper
+    private void mapColumns(ResultSet rs, T entity, int[] indexes) throws SQLException {
+        List<ColumnMetadata> columns = metadata.getColumns();
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnMetadata column = columns.get(i);
+            if (!column.isAssociation() && indexes[i] > 0) {
+                column.readValue(rs, indexes[i], entity);
+            }
+        }
+    }
+
+    /**
+     * Value buffer for records and immutable entities, passed to their constructor
+     * at once. The batch-fetched associations of a row mapped from the query are
+     * left null and registered in pending, which sets them over the whole page,
+     * so the record is constructed afterwards; those of a join-fetched record
+     * are loaded one at a time.
+     */
+    private Object[] readValues(ResultSet rs, int[] indexes, int[][] joins, PendingAssociations pending,
+            FetchPlan plan) throws ReflectiveOperationException, SQLException {
+        List<ColumnMetadata> columns = metadata.getColumns();
+        Object[] values = new Object[columns.size()];
+        for (int i = 0; i < values.length; i++) {
+            if (indexes[i] == 0) {
+                continue;
+            }
+            ColumnMetadata column = columns.get(i);
+            Object value = column.getResult(rs, indexes[i]);
+            if (value != null && column.isAssociation()) {
+                Object known = session.getIdentityMap().get(column.getReferencedEntity(), value);
+                FetchPlan nested = nestedPlan(plan, column);
+                if (joins != null && joins[i] != null) {
+                    value = getJoinedMapper(column.getReferencedEntity()).mapJoinedRow(rs, joins[i], pending, nested);
+                } else if (known != null) {
+                    value = known;
+                } else if (isLazy(column, plan)) {
+                    value = createLazyReference(column, value, nested);
+                } else if (joins != null && fetchMode(plan, column) != FetchMode.SELECT) {
+                    pending.add(column, nested, value, new ValueSlot(values, i));
+                    pending.waitingValues++;
+                    value = null;
+                } else {
+                    value = findReferenced(column, value, nested);
                 }
             }
+            values[i] = value;
+        }
+        return values;
+    }
 
-            if (field.isAnnotationPresent(ManyToOne.class)) {
-                JoinColumn joinColumn = field.getAnnotation(JoinColumn.class);
-                if (joinColumn != null) {
-                    Object foreignKey = rs.getObject(joinColumn.name());
-                    if (foreignKey != null) {
-                        Dao<?> dao = new GenericDaoImpl<>(session, field.getType());
-                        Object relatedEntity = dao.findById(foreignKey).orElse(null);
-                        field.set(entity, relatedEntity);
-                    }
+    private void mapAssociations(ResultSet rs, T entity, int[] indexes, int[][] joins, PendingAssociations pending,
+            FetchPlan plan) throws ReflectiveOperationException, SQLException {
+        List<ColumnMetadata> columns = metadata.getColumns();
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnMetadata column = columns.get(i);
+            if (!column.isAssociation() || indexes[i] == 0) {
+                continue;
+            }
+            Object foreignKey = column.getResult(rs, indexes[i]);
+            if (foreignKey == null) {
+                continue;
+            }
+            Object known = session.getIdentityMap().get(column.getReferencedEntity(), foreignKey);
+            FetchPlan nested = nestedPlan(plan, column);
+            if (joins != null && joins[i] != null) {
+                column.setValueToEntity(entity,
+                        getJoinedMapper(column.getReferencedEntity()).mapJoinedRow(rs, joins[i], pending, nested));
+            } else if (known != null) {
+                column.setValueToEntity(entity, known); // No query nor proxy for an entity of the session
+            } else if (fetchMode(plan, column) == FetchMode.SELECT) {
+                column.setValueToEntity(entity, findReferenced(column, foreignKey, nested));
+            } else if (isLazy(column, plan)) {
+                column.setValueToEntity(entity, createLazyReference(column, foreignKey, nested));
+            } else {
+                pending.add(column, nested, foreignKey, entity);
+            }
+        }
+    }
+
+    private static boolean isLazy(ColumnMetadata column, FetchPlan plan) {
+        return fetchMode(plan, column) == FetchMode.LAZY && LazyInitializer.isProxyable(column.getReferencedEntity());
+    }
+
+    private static FetchMode fetchMode(FetchPlan plan, ColumnMetadata column) {
+        return plan == null ? column.getFetchMode() : plan.getFetchMode(column);
+    }
+
+    private static FetchPlan nestedPlan(FetchPlan plan, ColumnMetadata column) {
+        return plan == null ? null : plan.getNestedPlan(column.getField().getName());
+    }
+
+    // Proxy answering its ID from the foreign key, loaded with the session's other pending proxies on first use
+    @SuppressWarnings("unchecked")
+    private Object createLazyReference(ColumnMetadata column, Object foreignKey, FetchPlan nested) {
+        Class<Object> referencedClass = (Class<Object>) column.getReferencedEntity();
+        GenericDaoImpl<Object> dao = (GenericDaoImpl<Object>) getRelatedDao(referencedClass);
+        return session.getLazyBatchLoader().createProxy(referencedClass, foreignKey,
+                ids -> dao.findAllReferenced(ids, nested));
+    }
+
+    private Object findReferenced(ColumnMetadata column, Object foreignKey, FetchPlan nested)
+            throws ReflectiveOperationException, SQLException {
+        List<?> related = getRelatedDao(column.getReferencedEntity()).findAllReferenced(List.of(foreignKey), nested);
+        return related.isEmpty() ? null : related.get(0);
+    }
+
+    /**
+     * Checks whether a read with a plan loads any @OneToMany collection. They
+     * are LAZY, i.e. not loaded, unless their annotation or the plan sets
+     * BATCH, SELECT or JOIN.
+     *
+     * @param plan The FetchPlan, or null for the annotation FetchModes.
+     * @return true if loadCollections queries at least one collection.
+     */
+    public boolean loadsCollections(FetchPlan plan) {
+        for (CollectionMetadata collection : metadata.getCollections()) {
+            if (collection.isWritable() && fetchMode(plan, collection) != FetchMode.LAZY) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Loads the @OneToMany collections of a page of owners: one chunked
+     * {@code WHERE <mappedBy column> IN (...)} query per collection (per owner
+     * with FetchMode.SELECT), children grouped by owner in memory. The back
+     * reference of each child is set to its owner instance. Owners whose
+     * collections were loaded earlier in the session are skipped, and so are
+     * LAZY collections.
+     *
+     * @param page The owners, mapped by this mapper.
+     * @param plan The FetchPlan, or null for the annotation FetchModes.
+     * @throws ReflectiveOperationException If mapping fails.
+     * @throws SQLException                 If a database access error occurs.
+     */
+    public void loadCollections(List<T> page, FetchPlan plan) throws ReflectiveOperationException, SQLException {
+        if (!loadsCollections(plan)) {
+            return;
+        }
+        boolean skipsAny = false;
+        for (CollectionMetadata collection : metadata.getCollections()) {
+            skipsAny |= fetchMode(plan, collection) == FetchMode.LAZY;
+        }
+        IdentityMap identityMap = session.getIdentityMap();
+        List<T> owners = new ArrayList<>(page.size());
+        for (T owner : page) {
+            if (!identityMap.hasCollections(owner)) {
+                if (!skipsAny) {
+                    identityMap.markCollectionsLoaded(owner); // Also ends cycles through back references
                 }
+                owners.add(owner);
+            }
+        }
+        if (owners.isEmpty()) {
+            return;
+        }
+        ColumnMetadata ownerId = metadata.getIdColumn();
+        for (CollectionMetadata collection : metadata.getCollections()) {
+            FetchMode mode = fetchMode(plan, collection);
+            if (!collection.isWritable() || mode == FetchMode.LAZY) {
+                continue; // Immutable owners cannot receive the collection after construction
+            }
+            FetchPlan nested = plan == null ? null : plan.getNestedPlan(collection.getField().getName());
+            Map<Object, List<Object>> ownersById = new LinkedHashMap<>();
+            for (T owner : owners) {
+                collection.getAccessor().set(owner, collection.newCollection());
+                ownersById.computeIfAbsent(ownerId.getValueFromEntity(owner), id -> new ArrayList<>(1)).add(owner);
             }
 
-            // Note: Handling of OneToMany relationships can be implemented with lazy loading or separate queries
+            ColumnMetadata backReference = collection.getMappedByColumn();
+            GenericDaoImpl<?> elementDao = getRelatedDao(collection.getElementType());
+            List<Object> elements = new ArrayList<>();
+            if (mode == FetchMode.SELECT) {
+                for (Object id : ownersById.keySet()) {
+                    elements.addAll(elementDao.findAllBy(backReference.getColumnName(), List.of(id), nested));
+                }
+            } else {
+                elements.addAll(elementDao.findAllBy(backReference.getColumnName(), ownersById.keySet(), nested));
+            }
+
+            boolean linkBack = backReference.isAssociation() && !Modifier.isFinal(backReference.getField().getModifiers());
+            for (Object element : elements) {
+                List<Object> elementOwners = ownersById.get(backReference.getColumnValue(element));
+                if (elementOwners == null) {
+                    continue;
+                }
+                for (Object owner : elementOwners) {
+                    @SuppressWarnings("unchecked")
+                    Collection<Object> children = (Collection<Object>) collection.getAccessor().get(owner);
+                    children.add(element);
+                }
+                if (linkBack) {
+                    backReference.setValueToEntity(element, elementOwners.get(0));
+                }
+            }
+        }
+    }
+
+    private static FetchMode fetchMode(FetchPlan plan, CollectionMetadata collection) {
+        FetchMode planned = plan == null ? null : plan.getFetchMode(collection.getField().getName());
+        return planned != null ? planned : collection.getFetchMode();
+    }
+
+    // Constructor argument of a deferred record, waiting for a batch-fetched association
+    private record ValueSlot(Object[] values, int index) {
+        void set(Object value) {
+            values[index] = value;
+        }
+    }
+
+    /**
+     * Batch-fetched associations of the rows mapped so far: for each association
+     * column (and FetchPlan of the referenced entities), the entities waiting for
+     * each foreign key. Shared with the mappers of join-fetched entities, so their
+     * own associations are batched over the page as well.
+     * Also collects the entities mapped, whose snapshots are taken once their
+     * associations are set, and the values of the records deferred until then.
+     */
+    private static final class PendingAssociations {
+        private final Map<Association, Map<Object, List<Object>>> ownersByKey = new LinkedHashMap<>();
+        private final List<Object> mapped = new ArrayList<>();
+        private final List<Object[]> deferred = new ArrayList<>();
+        private int waitingValues;
+
+        private record Association(ColumnMetadata column, FetchPlan plan) {
+        }
+
+        void add(ColumnMetadata column, FetchPlan plan, Object foreignKey, Object owner) {
+            ownersByKey.computeIfAbsent(new Association(column, plan), c -> new LinkedHashMap<>())
+                    .computeIfAbsent(foreignKey, key -> new ArrayList<>(1))
+                    .add(owner);
+        }
+
+        void resolve(EntityMapper<?> mapper) throws ReflectiveOperationException, SQLException {
+            for (Map.Entry<Association, Map<Object, List<Object>>> entry : ownersByKey.entrySet()) {
+                ColumnMetadata column = entry.getKey().column();
+                Map<Object, List<Object>> owners = entry.getValue();
+                ColumnMetadata referencedId = column.getReferencedMetadata().getIdColumn();
+                for (Object related : mapper.getRelatedDao(column.getReferencedEntity())
+                        .findAllReferenced(owners.keySet(), entry.getKey().plan())) {
+                    List<Object> waiting = owners.get(referencedId.getValueFromEntity(related));
+                    if (waiting != null) {
+                        for (Object owner : waiting) {
+                            if (owner instanceof ValueSlot) {
+                                ((ValueSlot) owner).set(related);
+                            } else {
+                                column.setValueToEntity(owner, related);
+                            }
+                        }
+                    }
+                }
+            }
         }
 
-        return entity;
+        void takeSnapshots(IdentityMap identityMap) throws IllegalAccessException {
+            for (Object entity : mapped) {
+                identityMap.putSnapshot(entity, EntityMetadataRegistry.getMetadata(entity.getClass()).snapshot(entity));
+            }
+        }
     }
 
     /**
@@ -93,11 +510,15 @@ public class EntityMapper<T> {
      * @throws IllegalStateException If no field is annotated with @Id.
      */
     public Field getIdField() {
-        for (Field field : clazz.getDeclaredFields()) {
-            if (field.isAnnotationPresent(Id.class)) {
-                return field;
-            }
-        }
-        throw new IllegalStateException("No field annotated with @Id in class " + clazz.getName());
+        return metadata.getIdField();
+    }
+
+    private EntityMapper<?> getJoinedMapper(Class<?> joinedClass) {
+        return joinedMappers.computeIfAbsent(joinedClass, type -> new EntityMapper<>(type, session));
+    }
+
+    // One DAO per associated type, reused across rows
+    private GenericDaoImpl<?> getRelatedDao(Class<?> relatedClass) {
+        return relatedDaos.computeIfAbsent(relatedClass, type -> new GenericDaoImpl<>(session, type));
     }
 }
@@ -1,26 +1,40 @@
 // File: QueryBuilder.java
 package com.example;
 
-import java.lang.reflect.Field;
-import java.sql.Date;
-import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-import com.example.annotation.Column;
-import com.example.annotation.Id;
-import com.example.annotation.JoinColumn;
-import com.example.annotation.ManyToOne;
-import com.example.annotation.OneToMany;
-import com.example.annotation.OneToOne;
-import com.example.annotation.Table;
+import com.example.annotation.FetchMode;
+import com.example.entity.ColumnMetadata;
+import com.example.entity.EntityMetadata;
+import com.example.entity.EntityMetadataRegistry;
+import com.example.entity.FetchPlan;
+import com.example.schema.strategy.DMLStrategy;
 
 /**
  * Responsible for building SQL queries for CRUD operations.
+ * <p>
+ * Statements that do not depend on the call (INSERT, UPDATE and DELETE up to
+ * their WHERE clause, SELECT by ID, SELECT ... IN shapes) are built once per
+ * entity class and reused; only FetchPlan queries and caller conditions are
+ * assembled per call.
  *
  * @param <T> The type of the entity.
  */
 public class QueryBuilder<T> {
 
+    private static final ClassValue<SelectTemplates> SELECT_TEMPLATES = new ClassValue<>() {
+        @Override
+        protected SelectTemplates computeValue(Class<?> type) {
+            return new SelectTemplates(EntityMetadataRegistry.getMetadata(type));
+        }
+    };
+
     private final Class<T> clazz;
+    private final EntityMetadata metadata;
+    private final SelectTemplates templates;
 
     /**
      * Constructor initializing the QueryBuilder with the entity class.
@@ -29,83 +43,150 @@ public class QueryBuilder<T> {
      */
     public QueryBuilder(Class<T> clazz) {
         this.clazz = clazz;
+        this.metadata = EntityMetadataRegistry.getMetadata(clazz);
+        this.templates = SELECT_TEMPLATES.get(clazz);
     }
 
     /**
-     * Builds an INSERT SQL query for the given entity.
+     * SELECT statements of an entity with its FetchMode.JOIN associations joined
+     * in, built on first use of the entity class.
+     */
+    private static final class SelectTemplates {
+        // Wrap the entity query when associations are join-fetched, both null otherwise
+        final String joinFetchPrefix;
+        final String joinFetchSuffix;
+        final String selectAll;
+        final String selectById;
+        final Map<String, String> selectIn = new ConcurrentHashMap<>(); // By column name and value count
+
+        SelectTemplates(EntityMetadata metadata) {
+            String[] joinFetch = buildJoinFetchClauses(metadata, null);
+            this.joinFetchPrefix = joinFetch[0];
+            this.joinFetchSuffix = joinFetch[1];
+            this.selectAll = wrap(metadata.getSelectAllSql());
+            this.selectById = wrap(metadata.getSelectByIdSql());
+        }
+
+        String wrap(String select) {
+            return joinFetchPrefix == null ? select : joinFetchPrefix + select + joinFetchSuffix;
+        }
+    }
+
+    /**
+     * Retrieves the INSERT SQL query, with one placeholder per column in the
+     * order of EntityMetadata.getColumns().
      *
-     * @param entity The entity to insert.
      * @return The SQL INSERT query string.
-     * @throws IllegalAccessException If field access fails.
      */
-    public String buildInsertQuery(T entity) throws IllegalAccessException, NoSuchFieldException {
-        StringBuilder sql = new StringBuilder("INSERT INTO " + getTableName() + " (");
-        StringBuilder values = new StringBuilder("VALUES (");
-    
-        for (Field field : clazz.getDeclaredFields()) {
-            field.setAccessible(true);
-    
-            // Skip fields annotated with @OneToMany or @OneToOne
-            if (field.isAnnotationPresent(OneToMany.class) || field.isAnnotationPresent(OneToOne.class)) {
-                continue;
-            }
-    
-            // Process fields annotated with @Column
-            if (field.isAnnotationPresent(Column.class)) {
-                Column columnAnnotation = field.getAnnotation(Column.class);
-                String columnName = columnAnnotation.name();
-                sql.append(columnName).append(", ");
-    
-                Object fieldValue = field.get(entity);
-                if (fieldValue == null) {
-                    values.append("NULL").append(", ");
-                } else if (fieldValue instanceof String || fieldValue instanceof Date || fieldValue instanceof Timestamp) {
-                    values.append("'").append(fieldValue).append("', ");
-                } else {
-                    values.append(fieldValue).append(", ");
-                }
-            }
-    
-            // Process fields annotated with @ManyToOne
-            if (field.isAnnotationPresent(ManyToOne.class)) {
-                JoinColumn joinColumn = field.getAnnotation(JoinColumn.class); // Ensure @JoinColumn is present
-                String columnName = joinColumn.name(); // Get the name of the foreign key column
-                sql.append(columnName).append(", ");
-    
-                Object relatedEntity = field.get(entity);
-                if (relatedEntity == null) {
-                    values.append("NULL").append(", ");
-                } else {
-                    // Assume the related entity has an ID field annotated with @Id
-                    Field idField = relatedEntity.getClass().getDeclaredField("id");
-                    idField.setAccessible(true);
-                    Object relatedId = idField.get(relatedEntity);
-                    values.append(relatedId).append(", ");
-                }
-            }
+    public String buildInsertQuery() {
+        return metadata.getInsertSql();
+    }
+
+    /**
+     * Builds an INSERT SQL query of several rows, with one placeholder per
+     * column of each row in the order of EntityMetadata.getColumns().
+     *
+     * @param rowCount The number of rows in the VALUES list.
+     * @return The SQL INSERT query string.
+     */
+    public String buildMultiRowInsertQuery(int rowCount) {
+        String insert = metadata.getInsertSql();
+        if (rowCount == 1) {
+            return insert;
         }
-    
-        // Remove trailing commas
-        sql.delete(sql.length() - 2, sql.length());
-        values.delete(values.length() - 2, values.length());
-    
-        sql.append(") ").append(values).append(")");
-    
-        // Debugging: Print the generated SQL
-        System.out.println("Generated INSERT SQL: " + sql);
-    
+        int columnCount = metadata.getColumns().size();
+        StringBuilder sql = new StringBuilder(insert.length() + rowCount * (3 * columnCount + 2))
+                .append(insert).append(", ");
+        DMLStrategy.appendRows(sql, columnCount, rowCount - 1); // The first row ends the single-row INSERT
         return sql.toString();
     }
 
     /**
-     * Builds a SELECT BY ID SQL query.
+     * Builds the upsert statement of the dialect (an INSERT updating the row
+     * with the same ID if there is one) for several rows, with one placeholder
+     * per column of each row in the order of EntityMetadata.getColumns().
+     *
+     * @param dml      The DML strategy of the dialect.
+     * @param rowCount The number of rows.
+     * @return The SQL upsert query string.
+     */
+    public String buildUpsertQuery(DMLStrategy dml, int rowCount) {
+        List<String> columnNames = new ArrayList<>(metadata.getColumns().size());
+        for (ColumnMetadata column : metadata.getColumns()) {
+            columnNames.add(column.getColumnName());
+        }
+        return dml.getUpsertSQL(metadata.getTableName(), columnNames, getIdColumn(), rowCount);
+    }
+
+    /**
+     * Retrieves the SELECT BY ID SQL query, with a placeholder for the ID.
+     *
+     * @return The SQL SELECT query string.
+     */
+    public String buildSelectByIdQuery() {
+        return templates.selectById;
+    }
+
+    /**
+     * Builds a SELECT BY ID SQL query joining the associations a FetchPlan sets to JOIN.
+     *
+     * @param plan The FetchPlan, or null for the annotation FetchModes.
+     * @return The SQL SELECT query string.
+     */
+    public String buildSelectByIdQuery(FetchPlan plan) {
+        if (plan == null) {
+            return templates.selectById;
+        }
+        return wrap(metadata.getSelectByIdSql(), plan);
+    }
+
+    /**
+     * Builds a SELECT query matching a list of IDs, with one placeholder per ID.
+     *
+     * @param idCount The number of IDs to bind.
+     * @return The SQL SELECT query string.
+     */
+    public String buildSelectByIdsQuery(int idCount) {
+        return buildSelectInQuery(getIdColumn(), idCount);
+    }
+
+    /**
+     * Builds a SELECT query matching a list of values of one column, with one
+     * placeholder per value.
      *
-     * @param id The ID of the entity.
+     * @param columnName The column to match.
+     * @param valueCount The number of values to bind.
      * @return The SQL SELECT query string.
      */
-    public String buildSelectByIdQuery(Object id) {
-        String idColumn = getIdColumn();
-        return "SELECT * FROM " + getTableName() + " WHERE " + idColumn + " = " + id;
+    public String buildSelectInQuery(String columnName, int valueCount) {
+        return buildSelectInQuery(columnName, valueCount, null);
+    }
+
+    /**
+     * Builds a SELECT query matching a list of values of one column, joining the
+     * associations a FetchPlan sets to JOIN.
+     *
+     * @param columnName The column to match.
+     * @param valueCount The number of values to bind.
+     * @param plan       The FetchPlan, or null for the annotation FetchModes.
+     * @return The SQL SELECT query string.
+     */
+    public String buildSelectInQuery(String columnName, int valueCount, FetchPlan plan) {
+        if (plan == null) {
+            // Callers pad the value count to a few shapes, see AbstractGenericDao.findAllIn
+            return templates.selectIn.computeIfAbsent(columnName + '#' + valueCount,
+                    key -> templates.wrap(selectIn(columnName, valueCount)));
+        }
+        return wrap(selectIn(columnName, valueCount), plan);
+    }
+
+    private String selectIn(String columnName, int valueCount) {
+        StringBuilder sql = new StringBuilder(metadata.getSelectAllSql())
+                .append(" WHERE ").append(columnName).append(" IN (");
+        for (int i = 0; i < valueCount; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.append(")").toString();
     }
 
     /**
@@ -115,106 +196,160 @@ public class QueryBuilder<T> {
      * @return The SQL SELECT query string.
      */
     public String buildReadQuery(String whereCondition) {
-        if (whereCondition == null || whereCondition.trim().isEmpty()) {
-            return "SELECT * FROM " + getTableName();
-        }
-        return "SELECT * FROM " + getTableName() + " WHERE " + whereCondition;
+        return buildReadQuery(whereCondition, null);
     }
-    
 
     /**
-     * Builds an UPDATE SQL query.
+     * Builds a READ SQL query joining the associations a FetchPlan sets to JOIN.
      *
-     * @param entity         The entity to update.
      * @param whereCondition The WHERE condition.
-     * @return The SQL UPDATE query string.
-     * @throws IllegalAccessException If field access fails.
+     * @param plan           The FetchPlan, or null for the annotation FetchModes.
+     * @return The SQL SELECT query string.
      */
-    public String buildUpdateQuery(T entity, String whereCondition) throws IllegalAccessException {
-        StringBuilder sql = new StringBuilder("UPDATE " + getTableName() + " SET ");
-        System.err.println(sql);
-        for (Field field : clazz.getDeclaredFields()) {
-            field.setAccessible(true);
-    
-            // Skip @OneToMany relationships or fields without annotations
-            if (field.isAnnotationPresent(OneToMany.class)) {
-                continue;
-            }
-    
-            String columnName = null;
-            Object value = field.get(entity);
-    
-            // Handle @JoinColumn for relationships (e.g., teacher_id)
-            if (field.isAnnotationPresent(JoinColumn.class)) {
-                JoinColumn joinColumn = field.getAnnotation(JoinColumn.class);
-                columnName = joinColumn.name(); // Get the foreign key column name
-            } else if (field.isAnnotationPresent(Column.class)) {
-                // Handle regular columns
-                Column column = field.getAnnotation(Column.class);
-                columnName = column.name(); // Get the column name from the annotation
+    public String buildReadQuery(String whereCondition, FetchPlan plan) {
+        boolean all = whereCondition == null || whereCondition.trim().isEmpty();
+        if (all && plan == null) {
+            return templates.selectAll;
+        }
+        String[] joinFetch = plan == null
+                ? new String[] { templates.joinFetchPrefix, templates.joinFetchSuffix }
+                : buildJoinFetchClauses(metadata, plan);
+        int orderBy = all || joinFetch[0] == null ? -1 : indexOfOrderBy(whereCondition);
+        if (orderBy < 0) {
+            String select = all ? metadata.getSelectAllSql() : metadata.getSelectAllSql() + " WHERE " + whereCondition;
+            return joinFetch[0] == null ? select : joinFetch[0] + select + joinFetch[1];
+        }
+        // The ORDER BY (and any LIMIT or OFFSET after it) sorts the joined rows, not the derived table
+        String filter = whereCondition.substring(0, orderBy).trim();
+        String select = filter.isEmpty() ? metadata.getSelectAllSql() : metadata.getSelectAllSql() + " WHERE " + filter;
+        return joinFetch[0] + select + joinFetch[1] + " " + whereCondition.substring(orderBy);
+    }
+
+    // Position of the ORDER BY of a condition, outside quotes and parentheses, or -1
+    static int indexOfOrderBy(String condition) {
+        int depth = 0;
+        char quote = 0;
+        for (int i = 0; i < condition.length(); i++) {
+            char c = condition.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (depth == 0 && isKeywordAt(condition, i, "ORDER")) {
+                int by = i + 5;
+                while (by < condition.length() && Character.isWhitespace(condition.charAt(by))) {
+                    by++;
+                }
+                if (by > i + 5 && isKeywordAt(condition, by, "BY")) {
+                    return i;
+                }
             }
-    
-            // If no column name was determined, skip this field
-            if (columnName == null) {
+        }
+        return -1;
+    }
+
+    private static boolean isKeywordAt(String sql, int index, String keyword) {
+        int end = index + keyword.length();
+        return sql.regionMatches(true, index, keyword, 0, keyword.length())
+                && (index == 0 || !isIdentifierPart(sql.charAt(index - 1)))
+                && (end == sql.length() || !isIdentifierPart(sql.charAt(end)));
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '.';
+    }
+
+    /**
+     * Alias of the table joined for the association at the given column position.
+     * Its columns are selected with the alias and an underscore as label prefix.
+     *
+     * @param columnPosition Position of the association in EntityMetadata.getColumns().
+     * @return The table alias.
+     */
+    static String joinAlias(int columnPosition) {
+        return "j" + columnPosition;
+    }
+
+    // Entity query with the associations the plan sets to JOIN joined in
+    private String wrap(String select, FetchPlan plan) {
+        String[] joinFetch = buildJoinFetchClauses(metadata, plan);
+        return joinFetch[0] == null ? select : joinFetch[0] + select + joinFetch[1];
+    }
+
+    /**
+     * Prefix and suffix wrapping the entity query, both null when nothing is
+     * join-fetched. The entity query is a derived table, so the unqualified
+     * columns of its condition stay unambiguous; it is aliased with the table
+     * name, so the columns qualified with it (and those of an ORDER BY moved
+     * after the joins) still resolve.
+     */
+    private static String[] buildJoinFetchClauses(EntityMetadata metadata, FetchPlan plan) {
+        String table = metadata.getTableName();
+        StringBuilder prefix = new StringBuilder("SELECT ").append(table).append(".*");
+        StringBuilder suffix = new StringBuilder(") ").append(table);
+        int emptySuffixLength = suffix.length();
+        List<ColumnMetadata> columns = metadata.getColumns();
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnMetadata column = columns.get(i);
+            FetchMode mode = plan == null ? column.getFetchMode() : plan.getFetchMode(column);
+            if (!column.isAssociation() || mode != FetchMode.JOIN) {
                 continue;
             }
-    
-            // Append column name and value to the SQL query
-            sql.append(columnName).append(" = ");
-            appendValue(sql, value);
-            sql.append(", ");
+            String alias = joinAlias(i);
+            EntityMetadata joined = column.getReferencedMetadata();
+            for (ColumnMetadata joinedColumn : joined.getColumns()) {
+                prefix.append(", ").append(alias).append('.').append(joinedColumn.getColumnName())
+                        .append(" AS ").append(alias).append('_').append(joinedColumn.getColumnName());
+            }
+            suffix.append(" LEFT JOIN ").append(joined.getTableName()).append(' ').append(alias)
+                    .append(" ON ").append(alias).append('.').append(joined.getIdColumn().getColumnName())
+                    .append(" = ").append(table).append('.').append(column.getColumnName());
         }
-    
-        // Remove trailing comma
-        if (sql.toString().endsWith(", ")) {
-            sql.delete(sql.length() - 2, sql.length());
+        if (suffix.length() == emptySuffixLength) {
+            return new String[2];
         }
-    
-        // Add WHERE condition
-        if (whereCondition != null && !whereCondition.isEmpty()) {
-            sql.append(" WHERE ").append(whereCondition);
-        } else {
+        return new String[] { prefix.append(" FROM (").toString(), suffix.toString() };
+    }
+
+    /**
+     * Builds an UPDATE SQL query with one placeholder per column, in the order
+     * of EntityMetadata.getColumns().
+     *
+     * @param whereCondition The WHERE condition.
+     * @return The SQL UPDATE query string.
+     */
+    public String buildUpdateQuery(String whereCondition) {
+        if (whereCondition == null || whereCondition.isEmpty()) {
             throw new IllegalArgumentException("WHERE condition cannot be null or empty for UPDATE query");
         }
-    
-        return sql.toString();
+        return metadata.getUpdateSql() + " WHERE " + whereCondition;
     }
-    private void appendValue(StringBuilder sql, Object value) {
-        // Debug: Log the incoming value and its type
-        System.out.println("appendValue: Processing value = " + value + " (Type: " + (value != null ? value.getClass().getName() : "null") + ")");
-    
-        if (value == null) {
-            sql.append("NULL");
-            System.out.println("appendValue: Appended NULL");
-        } else if (value instanceof String || value instanceof Date || value instanceof Timestamp) {
-            sql.append("'").append(value).append("'");
-            System.out.println("appendValue: Appended quoted value = '" + value + "'");
-        } else if (value instanceof Number || value instanceof Boolean) {
-            sql.append(value);
-            System.out.println("appendValue: Appended numeric/boolean value = " + value);
-        } else {
-            // Handle objects (e.g., related entities)
-            try {
-                Field idField = value.getClass().getDeclaredField("id");
-                idField.setAccessible(true);
-                Object idValue = idField.get(value);
-    
-                if (idValue != null) {
-                    sql.append(idValue);
-                    System.out.println("appendValue: Appended related entity ID = " + idValue);
-                } else {
-                    sql.append("NULL");
-                    System.out.println("appendValue: Related entity ID is NULL");
-                }
-            } catch (NoSuchFieldException | IllegalAccessException e) {
-                // Debug: Log the error with context
-                System.err.println("appendValue: Error extracting ID from related entity: " + value);
-                e.printStackTrace();
-                throw new IllegalStateException("Unable to extract ID from related entity: " + value, e);
-            }
+
+    /**
+     * Builds an UPDATE SQL query setting only the given columns, with one
+     * placeholder per column in the given order.
+     *
+     * @param columns        The columns to set.
+     * @param whereCondition The WHERE condition.
+     * @return The SQL UPDATE query string.
+     */
+    public String buildUpdateQuery(List<ColumnMetadata> columns, String whereCondition) {
+        if (whereCondition == null || whereCondition.isEmpty()) {
+            throw new IllegalArgumentException("WHERE condition cannot be null or empty for UPDATE query");
+        }
+        StringBuilder sql = new StringBuilder("UPDATE ").append(metadata.getTableName()).append(" SET ");
+        for (int i = 0; i < columns.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(columns.get(i).getColumnName()).append(" = ?");
         }
+        return sql.append(" WHERE ").append(whereCondition).toString();
     }
-    
+
     /**
      * Builds a DELETE SQL query with a WHERE condition.
      *
@@ -222,7 +357,7 @@ public class QueryBuilder<T> {
      * @return The SQL DELETE query string.
      */
     public String buildDeleteQuery(String whereCondition) {
-        return "DELETE FROM " + getTableName() + " WHERE " + whereCondition;
+        return metadata.getDeleteSql() + " WHERE " + whereCondition;
     }
 
     /**
@@ -234,51 +369,12 @@ public class QueryBuilder<T> {
         return new SelectBuilder<>(clazz);
     }
 
-    /**
-     * Retrieves the table name from the @Table annotation or converts the class name to snake_case.
-     *
-     * @return The table name.
-     */
-    private String getTableName() {
-        Table tableAnnotation = clazz.getAnnotation(Table.class);
-        if (tableAnnotation != null && !tableAnnotation.name().isEmpty()) {
-            return tableAnnotation.name();
-        }
-        return convertToSnakeCase(clazz.getSimpleName());
-    }
-
     /**
      * Retrieves the column name of the field annotated with @Id.
      *
      * @return The ID column name.
      */
     private String getIdColumn() {
-        for (Field field : clazz.getDeclaredFields()) {
-            if (field.isAnnotationPresent(Id.class) && field.isAnnotationPresent(Column.class)) {
-                Column column = field.getAnnotation(Column.class);
-                return column.name();
-            }
-        }
-        throw new IllegalStateException("No field annotated with @Id in class " + clazz.getName());
-    }
-
-    /**
-     * Converts CamelCase to snake_case.
-     *
-     * @param input The CamelCase string.
-     * @return The snake_case string.
-     */
-    private String convertToSnakeCase(String input) {
-        StringBuilder result = new StringBuilder();
-        for (char c : input.toCharArray()) {
-            if (Character.isUpperCase(c)) {
-                if (result.length() > 0)
-                    result.append("_");
-                result.append(Character.toLowerCase(c));
-            } else {
-                result.append(c);
-            }
-        }
-        return result.toString();
+        return metadata.getIdColumn().getColumnName();
     }
 }
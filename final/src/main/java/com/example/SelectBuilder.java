@@ -4,8 +4,7 @@ package com.example;
 import java.util.ArrayList;
 import java.util.List;
 
-import com.example.annotation.Table;
-import com.example.entity.EntityUtils;
+import com.example.entity.EntityMetadataRegistry;
 
 /**
  * Builder class for constructing SQL SELECT queries.
@@ -65,15 +64,27 @@ public class SelectBuilder<T> {
     }
 
     public String buildSelectQuery() {
+        return buildSelectQuery(List.of());
+    }
+
+    /**
+     * Builds the query, selecting the given columns when none were added to the builder.
+     *
+     * @param defaultColumns Columns to select if addColumn/addScalar were never called,
+     *                       all columns ("*") when empty.
+     * @return The SQL SELECT query string.
+     */
+    public String buildSelectQuery(List<String> defaultColumns) {
+        List<String> columns = selectColumns.isEmpty() ? defaultColumns : selectColumns;
         StringBuilder query = new StringBuilder("SELECT ");
-        if (selectColumns.isEmpty()) {
+        if (columns.isEmpty()) {
             query.append("*");
         } else {
-            query.append(String.join(", ", selectColumns));
+            query.append(String.join(", ", columns));
         }
 
         // Determine main table from @Table annotation or class name
-        String mainTable = EntityUtils.getTableName(clazz);
+        String mainTable = EntityMetadataRegistry.getMetadata(clazz).getTableName();
         query.append(" FROM ").append(mainTable).append(" ");
 
         // Append JOIN clauses
@@ -0,0 +1,28 @@
+package com.example.annotation;
+
+/**
+ * Strategy used to load an association when its owner is read.
+ */
+public enum FetchMode {
+    /**
+     * One query per owner row (findById on the referenced entity).
+     */
+    SELECT,
+    /**
+     * Foreign keys are collected over the rows of a read and resolved with
+     * chunked {@code WHERE id IN (...)} queries.
+     */
+    BATCH,
+    /**
+     * The referenced table is LEFT JOINed into the owner query and both
+     * entities are built from the same row.
+     */
+    JOIN,
+    /**
+     * A proxy holding the foreign key is set instead, and the referenced
+     * entity is loaded when a method other than its ID getter is first called.
+     * Falls back to BATCH for classes that cannot be proxied (final classes,
+     * records). On a collection, the default, it leaves the collection unloaded.
+     */
+    LAZY
+}
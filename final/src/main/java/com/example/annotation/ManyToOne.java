@@ -11,4 +11,8 @@ import java.lang.annotation.Target;
 @Target(ElementType.FIELD) // This annotation applies to fields only
 @Retention(RetentionPolicy.RUNTIME) // Retain at runtime for reflection
 public @interface ManyToOne {
+    /**
+     * Specifies how the referenced entity is loaded.
+     */
+    FetchMode fetch() default FetchMode.BATCH;
 }
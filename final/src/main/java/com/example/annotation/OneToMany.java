@@ -15,4 +15,12 @@ public @interface OneToMany {
      * Specifies the field name in the mapped class that owns the relationship.
      */
     String mappedBy();
+
+    /**
+     * Specifies how the collection is loaded. LAZY leaves it unloaded unless a
+     * FetchPlan asks for it; BATCH and SELECT load it with the owners read by
+     * Dao.read and findById (not by iterators, which map one row at a time).
+     * JOIN behaves like BATCH.
+     */
+    FetchMode fetch() default FetchMode.LAZY;
 }
@@ -15,4 +15,9 @@ public @interface OneToOne {
      * If empty, this side is considered the owning side.
      */
     String mappedBy() default "";
+
+    /**
+     * Specifies how the referenced entity is loaded.
+     */
+    FetchMode fetch() default FetchMode.BATCH;
 }
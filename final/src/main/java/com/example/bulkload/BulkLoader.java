@@ -0,0 +1,29 @@
+package com.example.bulkload;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+
+import com.example.entity.EntityMetadata;
+
+/**
+ * Loads entities into their table through the native bulk protocol of a
+ * database, bypassing INSERT statements. Rows are streamed from the iterator
+ * as the driver sends them, so the entities need not all be in memory.
+ * <p>
+ * Every column of EntityMetadata.getColumns() is loaded, the ID included, and
+ * no generated key is read back.
+ */
+public interface BulkLoader {
+
+    /**
+     * Loads entities into the table of their metadata.
+     *
+     * @param connection The connection to load through.
+     * @param metadata   The metadata of the entities.
+     * @param entities   The entities to load.
+     * @return The number of rows loaded.
+     * @throws SQLException If the load fails.
+     */
+    long load(Connection connection, EntityMetadata metadata, Iterator<?> entities) throws SQLException;
+}
@@ -0,0 +1,39 @@
+package com.example.bulkload;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Conversion of column values to the java.sql types bulk protocols expect.
+ */
+final class BulkValues {
+
+    private BulkValues() {
+    }
+
+    // java.time and java.util.Date values as java.sql types, other values unchanged
+    static Object toJdbcValue(Object value) {
+        if (value instanceof LocalDateTime) {
+            return Timestamp.valueOf((LocalDateTime) value);
+        }
+        if (value instanceof LocalDate) {
+            return Date.valueOf((LocalDate) value);
+        }
+        if (value instanceof LocalTime) {
+            return Time.valueOf((LocalTime) value);
+        }
+        if (value instanceof Instant) {
+            return Timestamp.from((Instant) value);
+        }
+        if (value instanceof java.util.Date && !(value instanceof Date || value instanceof Time
+                || value instanceof Timestamp)) {
+            return new Timestamp(((java.util.Date) value).getTime());
+        }
+        return value;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.bulkload;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import com.example.entity.ColumnMetadata;
+import com.example.type.TypeHandlerRegistry;
+
+/**
+ * Column values of an entity as its TypeHandlers store them, for the bulk
+ * protocols that take values rather than bound parameters.
+ * <p>
+ * The built-in handlers bind the field value unchanged, so it is read
+ * directly. A custom handler is run against a stand-in PreparedStatement and
+ * the value it binds is captured, so the loaded rows match those written by
+ * INSERT.
+ */
+final class ColumnValues {
+
+    private final List<ColumnMetadata> columns;
+    private final boolean[] converted; // true where a custom TypeHandler binds the value
+    private final PreparedStatement capture;
+    private Object bound;
+
+    ColumnValues(List<ColumnMetadata> columns) {
+        this.columns = columns;
+        this.converted = new boolean[columns.size()];
+        for (int i = 0; i < converted.length; i++) {
+            converted[i] = !TypeHandlerRegistry.isBuiltIn(columns.get(i).getTypeHandler());
+        }
+        this.capture = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.equals("setNull")) {
+                        bound = null;
+                    } else if (name.startsWith("set") && args != null && args.length >= 2) {
+                        bound = args[1]; // setX(index, value[, type])
+                    } else {
+                        throw new UnsupportedOperationException(name + " called by a TypeHandler while binding");
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * Retrieves the value of a column as a java.sql type.
+     *
+     * @param column The position of the column in the column list.
+     * @param entity The entity.
+     * @return The value, or null for SQL NULL.
+     * @throws SQLException If the TypeHandler fails or the field cannot be read.
+     */
+    Object get(int column, Object entity) throws SQLException {
+        ColumnMetadata metadata = columns.get(column);
+        try {
+            if (!converted[column]) {
+                return BulkValues.toJdbcValue(metadata.getColumnValue(entity));
+            }
+            bound = null;
+            metadata.bindValue(capture, 1, entity);
+            return BulkValues.toJdbcValue(bound);
+        } catch (IllegalAccessException e) {
+            throw new SQLException("Cannot read column " + metadata.getColumnName(), e);
+        }
+    }
+}
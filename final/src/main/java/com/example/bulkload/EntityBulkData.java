@@ -0,0 +1,86 @@
+package com.example.bulkload;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.example.entity.ColumnMetadata;
+import com.microsoft.sqlserver.jdbc.ISQLServerBulkData;
+
+/**
+ * Entities read one by one as the rows of a SQLServerBulkCopy, one field per
+ * column of EntityMetadata.getColumns(), as bound by its TypeHandler.
+ */
+class EntityBulkData implements ISQLServerBulkData {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient List<ColumnMetadata> columns;
+    private final transient ColumnValues values;
+    private final transient Iterator<?> entities;
+    private transient Object current;
+    private long rowCount;
+
+    EntityBulkData(List<ColumnMetadata> columns, Iterator<?> entities) {
+        this.columns = columns;
+        this.values = new ColumnValues(columns);
+        this.entities = entities;
+    }
+
+    // Number of rows read so far
+    long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public Set<Integer> getColumnOrdinals() {
+        Set<Integer> ordinals = new LinkedHashSet<>();
+        for (int i = 1; i <= columns.size(); i++) {
+            ordinals.add(i);
+        }
+        return ordinals;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns.get(column - 1).getColumnName();
+    }
+
+    @Override
+    public int getColumnType(int column) {
+        return columns.get(column - 1).getJdbcType().getVendorTypeNumber();
+    }
+
+    @Override
+    public int getPrecision(int column) {
+        ColumnMetadata metadata = columns.get(column - 1);
+        Integer precision = metadata.getLength() != null ? metadata.getLength() : metadata.getPrecision();
+        return precision != null ? precision : 0;
+    }
+
+    @Override
+    public int getScale(int column) {
+        return 0; // No scale is declared, the DDL uses the database default
+    }
+
+    @Override
+    public Object[] getRowData() throws SQLException {
+        Object[] row = new Object[columns.size()];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = values.get(i, current);
+        }
+        return row;
+    }
+
+    @Override
+    public boolean next() {
+        if (!entities.hasNext()) {
+            return false;
+        }
+        current = entities.next();
+        rowCount++;
+        return true;
+    }
+}
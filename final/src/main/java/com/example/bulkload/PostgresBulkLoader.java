@@ -0,0 +1,37 @@
+package com.example.bulkload;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.StringJoiner;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import com.example.entity.ColumnMetadata;
+import com.example.entity.EntityMetadata;
+
+/**
+ * Loads entities with COPY ... FROM STDIN through the CopyManager of the
+ * PostgreSQL driver.
+ */
+public class PostgresBulkLoader implements BulkLoader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Override
+    public long load(Connection connection, EntityMetadata metadata, Iterator<?> entities) throws SQLException {
+        StringJoiner columns = new StringJoiner(", ", "COPY " + metadata.getTableName() + " (", ") FROM STDIN");
+        for (ColumnMetadata column : metadata.getColumns()) {
+            columns.add(column.getColumnName());
+        }
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        try {
+            return copyManager.copyIn(columns.toString(), new TextRowStream(metadata.getColumns(), entities),
+                    BUFFER_SIZE);
+        } catch (IOException e) {
+            throw new SQLException("Failed to stream rows to " + metadata.getTableName(), e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.bulkload;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+
+import com.example.entity.EntityMetadata;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopy;
+import com.microsoft.sqlserver.jdbc.SQLServerConnection;
+
+/**
+ * Loads entities with the SQLServerBulkCopy API of the SQL Server driver.
+ * Identity values of the entities are kept, as with INSERT.
+ */
+public class SqlServerBulkLoader implements BulkLoader {
+
+    @Override
+    public long load(Connection connection, EntityMetadata metadata, Iterator<?> entities) throws SQLException {
+        EntityBulkData rows = new EntityBulkData(metadata.getColumns(), entities);
+        try (SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(connection.unwrap(SQLServerConnection.class))) {
+            bulkCopy.setDestinationTableName(metadata.getTableName());
+            bulkCopy.getBulkCopyOptions().setKeepIdentity(true);
+            for (int i = 1; i <= metadata.getColumns().size(); i++) {
+                bulkCopy.addColumnMapping(i, metadata.getColumns().get(i - 1).getColumnName());
+            }
+            bulkCopy.writeToServer(rows);
+        }
+        return rows.getRowCount();
+    }
+}
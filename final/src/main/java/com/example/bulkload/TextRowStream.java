@@ -0,0 +1,120 @@
+package com.example.bulkload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+
+import com.example.entity.ColumnMetadata;
+
+/**
+ * Entities encoded on demand in the tab-separated text format shared by
+ * PostgreSQL COPY and MySQL LOAD DATA: one line per row, \N for NULL, and
+ * backslash escapes for backslashes, tabs and line breaks. Booleans are
+ * written as 1 and 0, which both accept. Values are those the column's
+ * TypeHandler binds, see {@link ColumnValues}.
+ */
+class TextRowStream extends InputStream {
+
+    private final List<ColumnMetadata> columns;
+    private final ColumnValues values;
+    private final Iterator<?> entities;
+    private final StringBuilder line = new StringBuilder(256);
+    private byte[] buffer = new byte[0];
+    private int position;
+    private long rowCount;
+
+    TextRowStream(List<ColumnMetadata> columns, Iterator<?> entities) {
+        this.columns = columns;
+        this.values = new ColumnValues(columns);
+        this.entities = entities;
+    }
+
+    // Number of rows encoded so far
+    long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] target, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        int read = 0;
+        while (read < length && fill()) {
+            int count = Math.min(length - read, buffer.length - position);
+            System.arraycopy(buffer, position, target, offset + read, count);
+            position += count;
+            read += count;
+        }
+        return read == 0 ? -1 : read;
+    }
+
+    // Encodes the next entity once the current line is consumed, false at the end
+    private boolean fill() throws IOException {
+        while (position == buffer.length) {
+            if (!entities.hasNext()) {
+                return false;
+            }
+            buffer = encode(entities.next());
+            position = 0;
+            rowCount++;
+        }
+        return true;
+    }
+
+    private byte[] encode(Object entity) throws IOException {
+        line.setLength(0);
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                line.append('\t');
+            }
+            Object value;
+            try {
+                value = values.get(i, entity);
+            } catch (SQLException e) {
+                throw new IOException("Cannot read column " + columns.get(i).getColumnName(), e);
+            }
+            if (value == null) {
+                line.append("\\N");
+            } else if (value instanceof Boolean) {
+                line.append((Boolean) value ? '1' : '0');
+            } else {
+                appendEscaped(value.toString());
+            }
+        }
+        return line.append('\n').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void appendEscaped(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\':
+                    line.append("\\\\");
+                    break;
+                case '\t':
+                    line.append("\\t");
+                    break;
+                case '\n':
+                    line.append("\\n");
+                    break;
+                case '\r':
+                    line.append("\\r");
+                    break;
+                default:
+                    line.append(c);
+            }
+        }
+    }
+}
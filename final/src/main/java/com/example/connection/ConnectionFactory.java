@@ -3,8 +3,13 @@ package com.example.connection;
 import java.sql.Connection;
 import java.sql.SQLException;
 
+import com.example.bulkload.BulkLoader;
+import com.example.schema.factory.DBMSStrategyFactory;
+
 public interface ConnectionFactory {
     Connection createConnection() throws SQLException;
     String getConnectionURL();
     DatabaseConfiguration getConfig();
+    DBMSStrategyFactory getStrategyFactory(); // Dialect of the database
+    BulkLoader createBulkLoader(); // Native bulk load protocol of the database
 }
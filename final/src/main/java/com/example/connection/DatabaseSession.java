@@ -8,14 +8,35 @@ import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.example.bulkload.BulkLoader;
+import com.example.entity.UnitOfWork;
+import com.example.lazyloading.LazyBatchLoader;
+import com.example.schema.strategy.DMLStrategy;
+
 public class DatabaseSession {
 
+    public static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+
     private final Connection connection;
+    private final PreparedStatementCache statementCache;
+    private final IdentityMap identityMap = new IdentityMap();
+    private final LazyBatchLoader lazyBatchLoader = new LazyBatchLoader();
+    private final UnitOfWork unitOfWork = new UnitOfWork();
+    private final DMLStrategy dmlStrategy;
+    private final BulkLoader bulkLoader;
 
     // Constructor that accepts ConnectionFactory instead of connection parameters
     public DatabaseSession(ConnectionFactory factory) throws SQLException {
+        this(factory, DEFAULT_STATEMENT_CACHE_SIZE);
+    }
+
+    // Keeps up to statementCacheSize prepared statements of the connection, 0 disabling the cache
+    public DatabaseSession(ConnectionFactory factory, int statementCacheSize) throws SQLException {
         // Create the connection using the factory
         this.connection = factory.createConnection();
+        this.statementCache = new PreparedStatementCache(connection, statementCacheSize);
+        this.dmlStrategy = factory.getStrategyFactory().createDMLStrategy();
+        this.bulkLoader = factory.createBulkLoader();
     }
 
    
@@ -25,8 +46,67 @@ public class DatabaseSession {
         return connection;
     }
 
+    /**
+     * Retrieves a PreparedStatement from the statement cache of the connection,
+     * preparing it on first use. It must be given back with releaseStatement
+     * after its ResultSet is closed, rather than being closed.
+     *
+     * @param sql The SQL text.
+     * @return The PreparedStatement.
+     * @throws SQLException If the statement cannot be prepared.
+     */
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        return statementCache.acquire(sql, Statement.NO_GENERATED_KEYS);
+    }
+
+    /**
+     * Retrieves a cached PreparedStatement, see {@link #prepareStatement(String)}.
+     *
+     * @param sql               The SQL text.
+     * @param autoGeneratedKeys Statement.RETURN_GENERATED_KEYS or Statement.NO_GENERATED_KEYS.
+     * @return The PreparedStatement.
+     * @throws SQLException If the statement cannot be prepared.
+     */
+    public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+        return statementCache.acquire(sql, autoGeneratedKeys);
+    }
+
+    // Gives back a statement of prepareStatement to the cache
+    public void releaseStatement(PreparedStatement statement) {
+        statementCache.release(statement);
+    }
+
+    // Entities loaded in this session, by class and ID
+    public IdentityMap getIdentityMap() {
+        return identityMap;
+    }
+
+    // Pending lazy proxies of this session, initialized in batches
+    public LazyBatchLoader getLazyBatchLoader() {
+        return lazyBatchLoader;
+    }
+
+    // Writes queued by the DAOs during a transaction
+    public UnitOfWork getUnitOfWork() {
+        return unitOfWork;
+    }
+
+    // SQL dialect of the connection for data manipulation
+    public DMLStrategy getDMLStrategy() {
+        return dmlStrategy;
+    }
+
+    // Native bulk load protocol of the database
+    public BulkLoader getBulkLoader() {
+        return bulkLoader;
+    }
+
     // Method to close the connection
     public void closeConnection() throws SQLException {
+        unitOfWork.end();
+        identityMap.clear();
+        lazyBatchLoader.clear();
+        statementCache.close();
         if (connection != null && !connection.isClosed()) {
             connection.close();
         }
@@ -35,25 +115,37 @@ public class DatabaseSession {
     // Method to perform a generic SELECT query
     public ResultSet executeQuery(String query) throws SQLException {
         Statement stmt = connection.createStatement();
+        stmt.closeOnCompletion(); // Closed with the ResultSet
         return stmt.executeQuery(query);
     }
 
     // Method to perform INSERT, UPDATE, DELETE queries
     public int executeUpdate(String query) throws SQLException {
-        Statement stmt = connection.createStatement();
-        return stmt.executeUpdate(query);
+        try (Statement stmt = connection.createStatement()) {
+            return stmt.executeUpdate(query);
+        }
     }
+    // DAO writes are queued until commit, or until a query needs them
     public void beginTransaction() throws SQLException {
         connection.setAutoCommit(false);
+        unitOfWork.begin();
     }
     
+    // On failure of the flush the transaction is left open, to be rolled back
     public void commitTransaction() throws SQLException {
+        unitOfWork.flush();
         connection.commit();
+        unitOfWork.end();
+        identityMap.clear(); // Rows may be modified by others once the transaction ends
+        lazyBatchLoader.clear();
         connection.setAutoCommit(true);
     }
     
     public void rollbackTransaction() throws SQLException {
+        unitOfWork.end(); // Queued writes are dropped
         connection.rollback();
+        identityMap.clear(); // Loaded state may no longer match the database
+        lazyBatchLoader.clear();
         connection.setAutoCommit(true);
     }
     public List<Object[]> executeCustomJoinQuery(String query) throws SQLException {
@@ -0,0 +1,176 @@
+package com.example.connection;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * First-level cache of a DatabaseSession: the entity instances loaded so far,
+ * keyed by entity class and ID.
+ * <p>
+ * Mapping a row whose entity is already known returns the known instance, so
+ * a row is represented by one object within the session, and lookups by ID
+ * (findById, association loading) are answered without a query.
+ * Entities are cached without their @OneToMany collections when loaded as the
+ * target of an association; those are tracked separately so that a later read
+ * still loads them.
+ * <p>
+ * Each entity mapped from a row also keeps a snapshot of its column values,
+ * against which an update detects the modified columns.
+ * <p>
+ * The map is scoped to a transaction: DatabaseSession clears it on commit and
+ * rollback, so a read of a later transaction maps the rows as they are then.
+ * Outside a transaction it lives until the session is closed. Each entity type
+ * keeps at most maxSize entities, the least recently used being forgotten
+ * along with its snapshot (a later read of its row maps a new instance, and
+ * an update of it writes every column).
+ */
+public class IdentityMap {
+
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+
+    private final int maxSize;
+    private final Map<Class<?>, Map<Object, Object>> entities = new HashMap<>();
+    private final Set<Object> withCollections = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Map<Object, Object[]> snapshots = new IdentityHashMap<>();
+
+    public IdentityMap() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxSize The maximum number of entities kept per entity type.
+     */
+    public IdentityMap(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Retrieves a known entity.
+     *
+     * @param entityClass The Class type of the entity.
+     * @param id          The ID of the entity.
+     * @return The entity, or null if it was not loaded in this session.
+     */
+    public synchronized <T> T get(Class<T> entityClass, Object id) {
+        Map<Object, Object> byId = entities.get(entityClass);
+        return byId != null ? entityClass.cast(byId.get(id)) : null;
+    }
+
+    /**
+     * Registers an entity unless another instance with the same ID is known.
+     *
+     * @param entityClass The Class type of the entity.
+     * @param id          The ID of the entity.
+     * @param entity      The entity.
+     * @return The known instance if any, otherwise the given entity.
+     */
+    public synchronized <T> T putIfAbsent(Class<T> entityClass, Object id, T entity) {
+        Object known = entities.computeIfAbsent(entityClass, type -> newEntityMap()).putIfAbsent(id, entity);
+        return known != null ? entityClass.cast(known) : entity;
+    }
+
+    // By ID in access order, forgetting the least recently used entity beyond maxSize
+    private Map<Object, Object> newEntityMap() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+                withCollections.remove(eldest.getValue());
+                snapshots.remove(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Forgets an entity whose row was deleted.
+     *
+     * @param entityClass The Class type of the entity.
+     * @param id          The ID of the entity.
+     */
+    public synchronized void remove(Class<?> entityClass, Object id) {
+        Map<Object, Object> byId = entities.get(entityClass);
+        Object entity = byId != null ? byId.remove(id) : null;
+        if (entity != null) {
+            withCollections.remove(entity);
+            snapshots.remove(entity);
+        }
+    }
+
+    /**
+     * Checks whether the @OneToMany collections of an entity have been loaded.
+     *
+     * @param entity The entity.
+     * @return true if they were loaded in this session.
+     */
+    public synchronized boolean hasCollections(Object entity) {
+        return withCollections.contains(entity);
+    }
+
+    public synchronized void markCollectionsLoaded(Object entity) {
+        withCollections.add(entity);
+    }
+
+    /**
+     * Retrieves the column values of an entity as they were loaded.
+     *
+     * @param entity The entity.
+     * @return The snapshot, or null if the entity was not loaded in this session.
+     */
+    public synchronized Object[] getSnapshot(Object entity) {
+        return snapshots.get(entity);
+    }
+
+    public synchronized void putSnapshot(Object entity, Object[] values) {
+        snapshots.put(entity, values);
+    }
+
+    /**
+     * Marks the collections of every entity of a type as stale, to be loaded
+     * again by the next read, after their element table has been modified.
+     *
+     * @param entityClass The Class type of the owners.
+     */
+    public synchronized void evictCollections(Class<?> entityClass) {
+        Map<Object, Object> byId = entities.get(entityClass);
+        if (byId != null) {
+            byId.values().forEach(withCollections::remove); // By identity, unlike removeAll
+        }
+    }
+
+    public synchronized Set<Class<?>> getEntityClasses() {
+        return new HashSet<>(entities.keySet());
+    }
+
+    /**
+     * Forgets every entity of a type, after an UPDATE or DELETE whose affected
+     * rows are unknown.
+     *
+     * @param entityClass The Class type of the entity.
+     */
+    public synchronized void evict(Class<?> entityClass) {
+        Map<Object, Object> byId = entities.remove(entityClass);
+        if (byId != null) {
+            for (Object entity : byId.values()) { // By identity, unlike removeAll
+                withCollections.remove(entity);
+                snapshots.remove(entity);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entities.clear();
+        withCollections.clear();
+        snapshots.clear();
+    }
+}
@@ -3,6 +3,11 @@ package com.example.connection;
 import java.sql.Connection;
 import java.sql.SQLException;
 
+import com.example.bulkload.BulkLoader;
+import com.example.bulkload.MySQLBulkLoader;
+import com.example.schema.factory.DBMSStrategyFactory;
+import com.example.schema.factory.MySQLStrategyFactory;
+
 public class MySQLConnectionFactory implements ConnectionFactory {
     private final DatabaseConfiguration config;
     private final ConnectionPoolManager poolManager;
@@ -41,6 +46,16 @@ public class MySQLConnectionFactory implements ConnectionFactory {
         return config;
     }
 
+    @Override
+    public DBMSStrategyFactory getStrategyFactory() {
+        return new MySQLStrategyFactory();
+    }
+
+    @Override
+    public BulkLoader createBulkLoader() {
+        return new MySQLBulkLoader();
+    }
+
     private String generateConnectionUrl() {
         return new StringBuilder("jdbc:mysql://")
                 .append(config.getHost())
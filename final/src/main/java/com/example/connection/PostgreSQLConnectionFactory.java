@@ -4,6 +4,11 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 
+import com.example.bulkload.BulkLoader;
+import com.example.bulkload.PostgresBulkLoader;
+import com.example.schema.factory.DBMSStrategyFactory;
+import com.example.schema.factory.PostgreStrategyFactory;
+
 public class PostgreSQLConnectionFactory implements ConnectionFactory {
     private final DatabaseConfiguration config;
     private final ConnectionPoolManager poolManager;
@@ -38,6 +43,16 @@ public class PostgreSQLConnectionFactory implements ConnectionFactory {
         return config;
     }
 
+    @Override
+    public DBMSStrategyFactory getStrategyFactory() {
+        return new PostgreStrategyFactory();
+    }
+
+    @Override
+    public BulkLoader createBulkLoader() {
+        return new PostgresBulkLoader();
+    }
+
     private String generateConnectionUrl() {
         return new StringBuilder("jdbc:postgresql://")
                 .append(config.getHost())
@@ -0,0 +1,119 @@
+package com.example.connection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of the PreparedStatements of one connection, keyed by SQL
+ * text (and whether generated keys are returned).
+ * <p>
+ * A statement is checked out by {@link #acquire} and must be given back by
+ * {@link #release} once its ResultSet is closed, instead of being closed. A
+ * statement in use is never handed out twice: a nested query with the same SQL
+ * (e.g. an association resolved while the page is still being read) gets a
+ * statement of its own, closed when released if the cache already holds one.
+ * Statements evicted from the cache are closed.
+ */
+public class PreparedStatementCache {
+
+    private final Connection connection;
+    private final int maxSize;
+    private final Map<String, PreparedStatement> idle;
+    private final Map<PreparedStatement, String> inUse = new IdentityHashMap<>();
+
+    /**
+     * @param connection The connection preparing the statements.
+     * @param maxSize    The maximum number of idle statements kept, 0 disabling the cache.
+     */
+    public PreparedStatementCache(Connection connection, int maxSize) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.idle = new LinkedHashMap<>(16, 0.75f, true) { // Access order
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= PreparedStatementCache.this.maxSize) {
+                    return false;
+                }
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Checks out the statement of a SQL text, preparing it if none is idle.
+     *
+     * @param sql               The SQL text.
+     * @param autoGeneratedKeys Statement.RETURN_GENERATED_KEYS or Statement.NO_GENERATED_KEYS.
+     * @return The PreparedStatement, to be given back with release.
+     * @throws SQLException If the statement cannot be prepared.
+     */
+    public synchronized PreparedStatement acquire(String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "K:" + sql : sql;
+        PreparedStatement statement = idle.remove(key);
+        if (statement == null || statement.isClosed()) {
+            statement = connection.prepareStatement(sql, autoGeneratedKeys);
+        }
+        inUse.put(statement, key);
+        return statement;
+    }
+
+    /**
+     * Gives back a statement obtained from acquire, keeping it for reuse. Its
+     * pending batch and parameters are cleared, so a statement released while
+     * a batch was being built (e.g. by an exception) never replays it; if they
+     * cannot be cleared, the statement is closed instead.
+     *
+     * @param statement The PreparedStatement, whose ResultSet is closed.
+     */
+    public synchronized void release(PreparedStatement statement) {
+        String key = inUse.remove(statement);
+        if (key == null) {
+            return; // Not from this cache, or already released
+        }
+        if (maxSize == 0 || idle.containsKey(key) || !reset(statement)) {
+            closeQuietly(statement);
+        } else {
+            idle.put(key, statement);
+        }
+    }
+
+    private static boolean reset(PreparedStatement statement) {
+        try {
+            if (statement.isClosed()) {
+                return false;
+            }
+            statement.clearBatch();
+            statement.clearParameters();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Closes every statement, idle or in use.
+     */
+    public synchronized void close() {
+        List<PreparedStatement> statements = new ArrayList<>(idle.values());
+        statements.addAll(inUse.keySet());
+        idle.clear();
+        inUse.clear();
+        statements.forEach(PreparedStatementCache::closeQuietly);
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            System.err.println("Failed to close statement: " + e.getMessage());
+        }
+    }
+}
@@ -3,6 +3,11 @@ package com.example.connection;
 import java.sql.Connection;
 import java.sql.SQLException;
 
+import com.example.bulkload.BulkLoader;
+import com.example.bulkload.SqlServerBulkLoader;
+import com.example.schema.factory.DBMSStrategyFactory;
+import com.example.schema.factory.SqlServerStrategyFactory;
+
 public class SqlServerConnectionFactory implements ConnectionFactory{
     private final DatabaseConfiguration config;
     private final ConnectionPoolManager poolManager;
@@ -38,6 +43,16 @@ public class SqlServerConnectionFactory implements ConnectionFactory{
         return config;
     }
 
+    @Override
+    public DBMSStrategyFactory getStrategyFactory() {
+        return new SqlServerStrategyFactory();
+    }
+
+    @Override
+    public BulkLoader createBulkLoader() {
+        return new SqlServerBulkLoader();
+    }
+
     private String generateConnectionUrl() {
         return new StringBuilder("jdbc:sqlserver://")
                 .append(config.getHost())
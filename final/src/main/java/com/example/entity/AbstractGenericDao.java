@@ -1,26 +1,29 @@
 // File: AbstractGenericDao.java
 package com.example.entity;
 
-import java.lang.annotation.Annotation;
-import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.Callable;
+import java.util.function.IntFunction;
 
 import com.example.EntityMapper;
 import com.example.QueryBuilder;
 import com.example.SelectBuilder;
-import com.example.annotation.Column;
-import com.example.annotation.Id;
-import com.example.annotation.JoinColumn;
-import com.example.annotation.OneToMany;
 import com.example.connection.DatabaseSession;
-import com.example.lazyloading.LazyInitializer;
+import com.example.connection.IdentityMap;
+import com.example.lazyloading.LazyEntity;
+import com.example.mapping.ProjectionMapper;
+import com.example.schema.strategy.DMLStrategy;
 
 /**
  * Abstract Generic DAO defining template methods for CRUD operations.
@@ -29,6 +32,12 @@ import com.example.lazyloading.LazyInitializer;
  */
 public abstract class AbstractGenericDao<T> implements Dao<T> {
 
+    // Maximum number of IDs bound in one IN query
+    protected static final int ID_BATCH_SIZE = 128;
+
+    // Default number of rows sent in one JDBC batch by createAll
+    protected static final int INSERT_BATCH_SIZE = 500;
+
     protected final DatabaseSession session;
     protected final Class<T> clazz;
     protected final EntityMapper<T> mapper;
@@ -46,105 +55,553 @@ public abstract class AbstractGenericDao<T> implements Dao<T> {
         this.clazz = clazz;
         this.mapper = new EntityMapper<>(clazz, session);
         this.queryBuilder = new QueryBuilder<>(clazz);
-        this.metadata = new EntityMetadata(clazz);
+        this.metadata = EntityMetadataRegistry.getMetadata(clazz);
     }
 
     @Override
     public void create(T entity) throws SQLException, IllegalAccessException, NoSuchFieldException {
-        String sql = buildInsertQuery(entity);
+        UnitOfWork unitOfWork = session.getUnitOfWork();
+        if (unitOfWork.isActive()) {
+            unitOfWork.registerNew(this, entity);
+            return;
+        }
+        String sql = buildInsertQuery();
         executeUpdate(sql, entity);
+        evictOwnerCollections();
         postCreate(entity);
     }
 
+    @Override
+    public void createAll(Collection<T> entities) throws SQLException, IllegalAccessException {
+        createAll(entities, INSERT_BATCH_SIZE);
+    }
+
+    @Override
+    public void createAll(Collection<T> entities, int batchSize) throws SQLException, IllegalAccessException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        if (entities.isEmpty()) {
+            return;
+        }
+        UnitOfWork unitOfWork = session.getUnitOfWork();
+        if (unitOfWork.isActive()) {
+            for (T entity : entities) {
+                unitOfWork.registerNew(this, entity);
+            }
+            return;
+        }
+        insertAll(entities, batchSize);
+    }
+
+    // Inserts in the form the dialect prefers, see createAll
+    void insertAll(Collection<T> entities, int batchSize) throws SQLException, IllegalAccessException {
+        DMLStrategy dml = session.getDMLStrategy();
+        boolean returnKeys = dml.supportsBatchGeneratedKeys() && !Modifier.isFinal(metadata.getIdField().getModifiers());
+        if (dml.prefersMultiRowInsert()) {
+            // Keys of a multi-row INSERT only come back for the rows the database numbered, so rows
+            // with an ID are inserted apart, first, and the keys are read for the others alone
+            List<T> assigned = new ArrayList<>(entities.size());
+            List<T> generated = new ArrayList<>();
+            for (T entity : entities) {
+                (returnKeys && !hasAssignedId(entity) ? generated : assigned).add(entity);
+            }
+            insertRows(assigned, rowsPerStatement(dml, batchSize), false, queryBuilder::buildMultiRowInsertQuery);
+            insertRows(generated, rowsPerStatement(dml, batchSize), true, queryBuilder::buildMultiRowInsertQuery);
+        } else {
+            insertBatches(entities, batchSize, returnKeys, buildInsertQuery());
+        }
+        evictOwnerCollections();
+        for (T entity : entities) {
+            postCreate(entity);
+        }
+    }
+
+    // A null ID, or 0 in a numeric one, is left to the database to generate
+    private boolean hasAssignedId(T entity) throws IllegalAccessException {
+        Object id = metadata.getIdColumn().getColumnValue(entity);
+        return id != null && !(id instanceof Number && ((Number) id).longValue() == 0);
+    }
+
+    // Rows of a multi-row statement within the batch size and the parameter limit of the dialect
+    private int rowsPerStatement(DMLStrategy dml, int batchSize) {
+        int maxRows = Math.min(dml.getMaxParameters() / metadata.getColumns().size(), dml.getMaxInsertRows());
+        return Math.max(1, Math.min(batchSize, maxRows));
+    }
+
+    // One multi-row INSERT (or upsert) per chunk, the statement built for the number of rows
+    private void insertRows(List<T> entities, int rowsPerStatement, boolean returnKeys,
+            IntFunction<String> statementForRows) throws SQLException, IllegalAccessException {
+        for (int from = 0; from < entities.size(); from += rowsPerStatement) {
+            List<T> rows = entities.subList(from, Math.min(from + rowsPerStatement, entities.size()));
+            String sql = statementForRows.apply(rows.size());
+            PreparedStatement stmt = session.prepareStatement(sql,
+                    returnKeys ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS);
+            try {
+                int index = 1;
+                for (T entity : rows) {
+                    for (ColumnMetadata column : metadata.getColumns()) {
+                        column.bindValue(stmt, index++, entity);
+                    }
+                }
+                stmt.executeUpdate();
+                if (returnKeys) {
+                    readGeneratedKeys(stmt, rows);
+                }
+            } finally {
+                session.releaseStatement(stmt);
+            }
+        }
+    }
+
+    // One JDBC batch per chunk of a single-row INSERT (or upsert)
+    private void insertBatches(Collection<T> entities, int batchSize, boolean returnKeys, String sql)
+            throws SQLException, IllegalAccessException {
+        PreparedStatement stmt = session.prepareStatement(sql,
+                returnKeys ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS);
+        try {
+            List<T> batch = new ArrayList<>(Math.min(batchSize, entities.size()));
+            for (T entity : entities) {
+                bindParameters(stmt, entity);
+                stmt.addBatch();
+                batch.add(entity);
+                if (batch.size() == batchSize) {
+                    executeBatch(stmt, batch, returnKeys);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                executeBatch(stmt, batch, returnKeys);
+            }
+        } finally {
+            session.releaseStatement(stmt);
+        }
+    }
+
+    // Sends the rows added to the statement and writes the keys back in batch order
+    private void executeBatch(PreparedStatement stmt, List<T> batch, boolean returnKeys) throws SQLException {
+        stmt.executeBatch();
+        if (returnKeys) {
+            readGeneratedKeys(stmt, batch);
+        }
+    }
+
+    private void readGeneratedKeys(PreparedStatement stmt, List<T> rows) throws SQLException {
+        try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+            for (int i = 0; i < rows.size() && generatedKeys.next(); i++) {
+                metadata.getIdColumn().readValue(generatedKeys, 1, rows.get(i));
+            }
+        }
+    }
+
+    @Override
+    public void upsert(T entity) throws SQLException, IllegalAccessException {
+        upsertAll(List.of(entity));
+    }
+
+    @Override
+    public void upsertAll(Collection<T> entities) throws SQLException, IllegalAccessException {
+        if (entities.isEmpty()) {
+            return;
+        }
+        session.getUnitOfWork().flush(); // Not queued, runs after the writes registered before
+        // One row per ID, the last entity winning as with successive upserts
+        ColumnMetadata idColumn = metadata.getIdColumn();
+        Map<Object, T> entitiesById = new LinkedHashMap<>();
+        for (T element : entities) {
+            T entity = unwrap(element);
+            Object id = idColumn.getColumnValue(entity);
+            if (id == null) {
+                throw new IllegalArgumentException("Cannot upsert " + clazz.getSimpleName() + " without an ID");
+            }
+            entitiesById.put(id, entity);
+        }
+        List<T> rows = new ArrayList<>(entitiesById.values());
+
+        DMLStrategy dml = session.getDMLStrategy();
+        if (dml.prefersMultiRowInsert()) {
+            insertRows(rows, rowsPerStatement(dml, INSERT_BATCH_SIZE), false,
+                    rowCount -> queryBuilder.buildUpsertQuery(dml, rowCount));
+        } else {
+            insertBatches(rows, INSERT_BATCH_SIZE, false, queryBuilder.buildUpsertQuery(dml, 1));
+        }
+
+        // A known instance other than the one written no longer matches its row
+        IdentityMap identityMap = session.getIdentityMap();
+        for (Map.Entry<Object, T> entry : entitiesById.entrySet()) {
+            T known = identityMap.get(clazz, entry.getKey());
+            if (known == entry.getValue()) {
+                identityMap.putSnapshot(known, metadata.snapshot(known));
+            } else if (known != null) {
+                identityMap.remove(clazz, entry.getKey());
+            }
+        }
+        evictOwnerCollections();
+    }
+
+    @Override
+    public long bulkLoad(Iterable<T> entities) throws SQLException {
+        session.getUnitOfWork().flush(); // Not queued, runs after the writes registered before
+        long rows = session.getBulkLoader().load(session.getConnection(), metadata, entities.iterator());
+        evictOwnerCollections();
+        return rows;
+    }
+
     @Override
     public Optional<T> findById(Object id) throws SQLException, ReflectiveOperationException {
-        String sql = buildSelectByIdQuery(id);
-        try (PreparedStatement stmt = session.getConnection().prepareStatement(sql)) {
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                T entity = mapResultSetToEntity(rs);
-                return Optional.of(entity);
+        return findById(id, null);
+    }
+
+    @Override
+    public Optional<T> findById(Object id, FetchPlan plan) throws SQLException, ReflectiveOperationException {
+        if (plan != null) {
+            plan.validate(metadata);
+        }
+        session.getUnitOfWork().flush(); // Queries see the pending writes of the transaction
+        T known = findKnown(id, true, plan);
+        if (known != null) {
+            return Optional.of(known);
+        }
+        String sql = plan == null ? buildSelectByIdQuery() : queryBuilder.buildSelectByIdQuery(plan);
+        PreparedStatement stmt = session.prepareStatement(sql);
+        try {
+            metadata.getIdColumn().bindParameter(stmt, 1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    T entity = plan == null ? mapResultSetToEntity(rs) : mapper.mapResultSetToEntity(rs, plan);
+                    mapper.loadCollections(List.of(entity), plan);
+                    return Optional.of(entity);
+                }
             }
+        } finally {
+            session.releaseStatement(stmt);
         }
         return Optional.empty();
     }
 
+    @Override
+    public List<T> findAllById(Collection<?> ids) throws SQLException, ReflectiveOperationException {
+        return findAllIn(metadata.getIdColumn(), ids, true, null);
+    }
+
+    @Override
+    public List<T> findAllBy(String columnName, Collection<?> values)
+            throws SQLException, ReflectiveOperationException {
+        return findAllBy(columnName, values, null);
+    }
+
+    /**
+     * Finds the entities whose column matches one of the given values, loading
+     * their associations as planned.
+     *
+     * @param columnName The column to match.
+     * @param values     The values to look up.
+     * @param plan       The FetchPlan, or null for the annotation FetchModes.
+     * @return The entities found.
+     * @throws SQLException                 If a database access error occurs.
+     * @throws ReflectiveOperationException If mapping fails.
+     */
+    public List<T> findAllBy(String columnName, Collection<?> values, FetchPlan plan)
+            throws SQLException, ReflectiveOperationException {
+        ColumnMetadata column = metadata.findColumn(columnName)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown column " + columnName + " of "
+                        + metadata.getTableName()));
+        return findAllIn(column, values, true, plan);
+    }
+
+    /**
+     * Finds the entities referenced by an association. Like findAllById, but
+     * their @OneToMany collections are not loaded, which would otherwise walk
+     * back references (such as Subject.user to User.subjects) endlessly.
+     *
+     * @param ids The IDs to look up.
+     * @return The entities found.
+     * @throws SQLException                 If a database access error occurs.
+     * @throws ReflectiveOperationException If mapping fails.
+     */
+    public List<T> findAllReferenced(Collection<?> ids) throws SQLException, ReflectiveOperationException {
+        return findAllReferenced(ids, null);
+    }
+
+    /**
+     * Finds the entities referenced by an association, loading their own
+     * associations as planned.
+     *
+     * @param ids  The IDs to look up.
+     * @param plan The FetchPlan, or null for the annotation FetchModes.
+     * @return The entities found.
+     * @throws SQLException                 If a database access error occurs.
+     * @throws ReflectiveOperationException If mapping fails.
+     */
+    public List<T> findAllReferenced(Collection<?> ids, FetchPlan plan)
+            throws SQLException, ReflectiveOperationException {
+        return findAllIn(metadata.getIdColumn(), ids, false, plan);
+    }
+
+    private List<T> findAllIn(ColumnMetadata column, Collection<?> values, boolean loadCollections, FetchPlan plan)
+            throws SQLException, ReflectiveOperationException {
+        session.getUnitOfWork().flush();
+        List<Object> distinctValues = new ArrayList<>(new LinkedHashSet<>(values));
+        List<T> results = new ArrayList<>(distinctValues.size());
+        if (column == metadata.getIdColumn()) {
+            // Entities of the session are not queried again
+            for (Iterator<Object> it = distinctValues.iterator(); it.hasNext();) {
+                T known = findKnown(it.next(), loadCollections, plan);
+                if (known != null) {
+                    results.add(known);
+                    it.remove();
+                }
+            }
+        }
+        for (int from = 0; from < distinctValues.size(); from += ID_BATCH_SIZE) {
+            List<Object> chunk = distinctValues.subList(from, Math.min(from + ID_BATCH_SIZE, distinctValues.size()));
+            // Pad to a power of two with the last value, so only a few statement shapes exist
+            int parameterCount = Math.min(Integer.highestOneBit(chunk.size() * 2 - 1), ID_BATCH_SIZE);
+            PreparedStatement stmt = session.prepareStatement(
+                    queryBuilder.buildSelectInQuery(column.getColumnName(), parameterCount, plan));
+            try {
+                for (int i = 0; i < parameterCount; i++) {
+                    column.bindParameter(stmt, i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    results.addAll(mapper.mapRows(rs, loadCollections, plan));
+                }
+            } finally {
+                session.releaseStatement(stmt);
+            }
+        }
+        return results;
+    }
+
+    // Entity of the session's identity map, provided its collections are loaded when needed
+    private T findKnown(Object id, boolean withCollections, FetchPlan plan) {
+        IdentityMap identityMap = session.getIdentityMap();
+        T known = identityMap.get(clazz, id);
+        if (known == null || !withCollections || !mapper.loadsCollections(plan)
+                || identityMap.hasCollections(known)) {
+            return known;
+        }
+        return null;
+    }
+
     @Override
     public List<T> read(String whereCondition) throws SQLException, ReflectiveOperationException {
-        String query = "SELECT * FROM " + metadata.getTableName();
-        if (whereCondition != null && !whereCondition.isEmpty()) {
-            query += " WHERE " + whereCondition;
+        return read(whereCondition, null);
+    }
+
+    @Override
+    public List<T> read(String whereCondition, FetchPlan plan) throws SQLException, ReflectiveOperationException {
+        if (plan != null) {
+            plan.validate(metadata);
         }
+        session.getUnitOfWork().flush();
+        String query = plan == null ? buildReadQuery(whereCondition) : queryBuilder.buildReadQuery(whereCondition, plan);
 
         System.out.println("Executing SQL Query: " + query); // Debug SQL query
 
-        ResultSet rs = session.executeQuery(query);
-        List<T> results = new ArrayList<>();
-
-        while (rs.next()) {
-            T entity = clazz.getDeclaredConstructor().newInstance(); // Create a new instance of the entity
-            System.out.println("Mapping ResultSet to Entity: " + clazz.getSimpleName()); // Debug entity mapping
-
-            for (Field field : clazz.getDeclaredFields()) {
-                field.setAccessible(true);
-
-                // Handle @JoinColumn for relationships
-                if (field.isAnnotationPresent(JoinColumn.class)) {
-                    JoinColumn joinColumn = field.getAnnotation(JoinColumn.class);
-                    String joinColumnName = joinColumn.name();
-                    Object foreignKeyValue = rs.getObject(joinColumnName);
-
-                    if (foreignKeyValue != null) {
-                        if (field.getType() == Integer.class || field.getType() == int.class) {
-                            field.set(entity, foreignKeyValue); // Store foreign key
-                        } else {
-                            // Create appropriate DAO instance for related entity
-                            AbstractGenericDao<?> relatedDao = new GenericDaoImpl<>(session, field.getType());
-                            Object relatedEntity = relatedDao.findById(foreignKeyValue).orElse(null);
-                            field.set(entity, relatedEntity);
-                        }
-                    }
-                    continue;
-                }
+        PreparedStatement stmt = session.prepareStatement(query);
+        try (ResultSet rs = stmt.executeQuery()) {
+            return plan == null ? mapResultSetToEntities(rs) : mapper.mapRows(rs, true, plan);
+        } finally {
+            session.releaseStatement(stmt);
+        }
+    }
 
-                // Skip @OneToMany
-                if (field.isAnnotationPresent(OneToMany.class)) {
-                    continue; // ORM will handle this automatically if required
-                }
+    @Override
+    public void update(T entity) throws SQLException, IllegalAccessException {
+        T target = unwrap(entity);
+        UnitOfWork unitOfWork = session.getUnitOfWork();
+        if (unitOfWork.isActive()) {
+            unitOfWork.registerUpdate(this, target);
+        } else {
+            updateAll(List.of(target));
+        }
+    }
+
+    // The entity behind a lazy proxy, loaded if needed: the fields of the proxy itself are never set
+    private T unwrap(T entity) {
+        if (!(entity instanceof LazyEntity)) {
+            return entity;
+        }
+        LazyEntity proxy = (LazyEntity) entity;
+        Object target = proxy.getImplementation();
+        if (target == null) {
+            throw new IllegalArgumentException("No " + clazz.getSimpleName() + " found for ID " + proxy.getIdentifier());
+        }
+        return clazz.cast(target);
+    }
 
-                // Map regular columns
-                if (field.isAnnotationPresent(Column.class)) {
-                    String columnName = field.getAnnotation(Column.class).name();
-                    Object columnValue = rs.getObject(columnName);
-                    if (columnValue != null) {
-                        field.set(entity, columnValue);
+    // Updates by ID, one JDBC batch per set of modified columns
+    void updateAll(List<T> entities) throws SQLException, IllegalAccessException {
+        IdentityMap identityMap = session.getIdentityMap();
+        ColumnMetadata idColumn = metadata.getIdColumn();
+        int idPosition = metadata.getColumns().indexOf(idColumn);
+        Map<List<ColumnMetadata>, List<T>> entitiesByColumns = new LinkedHashMap<>();
+        for (T entity : entities) {
+            Object[] snapshot = identityMap.getSnapshot(entity);
+            List<ColumnMetadata> columns = snapshot == null ? metadata.getColumns()
+                    : metadata.getDirtyColumns(snapshot, entity);
+            if (!columns.isEmpty()) {
+                entitiesByColumns.computeIfAbsent(columns, key -> new ArrayList<>()).add(entity);
+            }
+        }
+        if (entitiesByColumns.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<List<ColumnMetadata>, List<T>> entry : entitiesByColumns.entrySet()) {
+            List<ColumnMetadata> columns = entry.getKey();
+            String sql = queryBuilder.buildUpdateQuery(columns, idColumn.getColumnName() + " = ?");
+            PreparedStatement stmt = session.prepareStatement(sql);
+            try {
+                int batched = 0;
+                for (T entity : entry.getValue()) {
+                    Object[] snapshot = identityMap.getSnapshot(entity);
+                    int index = 1;
+                    for (ColumnMetadata column : columns) {
+                        column.bindValue(stmt, index++, entity);
                     }
+                    // The row is found by the ID it was loaded with
+                    idColumn.bindParameter(stmt, index,
+                            snapshot != null ? snapshot[idPosition] : idColumn.getColumnValue(entity));
+                    stmt.addBatch();
+                    if (++batched % INSERT_BATCH_SIZE == 0) {
+                        stmt.executeBatch();
+                    }
+                }
+                if (batched % INSERT_BATCH_SIZE != 0) {
+                    stmt.executeBatch();
+                }
+            } finally {
+                session.releaseStatement(stmt);
+            }
+            for (T entity : entry.getValue()) {
+                if (identityMap.getSnapshot(entity) != null) {
+                    identityMap.putSnapshot(entity, metadata.snapshot(entity)); // Matches its row again
                 }
             }
-
-            results.add(entity);
         }
-        return results;
+        evictOwnerCollections();
     }
 
     @Override
     public void update(T entity, String whereCondition) throws SQLException, IllegalAccessException {
-        String sql = buildUpdateQuery(entity, whereCondition);
+        T target = unwrap(entity);
+        UnitOfWork unitOfWork = session.getUnitOfWork();
+        if (unitOfWork.isActive()) {
+            unitOfWork.registerUpdate(this, target, whereCondition);
+        } else {
+            updateWhere(target, whereCondition);
+        }
+    }
 
-        executeUpdate(sql, entity);
+    void updateWhere(T entity, String whereCondition) throws SQLException, IllegalAccessException {
+        IdentityMap identityMap = session.getIdentityMap();
+        Object[] snapshot = identityMap.getSnapshot(entity);
+        if (snapshot == null) {
+            // Not loaded in this session, every column is written
+            executeUpdate(buildUpdateQuery(whereCondition), entity);
+        } else {
+            List<ColumnMetadata> dirtyColumns = metadata.getDirtyColumns(snapshot, entity);
+            if (dirtyColumns.isEmpty()) {
+                return;
+            }
+            executeUpdate(queryBuilder.buildUpdateQuery(dirtyColumns, whereCondition), entity, dirtyColumns);
+        }
+        identityMap.evict(clazz); // The rows matched by the condition are unknown
+        evictOwnerCollections();
+    }
+
+    // Binds the given columns of the entity, in order, and executes the statement
+    private void executeUpdate(String sql, T entity, List<ColumnMetadata> columns) throws SQLException {
+        PreparedStatement stmt = session.prepareStatement(sql);
+        try {
+            int index = 1;
+            for (ColumnMetadata column : columns) {
+                column.bindValue(stmt, index++, entity);
+            }
+            stmt.executeUpdate();
+        } finally {
+            session.releaseStatement(stmt);
+        }
+    }
+
+    @Override
+    public void delete(T entity) throws SQLException, IllegalAccessException {
+        T target = unwrap(entity);
+        UnitOfWork unitOfWork = session.getUnitOfWork();
+        if (unitOfWork.isActive()) {
+            unitOfWork.registerDelete(this, target);
+        } else {
+            deleteAll(List.of(target));
+        }
+    }
+
+    // Deletes by ID in JDBC batches
+    void deleteAll(List<T> entities) throws SQLException, IllegalAccessException {
+        IdentityMap identityMap = session.getIdentityMap();
+        ColumnMetadata idColumn = metadata.getIdColumn();
+        int idPosition = metadata.getColumns().indexOf(idColumn);
+        String sql = buildDeleteQuery(idColumn.getColumnName() + " = ?");
+        PreparedStatement stmt = session.prepareStatement(sql);
+        List<Object> ids = new ArrayList<>(entities.size());
+        try {
+            for (T entity : entities) {
+                Object[] snapshot = identityMap.getSnapshot(entity);
+                Object id = snapshot != null ? snapshot[idPosition] : idColumn.getColumnValue(entity);
+                idColumn.bindParameter(stmt, 1, id);
+                stmt.addBatch();
+                ids.add(id);
+                if (ids.size() % INSERT_BATCH_SIZE == 0) {
+                    stmt.executeBatch();
+                }
+            }
+            if (ids.size() % INSERT_BATCH_SIZE != 0) {
+                stmt.executeBatch();
+            }
+        } finally {
+            session.releaseStatement(stmt);
+        }
+        for (Object id : ids) {
+            identityMap.remove(clazz, id);
+        }
+        evictOwnerCollections();
     }
 
     @Override
     public void delete(String whereCondition) throws SQLException {
+        UnitOfWork unitOfWork = session.getUnitOfWork();
+        if (unitOfWork.isActive()) {
+            unitOfWork.registerDelete(this, whereCondition);
+        } else {
+            deleteWhere(whereCondition);
+        }
+    }
+
+    void deleteWhere(String whereCondition) throws SQLException {
         String sql = buildDeleteQuery(whereCondition);
         try {
             executeUpdate(sql, null);
         } catch (IllegalAccessException ex) {
         }
+        session.getIdentityMap().evict(clazz);
+        evictOwnerCollections();
+    }
+
+    // Collections of this entity type held by known owners are stale after a write
+    private void evictOwnerCollections() {
+        IdentityMap identityMap = session.getIdentityMap();
+        for (Class<?> ownerClass : identityMap.getEntityClasses()) {
+            for (CollectionMetadata collection : EntityMetadataRegistry.getMetadata(ownerClass).getCollections()) {
+                if (collection.getElementType() == clazz) {
+                    identityMap.evictCollections(ownerClass);
+                }
+            }
+        }
     }
 
     @Override
     public List<Object[]> select(SelectBuilder<T> builder) throws SQLException {
+        session.getUnitOfWork().flush();
         String selectQuery = builder.buildSelectQuery();
         System.out.println("Generated SQL Query: " + selectQuery); // Debugging
 
@@ -174,19 +631,52 @@ public abstract class AbstractGenericDao<T> implements Dao<T> {
     }
 
     @Override
-    public T getLazy(Class<T> entityClass, Object id) {
-        Callable<T> fetchCallback = () -> {
-            Optional<T> optionalEntity = findById(id);
-            if (optionalEntity.isPresent()) {
-                return optionalEntity.get();
-            } else {
-                System.out.println("Entity not found for ID: " + id);
-                return null;
+    public <P> List<P> select(SelectBuilder<T> builder, Class<P> projectionType)
+            throws SQLException, ReflectiveOperationException {
+        session.getUnitOfWork().flush();
+        ProjectionMapper<P> projection = ProjectionMapper.forType(projectionType);
+        String selectQuery = builder.buildSelectQuery(getProjectedColumns(projection));
+
+        List<P> results = new ArrayList<>();
+        try (PreparedStatement stmt = session.getConnection().prepareStatement(selectQuery);
+                ResultSet rs = stmt.executeQuery()) {
+            int[] indexes = projection.resolve(rs.getMetaData());
+            while (rs.next()) {
+                results.add(projection.mapRow(rs, indexes));
+            }
+        }
+        return results;
+    }
+
+    // Entity columns backing the projection properties, aliased to the property names
+    private List<String> getProjectedColumns(ProjectionMapper<?> projection) {
+        List<String> columns = new ArrayList<>();
+        for (String property : projection.getPropertyNames()) {
+            findProjectedColumn(property).ifPresent(column -> columns.add(
+                    metadata.getTableName() + "." + column.getColumnName() + " AS " + property));
+        }
+        return columns;
+    }
+
+    private Optional<ColumnMetadata> findProjectedColumn(String property) {
+        for (ColumnMetadata column : metadata.getColumns()) {
+            if (column.getField().getName().equals(property)
+                    || column.getColumnName().equalsIgnoreCase(property)
+                    || column.getColumnName().equalsIgnoreCase(EntityUtils.convertToSnakeCase(property))) {
+                return Optional.of(column);
             }
-        };
+        }
+        return Optional.empty();
+    }
 
-        LazyInitializer<T> lazyInitializer = new LazyInitializer<>(entityClass, fetchCallback);
-        return lazyInitializer.createProxy();
+    @Override
+    public T getLazy(Class<T> entityClass, Object id) {
+        T known = session.getIdentityMap().get(entityClass, id);
+        if (known != null) {
+            return known; // Already loaded, no proxy needed
+        }
+        // Pending proxies of the session are loaded together when one is first used
+        return session.getLazyBatchLoader().createProxy(entityClass, id, this::findAllById);
     }
 
     @Override
@@ -198,7 +688,7 @@ public abstract class AbstractGenericDao<T> implements Dao<T> {
      * Executes an update operation (INSERT, UPDATE, DELETE).
      *
      * @param sql    The SQL statement to execute.
-     * @param entity The entity to bind parameters (can be null for DELETE).
+     * @param entity The entity bound to the column placeholders (null for DELETE).
      * @throws SQLException           If a database access error occurs.
      * @throws IllegalAccessException If field access fails.
      */
@@ -207,32 +697,32 @@ public abstract class AbstractGenericDao<T> implements Dao<T> {
         System.out.println("Executing SQL: " + sql);
 
         // Prepare the statement
-        try (PreparedStatement stmt = session.getConnection().prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        PreparedStatement stmt = session.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+        try {
+            if (entity != null) {
+                bindParameters(stmt, entity);
+            }
+
             // Execute the update
             stmt.executeUpdate();
 
             // Retrieve and set the generated keys if applicable
             try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    Field idField = metadata.getIdField(); // Get the @Id field
-                    idField.setAccessible(true);
-                    Object key = generatedKeys.getObject(1);
-
-                    if (idField.getType() == int.class || idField.getType() == Integer.class) {
-                        idField.set(entity, ((Number) key).intValue()); // Convert to int
-                    } else if (idField.getType() == long.class || idField.getType() == Long.class) {
-                        idField.set(entity, ((Number) key).longValue()); // Convert to long
-                    } else {
-                        idField.set(entity, key); // Directly set if already compatible
-                    }
+                // Immutable entities (final ID field) must be created with their key
+                if (generatedKeys.next() && !Modifier.isFinal(metadata.getIdField().getModifiers())) {
+                    metadata.getIdColumn().readValue(generatedKeys, 1, entity); // Typed write-back of the key
                 }
             }
+        } finally {
+            session.releaseStatement(stmt);
         }
 
     }
 
     /**
-     * Binds entity fields to the PreparedStatement parameters.
+     * Binds entity fields to the PreparedStatement parameters, one per column in
+     * the order of EntityMetadata.getColumns() (the placeholders of the INSERT
+     * and UPDATE queries).
      *
      * @param stmt   The PreparedStatement.
      * @param entity The entity whose fields are to be bound.
@@ -241,13 +731,8 @@ public abstract class AbstractGenericDao<T> implements Dao<T> {
      */
     protected void bindParameters(PreparedStatement stmt, T entity) throws SQLException, IllegalAccessException {
         int index = 1;
-        for (Field field : clazz.getDeclaredFields()) {
-            if (field.isAnnotationPresent((Class<? extends Annotation>) Column.class)
-                    && !field.isAnnotationPresent((Class<? extends Annotation>) Id.class)) {
-                field.setAccessible(true);
-                Object value = field.get(entity);
-                stmt.setObject(index++, value);
-            }
+        for (ColumnMetadata column : metadata.getColumns()) {
+            column.bindValue(stmt, index++, entity);
         }
     }
 
@@ -261,21 +746,20 @@ public abstract class AbstractGenericDao<T> implements Dao<T> {
     }
 
     /**
-     * Builds the INSERT SQL query. Must be implemented by subclasses.
+     * Builds the INSERT SQL query, with a placeholder per column bound by
+     * bindParameters. Must be implemented by subclasses.
      *
-     * @param entity The entity to insert.
      * @return The SQL INSERT query string.
-     * @throws IllegalAccessException If field access fails.
      */
-    protected abstract String buildInsertQuery(T entity) throws IllegalAccessException, NoSuchFieldException;
+    protected abstract String buildInsertQuery();
 
     /**
-     * Builds the SELECT BY ID SQL query. Must be implemented by subclasses.
+     * Builds the SELECT BY ID SQL query, with a placeholder for the ID. Must be
+     * implemented by subclasses.
      *
-     * @param id The ID of the entity.
      * @return The SQL SELECT query string.
      */
-    protected abstract String buildSelectByIdQuery(Object id);
+    protected abstract String buildSelectByIdQuery();
 
     /**
      * Builds the READ SQL query with a WHERE condition. Must be implemented by
@@ -287,14 +771,13 @@ public abstract class AbstractGenericDao<T> implements Dao<T> {
     protected abstract String buildReadQuery(String whereCondition);
 
     /**
-     * Builds the UPDATE SQL query. Must be implemented by subclasses.
+     * Builds the UPDATE SQL query, with a placeholder per column bound by
+     * bindParameters. Must be implemented by subclasses.
      *
-     * @param entity         The entity to update.
      * @param whereCondition The WHERE condition.
      * @return The SQL UPDATE query string.
-     * @throws IllegalAccessException If field access fails.
      */
-    protected abstract String buildUpdateQuery(T entity, String whereCondition) throws IllegalAccessException;
+    protected abstract String buildUpdateQuery(String whereCondition);
 
     /**
      * Builds the DELETE SQL query with a WHERE condition. Must be implemented by
@@ -316,6 +799,19 @@ public abstract class AbstractGenericDao<T> implements Dao<T> {
      */
     protected abstract T mapResultSetToEntity(ResultSet rs) throws ReflectiveOperationException, SQLException;
 
+    /**
+     * Maps all remaining rows of a ResultSet, resolving batch-fetched associations
+     * of the whole page at once.
+     *
+     * @param rs The ResultSet.
+     * @return The mapped entities.
+     * @throws ReflectiveOperationException If instantiation fails.
+     * @throws SQLException                 If ResultSet access fails.
+     */
+    protected List<T> mapResultSetToEntities(ResultSet rs) throws ReflectiveOperationException, SQLException {
+        return mapper.mapRows(rs);
+    }
+
     /**
      * Builds a dynamic SelectBuilder for complex JOIN operations. Must be
      * implemented by subclasses.
@@ -0,0 +1,110 @@
+package com.example.entity;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import com.example.annotation.FetchMode;
+import com.example.annotation.OneToMany;
+
+/**
+ * Holds metadata about a @OneToMany collection field: the element entity and
+ * the @JoinColumn of the element that points back to the owner (mappedBy).
+ */
+public class CollectionMetadata {
+    private final Field field;
+    private final PropertyAccessor accessor;
+    private final Class<?> elementType;
+    private final String mappedBy;
+    private final FetchMode fetchMode;
+
+    CollectionMetadata(Field field) {
+        OneToMany oneToMany = field.getAnnotation(OneToMany.class);
+        this.field = field;
+        this.accessor = PropertyAccessor.of(field);
+        this.elementType = resolveElementType(field);
+        this.mappedBy = oneToMany.mappedBy();
+        this.fetchMode = oneToMany.fetch();
+    }
+
+    private static Class<?> resolveElementType(Field field) {
+        Type type = field.getGenericType();
+        if (type instanceof ParameterizedType) {
+            Type argument = ((ParameterizedType) type).getActualTypeArguments()[0];
+            if (argument instanceof Class) {
+                return (Class<?>) argument;
+            }
+        }
+        throw new IllegalStateException("@OneToMany field " + field.getDeclaringClass().getName() + "."
+                + field.getName() + " must be a collection of an entity type");
+    }
+
+    /**
+     * Retrieves the column of the element entity referencing the owner.
+     *
+     * @return The @JoinColumn ColumnMetadata named by mappedBy.
+     * @throws IllegalStateException If the element has no such field.
+     */
+    public ColumnMetadata getMappedByColumn() {
+        // Resolved on use, the element metadata may reference this entity back
+        return getElementMetadata().getColumns().stream()
+                .filter(column -> column.getField().getName().equals(mappedBy))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No @JoinColumn field '" + mappedBy + "' in "
+                        + elementType.getName() + " for " + field.getDeclaringClass().getName() + "."
+                        + field.getName()));
+    }
+
+    /**
+     * Creates an empty collection matching the declared field type.
+     *
+     * @return A new Set or List.
+     */
+    public Collection<Object> newCollection() {
+        return Set.class.isAssignableFrom(field.getType()) ? new LinkedHashSet<>() : new ArrayList<>();
+    }
+
+    /**
+     * Checks whether the field can be assigned after construction.
+     *
+     * @return false for final fields (records and immutable entities).
+     */
+    public boolean isWritable() {
+        return !Modifier.isFinal(field.getModifiers());
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    public PropertyAccessor getAccessor() {
+        return accessor;
+    }
+
+    public Class<?> getElementType() {
+        return elementType;
+    }
+
+    public EntityMetadata getElementMetadata() {
+        return EntityMetadataRegistry.getMetadata(elementType);
+    }
+
+    public String getMappedBy() {
+        return mappedBy;
+    }
+
+    /**
+     * Retrieves how the collection is loaded. LAZY, the default, leaves it
+     * unloaded; JOIN is not supported for collections and behaves like BATCH.
+     *
+     * @return The FetchMode.
+     */
+    public FetchMode getFetchMode() {
+        return fetchMode;
+    }
+}
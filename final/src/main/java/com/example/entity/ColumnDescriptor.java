@@ -0,0 +1,88 @@
+package com.example.entity;
+
+import java.sql.JDBCType;
+
+import com.example.annotation.FetchMode;
+
+/**
+ * Annotation-free description of a mapped column, either read from the
+ * field annotations or emitted at compile time in an {@link EntityDescriptor}.
+ */
+public final class ColumnDescriptor {
+    private final String fieldName;
+    private final String columnName;
+    private final JDBCType jdbcType;
+    private final boolean isId;
+    private final boolean isAutoIncrement;
+    private final boolean isForeignKey;
+    private final boolean isNullable;
+    private final boolean isUnique;
+    private final Integer length;
+    private final Integer precision;
+    private final FetchMode fetchMode;
+
+    public ColumnDescriptor(String fieldName, String columnName, JDBCType jdbcType, boolean isId,
+            boolean isAutoIncrement, boolean isForeignKey, boolean isNullable, boolean isUnique,
+            Integer length, Integer precision, FetchMode fetchMode) {
+        this.fieldName = fieldName;
+        this.columnName = columnName;
+        this.jdbcType = jdbcType;
+        this.isId = isId;
+        this.isAutoIncrement = isAutoIncrement;
+        this.isForeignKey = isForeignKey;
+        this.isNullable = isNullable;
+        this.isUnique = isUnique;
+        this.length = length;
+        this.precision = precision;
+        this.fetchMode = fetchMode;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public String getColumnName() {
+        return columnName;
+    }
+
+    public JDBCType getJdbcType() {
+        return jdbcType;
+    }
+
+    public boolean isId() {
+        return isId;
+    }
+
+    public boolean isAutoIncrement() {
+        return isAutoIncrement;
+    }
+
+    public boolean isForeignKey() {
+        return isForeignKey;
+    }
+
+    public boolean isNullable() {
+        return isNullable;
+    }
+
+    public boolean isUnique() {
+        return isUnique;
+    }
+
+    public Integer getLength() {
+        return length;
+    }
+
+    public Integer getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Retrieves how the referenced entity of a foreign key column is loaded.
+     *
+     * @return The FetchMode.
+     */
+    public FetchMode getFetchMode() {
+        return fetchMode;
+    }
+}
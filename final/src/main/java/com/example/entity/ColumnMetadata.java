@@ -1,23 +1,37 @@
 package com.example.entity;
 
 import com.example.annotation.Column;
+import com.example.annotation.FetchMode;
 import com.example.annotation.Id;
 import com.example.annotation.JoinColumn;
+import com.example.annotation.ManyToOne;
+import com.example.annotation.OneToOne;
+
+import com.example.lazyloading.LazyEntity;
+import com.example.type.TypeHandler;
+import com.example.type.TypeHandlerRegistry;
 
 import java.lang.reflect.Field;
 import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 
 public class ColumnMetadata {
     private final Field field;
     private final String columnName;
     private final boolean isId;
+    private final boolean isAutoIncrement;
     private final JDBCType jdbcType;
     private final boolean isUnique;
     private final boolean isNullable;
     private final boolean isForeignKey;
     private final Integer length;
     private final Integer precision;
-    private final Id idAnnotation;
+    private final Class<?> referencedEntity;
+    private final FetchMode fetchMode;
+    private final PropertyAccessor accessor;
+    private final TypeHandler<?> typeHandler;
 
     /**
      * Constructor that extracts column information from a field.
@@ -26,46 +40,192 @@ public class ColumnMetadata {
      */
 
     public ColumnMetadata(Field field) {
+        this(field, describe(field));
+    }
+
+    /**
+     * Constructor that takes column information from a descriptor, without
+     * reading the field annotations.
+     *
+     * @param field      The Field object.
+     * @param descriptor The ColumnDescriptor of the field.
+     */
+    public ColumnMetadata(Field field, ColumnDescriptor descriptor) {
         this.field = field;
-        this.isId = field.isAnnotationPresent(Id.class);
-        this.isForeignKey = field.isAnnotationPresent(JoinColumn.class);
-        this.idAnnotation = field.getAnnotation(Id.class);
+        this.columnName = descriptor.getColumnName();
+        this.isId = descriptor.isId();
+        this.isAutoIncrement = descriptor.isAutoIncrement();
+        this.jdbcType = descriptor.getJdbcType();
+        this.isUnique = descriptor.isUnique();
+        this.isNullable = descriptor.isNullable();
+        this.isForeignKey = descriptor.isForeignKey();
+        this.length = descriptor.getLength();
+        this.precision = descriptor.getPrecision();
+        this.referencedEntity = resolveReferencedEntity(field);
+        this.fetchMode = descriptor.getFetchMode();
+        this.accessor = PropertyAccessor.of(field);
+        this.typeHandler = referencedEntity == null ? TypeHandlerRegistry.getHandler(field.getType(), jdbcType) : null;
+    }
 
+    private static ColumnDescriptor describe(Field field) {
+        Id id = field.getAnnotation(Id.class);
         Column column = field.getAnnotation(Column.class);
         JoinColumn joinColumn = field.getAnnotation(JoinColumn.class);
+        boolean isAutoIncrement = id != null && id.autoIncrement();
 
         if (column != null) {
-            this.columnName = resolveColumnName(field, column.name());
-            this.jdbcType = column.type();
-            this.isUnique = column.unique();
-            this.isNullable = column.nullable();
-            this.length = column.length();
-            this.precision = column.precision();
+            return new ColumnDescriptor(field.getName(), resolveColumnName(field, column.name()), column.type(),
+                    id != null, isAutoIncrement, joinColumn != null, column.nullable(), column.unique(),
+                    column.length(), column.precision(), resolveFetchMode(field));
         } else if (joinColumn != null) {
-            this.columnName = joinColumn.name();
-            this.jdbcType = JDBCType.INTEGER; // Assuming foreign key is an integer
-            this.isUnique = false;
-            this.isNullable = joinColumn.nullable();
-            this.length = null;
-            this.precision = null;
+            // Assuming foreign key is an integer
+            return new ColumnDescriptor(field.getName(), joinColumn.name(), JDBCType.INTEGER,
+                    id != null, isAutoIncrement, true, joinColumn.nullable(), false, null, null, resolveFetchMode(field));
         } else {
             throw new IllegalStateException("Field must have @Column or @JoinColumn");
         }
     }
 
-    private String resolveColumnName(Field field, String annotationName) {
+    // Plain @JoinColumn associations (without a relationship annotation) use the default mode
+    private static FetchMode resolveFetchMode(Field field) {
+        ManyToOne manyToOne = field.getAnnotation(ManyToOne.class);
+        if (manyToOne != null) {
+            return manyToOne.fetch();
+        }
+        OneToOne oneToOne = field.getAnnotation(OneToOne.class);
+        return oneToOne != null ? oneToOne.fetch() : FetchMode.BATCH;
+    }
+
+    private static String resolveColumnName(Field field, String annotationName) {
         return annotationName.isEmpty() ? EntityUtils.convertToSnakeCase(field.getName()) : annotationName;
     }
 
+    // A @JoinColumn field holding an entity (rather than a raw key value) is an association
+    private Class<?> resolveReferencedEntity(Field field) {
+        Class<?> type = field.getType();
+        if (!isForeignKey || type.isPrimitive() || type.getName().startsWith("java.")) {
+            return null;
+        }
+        return type;
+    }
+
     // Add value handling methods
     public Object getValueFromEntity(Object entity) throws IllegalAccessException {
-        field.setAccessible(true);
-        return field.get(entity);
+        return accessor.get(entity);
     }
 
     public void setValueToEntity(Object entity, Object value) throws IllegalAccessException {
-        field.setAccessible(true);
-        field.set(entity, value);
+        accessor.set(entity, value);
+    }
+
+    /**
+     * Reads the column from the current row into the entity field through the
+     * column's TypeHandler, so primitive fields are written without boxing.
+     * SQL NULL leaves reference fields untouched and primitives at their default.
+     *
+     * @param rs     The ResultSet positioned on a row.
+     * @param index  The ResultSet index of the column.
+     * @param entity The entity instance.
+     * @throws SQLException If ResultSet access fails.
+     */
+    public void readValue(ResultSet rs, int index, Object entity) throws SQLException {
+        typeHandler.read(rs, index, entity, accessor);
+    }
+
+    /**
+     * Reads the column value of the current row. Associations read the key of
+     * the referenced entity.
+     *
+     * @param rs    The ResultSet positioned on a row.
+     * @param index The ResultSet index of the column.
+     * @return The value, or null for SQL NULL.
+     * @throws SQLException If ResultSet access fails.
+     */
+    public Object getResult(ResultSet rs, int index) throws SQLException {
+        return resolveTypeHandler().getResult(rs, index);
+    }
+
+    /**
+     * Binds the column value of an entity to a statement parameter through the
+     * column's TypeHandler. Associations bind the ID of the referenced entity.
+     *
+     * @param ps     The PreparedStatement.
+     * @param index  The parameter index.
+     * @param entity The entity instance.
+     * @throws SQLException If binding fails.
+     */
+    public void bindValue(PreparedStatement ps, int index, Object entity) throws SQLException {
+        if (referencedEntity == null) {
+            typeHandler.bind(ps, index, entity, accessor, jdbcType);
+            return;
+        }
+        Object referenced = accessor.get(entity);
+        if (referenced == null) {
+            ps.setNull(index, jdbcType.getVendorTypeNumber());
+        } else if (referenced instanceof LazyEntity) {
+            bindParameter(ps, index, ((LazyEntity) referenced).getIdentifier()); // Proxy fields are not populated
+        } else {
+            getReferencedMetadata().getIdColumn().bindValue(ps, index, referenced);
+        }
+    }
+
+    /**
+     * Binds a column value (a key, for associations) to a statement parameter
+     * through the column's TypeHandler.
+     *
+     * @param ps    The PreparedStatement.
+     * @param index The parameter index.
+     * @param value The column value, may be null.
+     * @throws SQLException If binding fails.
+     */
+    @SuppressWarnings("unchecked")
+    public void bindParameter(PreparedStatement ps, int index, Object value) throws SQLException {
+        ((TypeHandler<Object>) resolveTypeHandler()).setParameter(ps, index, value, jdbcType);
+    }
+
+    /**
+     * Retrieves the handler converting the column, the one of the referenced ID
+     * for associations.
+     *
+     * @return The TypeHandler.
+     */
+    public TypeHandler<?> getTypeHandler() {
+        return resolveTypeHandler();
+    }
+
+    /**
+     * Retrieves the ResultSet getter reading the column exactly as its
+     * TypeHandler does, for generated row mappers.
+     *
+     * @return The getter name, or null if the column must be read through its
+     *         TypeHandler (always for associations).
+     */
+    public String getDirectGetter() {
+        return typeHandler != null ? TypeHandlerRegistry.getDirectGetter(typeHandler, field.getType()) : null;
+    }
+
+    // Resolved lazily for associations, the referenced metadata may still be under construction
+    private TypeHandler<?> resolveTypeHandler() {
+        return typeHandler != null ? typeHandler : getReferencedMetadata().getIdColumn().getTypeHandler();
+    }
+
+    /**
+     * Retrieves the value to store in the column, resolving associations to the
+     * ID of the referenced entity.
+     *
+     * @param entity The entity instance.
+     * @return The column value, or null.
+     * @throws IllegalAccessException If field access fails.
+     */
+    public Object getColumnValue(Object entity) throws IllegalAccessException {
+        Object value = getValueFromEntity(entity);
+        if (value == null || referencedEntity == null) {
+            return value;
+        }
+        if (value instanceof LazyEntity) {
+            return ((LazyEntity) value).getIdentifier(); // Proxy fields are not populated
+        }
+        return getReferencedMetadata().getIdColumn().getValueFromEntity(value);
     }
 
     // SQL generation helpers
@@ -94,6 +254,15 @@ public class ColumnMetadata {
         return field;
     }
 
+    /**
+     * Retrieves the accessor used to read and write the field.
+     *
+     * @return The PropertyAccessor.
+     */
+    public PropertyAccessor getAccessor() {
+        return accessor;
+    }
+
     /**
      * Retrieves the column name in the database.
      *
@@ -108,7 +277,11 @@ public class ColumnMetadata {
     }
 
     public Id getIdAnnotation() {
-        return idAnnotation;
+        return field.getAnnotation(Id.class);
+    }
+
+    public boolean isAutoIncrement() {
+        return isAutoIncrement;
     }
 
     public Integer getLength() {
@@ -134,4 +307,30 @@ public class ColumnMetadata {
     public boolean isForeignKey() {
         return isForeignKey;
     }
-}
\ No newline at end of file
+
+    /**
+     * Checks whether the column references another entity through its field.
+     *
+     * @return true if the field type is an entity.
+     */
+    public boolean isAssociation() {
+        return referencedEntity != null;
+    }
+
+    public Class<?> getReferencedEntity() {
+        return referencedEntity;
+    }
+
+    /**
+     * Retrieves how the referenced entity is loaded, for associations.
+     *
+     * @return The FetchMode.
+     */
+    public FetchMode getFetchMode() {
+        return fetchMode;
+    }
+
+    public EntityMetadata getReferencedMetadata() {
+        return referencedEntity == null ? null : EntityMetadataRegistry.getMetadata(referencedEntity);
+    }
+}
@@ -2,6 +2,7 @@
 package com.example.entity;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -9,18 +10,165 @@ import com.example.SelectBuilder;
 
 /**
  * Generic DAO Interface defining CRUD operations and select functionality.
+ * <p>
+ * Between DatabaseSession.beginTransaction and commitTransaction, create,
+ * update and delete are queued in the session's {@link UnitOfWork} and
+ * executed as batches at commit, or before the next query.
  *
  * @param <T> The type of the entity.
  */
 public interface Dao<T> {
     void create(T entity) throws SQLException, IllegalAccessException, NoSuchFieldException;
 
+    /**
+     * Inserts entities in batches of the default size, writing the
+     * generated keys back into their ID fields where the dialect returns keys
+     * for batches.
+     *
+     * @param entities The entities to insert.
+     * @throws SQLException           If a database access error occurs.
+     * @throws IllegalAccessException If field access fails.
+     */
+    void createAll(Collection<T> entities) throws SQLException, IllegalAccessException;
+
+    /**
+     * Inserts entities in chunks of the given size, one round trip per chunk:
+     * a multi-row INSERT where the dialect prefers it (MySQL, SQL Server),
+     * capped by its parameter limit, otherwise a JDBC batch. Where the dialect
+     * does not return the keys of several rows (SQL Server), the ID fields are
+     * left as they are.
+     *
+     * @param entities  The entities to insert.
+     * @param batchSize The maximum number of rows per statement or batch.
+     * @throws SQLException           If a database access error occurs.
+     * @throws IllegalAccessException If field access fails.
+     */
+    void createAll(Collection<T> entities, int batchSize) throws SQLException, IllegalAccessException;
+
+    /**
+     * Inserts an entity, or updates the row with its ID if there is one, in a
+     * single statement: INSERT ... ON DUPLICATE KEY UPDATE for MySQL,
+     * INSERT ... ON CONFLICT DO UPDATE for PostgreSQL, MERGE for SQL Server.
+     * The ID must be set. It is not queued during a transaction.
+     *
+     * @param entity The entity.
+     * @throws SQLException           If a database access error occurs.
+     * @throws IllegalAccessException If field access fails.
+     */
+    void upsert(T entity) throws SQLException, IllegalAccessException;
+
+    /**
+     * Upserts entities, see {@link #upsert(Object)}, in batches or multi-row
+     * statements as the dialect prefers. Of several entities with the same ID,
+     * the last one is written.
+     *
+     * @param entities The entities.
+     * @throws SQLException           If a database access error occurs.
+     * @throws IllegalAccessException If field access fails.
+     */
+    void upsertAll(Collection<T> entities) throws SQLException, IllegalAccessException;
+
+    /**
+     * Loads entities through the native bulk protocol of the database (COPY for
+     * PostgreSQL, LOAD DATA LOCAL INFILE for MySQL, bulk copy for SQL Server),
+     * streaming them as they are sent. Meant for initial loads and imports:
+     * the IDs are loaded as they are and no generated key is read back.
+     *
+     * @param entities The entities to load.
+     * @return The number of rows loaded.
+     * @throws SQLException If the load fails.
+     */
+    long bulkLoad(Iterable<T> entities) throws SQLException;
+
     Optional<T> findById(Object id) throws SQLException, ReflectiveOperationException;
 
+    /**
+     * Finds an entity by ID, loading its associations as the FetchPlan says
+     * instead of their annotation FetchMode. An entity already loaded in the
+     * session is returned as it is.
+     *
+     * @param id   The ID of the entity.
+     * @param plan The FetchPlan, or null for the annotation FetchModes.
+     * @return The entity, if found.
+     * @throws SQLException                 If a database access error occurs.
+     * @throws ReflectiveOperationException If mapping fails.
+     * @throws IllegalArgumentException     If a path of the plan is not an association.
+     */
+    Optional<T> findById(Object id, FetchPlan plan) throws SQLException, ReflectiveOperationException;
+
+    /**
+     * Finds the entities with the given IDs, using chunked IN queries.
+     * Missing IDs are ignored and the order of the result is unspecified.
+     *
+     * @param ids The IDs to look up.
+     * @return The entities found.
+     * @throws SQLException                 If a database access error occurs.
+     * @throws ReflectiveOperationException If mapping fails.
+     */
+    List<T> findAllById(Collection<?> ids) throws SQLException, ReflectiveOperationException;
+
+    /**
+     * Finds the entities whose column matches one of the given values, using
+     * chunked IN queries. The order of the result is unspecified.
+     *
+     * @param columnName The column to match.
+     * @param values     The values to look up.
+     * @return The entities found.
+     * @throws SQLException                 If a database access error occurs.
+     * @throws ReflectiveOperationException If mapping fails.
+     */
+    List<T> findAllBy(String columnName, Collection<?> values) throws SQLException, ReflectiveOperationException;
+
     List<T> read(String whereCondition) throws SQLException, ReflectiveOperationException;
 
+    /**
+     * Reads the entities matching a condition, loading their associations as
+     * the FetchPlan says instead of their annotation FetchMode.
+     *
+     * @param whereCondition The WHERE condition, may be null.
+     * @param plan           The FetchPlan, or null for the annotation FetchModes.
+     * @return The entities read.
+     * @throws SQLException                 If a database access error occurs.
+     * @throws ReflectiveOperationException If mapping fails.
+     * @throws IllegalArgumentException     If a path of the plan is not an association.
+     */
+    List<T> read(String whereCondition, FetchPlan plan) throws SQLException, ReflectiveOperationException;
+
+    /**
+     * Writes an entity to its row, found by the ID it was loaded with. An entity
+     * loaded in this session only writes the columns modified since it was
+     * loaded, and nothing at all when none was. During a transaction the write
+     * is queued, see {@link UnitOfWork}. A lazy proxy (see getLazy) is loaded
+     * and its entity written.
+     *
+     * @param entity The entity.
+     * @throws SQLException           If a database access error occurs.
+     * @throws IllegalAccessException If field access fails.
+     */
+    void update(T entity) throws SQLException, IllegalAccessException;
+
+    /**
+     * Writes an entity to the rows matching a condition. An entity loaded in
+     * this session only writes the columns modified since it was loaded, and
+     * nothing at all when none was; other entities write every column.
+     *
+     * @param entity         The entity.
+     * @param whereCondition The WHERE condition.
+     * @throws SQLException           If a database access error occurs.
+     * @throws IllegalAccessException If field access fails.
+     */
     void update(T entity, String whereCondition) throws SQLException, IllegalAccessException;
 
+    /**
+     * Deletes the row of an entity by its ID. During a transaction the delete
+     * is queued, see {@link UnitOfWork}.
+     *
+     * @param entity The entity.
+     * @throws SQLException           If a database access error occurs.
+     * @throws IllegalAccessException If field access fails.
+     */
+    void delete(T entity) throws SQLException, IllegalAccessException;
+
     void delete(String whereCondition) throws SQLException;
 
     /**
@@ -32,6 +180,20 @@ public interface Dao<T> {
      */
     List<Object[]> select(SelectBuilder<T> builder) throws SQLException;
 
+    /**
+     * Select method mapping each row into a projection (a record or DTO class)
+     * matched by column alias. When the builder has no columns, only the entity
+     * columns matching the projection properties are selected.
+     *
+     * @param builder        The SelectBuilder instance for building the query.
+     * @param projectionType The record or DTO class.
+     * @return A list of projection instances.
+     * @throws SQLException                 If a database access error occurs.
+     * @throws ReflectiveOperationException If a projection cannot be instantiated.
+     */
+    <P> List<P> select(SelectBuilder<T> builder, Class<P> projectionType)
+            throws SQLException, ReflectiveOperationException;
+
     T getLazy(Class<T> entityClass, Object id);
 
     SelectBuilder<T> dynamicJoinBuilder();
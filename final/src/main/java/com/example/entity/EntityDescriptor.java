@@ -0,0 +1,77 @@
+package com.example.entity;
+
+import java.util.List;
+
+import com.example.mapping.RowMapper;
+
+/**
+ * Compile-time description of an entity, generated by
+ * {@code com.example.processor.EntityProcessor} as {@code <Entity>_Descriptor}
+ * next to the entity class. When present it replaces annotation scanning of
+ * the columns in {@link EntityMetadataRegistry}.
+ * <p>
+ * Only the {@code @Column} and {@code @JoinColumn} fields are described: their
+ * Field handles are still looked up by name, the {@code @OneToMany}
+ * collections and the constructor used for records are still found by
+ * reflection when the EntityMetadata is built, and associations are resolved
+ * at run time from the referenced entity's metadata.
+ *
+ * @param <T> The type of the entity.
+ */
+public interface EntityDescriptor<T> {
+
+    /**
+     * Suffix appended to the binary name of the entity class to form the
+     * descriptor class name ({@code Outer$Entity_Descriptor} for a nested entity).
+     */
+    String CLASS_SUFFIX = "_Descriptor";
+
+    Class<T> getEntityClass();
+
+    String getTableName();
+
+    /**
+     * Retrieves the mapped columns in declaration order.
+     *
+     * @return List of ColumnDescriptor.
+     */
+    List<ColumnDescriptor> getColumns();
+
+    /**
+     * Retrieves the SELECT statement reading every column of the table.
+     *
+     * @return The SQL SELECT query string.
+     */
+    String getSelectAllSql();
+
+    /**
+     * Retrieves the generated row mapper. Columns read through their
+     * TypeHandler use the given metadata, so handlers registered at run time
+     * are honoured.
+     *
+     * @param columns The column metadata built from {@link #getColumns()}, in the same order.
+     * @return The RowMapper, or null if the entity has no public no-arg constructor
+     *         or a column inlined at compile time has a different TypeHandler now.
+     */
+    RowMapper<T> getRowMapper(List<ColumnMetadata> columns);
+
+    /**
+     * Checks that every ResultSet getter inlined by a generated row mapper is
+     * still what the column's TypeHandler would call.
+     *
+     * @param columns The column metadata.
+     * @param directGetters The inlined getter per column, null where the TypeHandler is called.
+     * @return true if the generated mapper reads like the TypeHandlers.
+     */
+    static boolean readsDirectly(List<ColumnMetadata> columns, String[] directGetters) {
+        if (columns.size() != directGetters.length) {
+            return false;
+        }
+        for (int i = 0; i < directGetters.length; i++) {
+            if (directGetters[i] != null && !directGetters[i].equals(columns.get(i).getDirectGetter())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,19 +1,31 @@
 package com.example.entity;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.StringJoiner;
 import java.util.stream.Collectors;
 
 import com.example.annotation.Column;
-import com.example.annotation.Id;
 import com.example.annotation.JoinColumn;
+import com.example.annotation.OneToMany;
+import com.example.mapping.RowMapper;
+import com.example.type.TypeHandlerRegistry;
 
 /**
  * Holds metadata information about an entity.
  * Applies Single Responsibility Principle.
+ * Instances are shared through {@link EntityMetadataRegistry}.
  */
 public class EntityMetadata {
     private final Class<?> entityClass;
@@ -21,13 +33,191 @@ public class EntityMetadata {
     private final List<ColumnMetadata> columns;
     private final ColumnMetadata idColumn;
     private final Map<String, ColumnMetadata> columnMap;
+    private final List<ColumnMetadata> associationColumns;
+    private final List<CollectionMetadata> collections;
+    private final Constructor<?> constructor;
+    private final ConstructorMapping constructorMapping;
+    private final String selectAllSql;
+    private final String selectByIdSql;
+    private final String insertSql;
+    private final String updateSql;
+    private final String deleteSql;
+    private final RowMapper<?> generatedRowMapper;
+    private final boolean customTypeHandlers;
 
-    public EntityMetadata(Class<?> entityClass) {
+    EntityMetadata(Class<?> entityClass) {
         this.entityClass = entityClass;
         this.tableName = EntityUtils.getTableName(entityClass);
         this.columns = resolveColumns();
         this.columnMap = createColumnMap();
         this.idColumn = findIdColumn();
+        this.associationColumns = resolveAssociationColumns();
+        this.collections = resolveCollections();
+        this.constructor = resolveConstructor();
+        this.constructorMapping = constructor == null ? resolveConstructorMapping() : null;
+        this.selectAllSql = "SELECT * FROM " + tableName;
+        this.selectByIdSql = selectAllSql + " WHERE " + idColumn.getColumnName() + " = ?";
+        this.insertSql = buildInsertSql(tableName, columns);
+        this.updateSql = buildUpdateSql(tableName, columns);
+        this.deleteSql = "DELETE FROM " + tableName;
+        this.generatedRowMapper = null;
+        this.customTypeHandlers = hasCustomTypeHandlers(columns);
+    }
+
+    /**
+     * Builds the metadata from a compile-time descriptor, skipping annotation scanning.
+     *
+     * @param descriptor The generated EntityDescriptor.
+     */
+    EntityMetadata(EntityDescriptor<?> descriptor) {
+        this.entityClass = descriptor.getEntityClass();
+        this.tableName = descriptor.getTableName();
+        this.columns = descriptor.getColumns().stream()
+                .map(column -> new ColumnMetadata(getDeclaredField(column.getFieldName()), column))
+                .collect(Collectors.toUnmodifiableList());
+        this.columnMap = createColumnMap();
+        this.idColumn = findIdColumn();
+        this.associationColumns = resolveAssociationColumns();
+        this.collections = resolveCollections();
+        this.constructor = resolveConstructor();
+        this.constructorMapping = constructor == null ? resolveConstructorMapping() : null;
+        this.selectAllSql = descriptor.getSelectAllSql();
+        this.selectByIdSql = selectAllSql + " WHERE " + idColumn.getColumnName() + " = ?";
+        this.insertSql = buildInsertSql(tableName, columns);
+        this.updateSql = buildUpdateSql(tableName, columns);
+        this.deleteSql = "DELETE FROM " + tableName;
+        this.customTypeHandlers = hasCustomTypeHandlers(columns);
+        this.generatedRowMapper = descriptor.getRowMapper(columns);
+    }
+
+    private Field getDeclaredField(String name) {
+        try {
+            return entityClass.getDeclaredField(name);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("Descriptor of " + entityClass.getName()
+                    + " is out of date, missing field: " + name, e);
+        }
+    }
+
+    // One placeholder per column, in column order (associations are stored by their ID)
+    private static String buildInsertSql(String tableName, List<ColumnMetadata> columns) {
+        StringJoiner names = new StringJoiner(", ", "INSERT INTO " + tableName + " (", ")");
+        StringJoiner values = new StringJoiner(", ", " VALUES (", ")");
+        for (ColumnMetadata column : columns) {
+            names.add(column.getColumnName());
+            values.add("?");
+        }
+        return names + values.toString();
+    }
+
+    private static String buildUpdateSql(String tableName, List<ColumnMetadata> columns) {
+        StringJoiner assignments = new StringJoiner(", ", "UPDATE " + tableName + " SET ", "");
+        for (ColumnMetadata column : columns) {
+            assignments.add(column.getColumnName() + " = ?");
+        }
+        return assignments.toString();
+    }
+
+    private List<ColumnMetadata> resolveAssociationColumns() {
+        return columns.stream()
+                .filter(ColumnMetadata::isAssociation)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    // Associations are skipped, they are resolved by the EntityMapper rather than converted
+    private static boolean hasCustomTypeHandlers(List<ColumnMetadata> columns) {
+        return columns.stream()
+                .filter(column -> !column.isAssociation())
+                .anyMatch(column -> !TypeHandlerRegistry.isBuiltIn(column.getTypeHandler()));
+    }
+
+    // Not part of the descriptors, @OneToMany fields are always found by scanning
+    private List<CollectionMetadata> resolveCollections() {
+        return Arrays.stream(entityClass.getDeclaredFields())
+                .filter(field -> field.isAnnotationPresent(OneToMany.class))
+                .map(CollectionMetadata::new)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private Constructor<?> resolveConstructor() {
+        try {
+            Constructor<?> noArgs = entityClass.getDeclaredConstructor();
+            noArgs.setAccessible(true);
+            return noArgs;
+        } catch (NoSuchMethodException e) {
+            return null; // Reported when an instance is requested
+        }
+    }
+
+    /**
+     * Constructor taking the column values, with the column feeding each parameter.
+     */
+    private static final class ConstructorMapping {
+        final MethodHandle handle; // (Object[]) -> Object, spread over the parameters
+        final int[] parameterColumns; // Column position per parameter, -1 when no column backs it
+        final Class<?>[] parameterTypes;
+        final boolean identity; // Parameters are exactly the columns, in order
+
+        ConstructorMapping(MethodHandle handle, int[] parameterColumns, Class<?>[] parameterTypes, int columnCount) {
+            this.handle = handle;
+            this.parameterColumns = parameterColumns;
+            this.parameterTypes = parameterTypes;
+            boolean inOrder = parameterColumns.length == columnCount;
+            for (int i = 0; inOrder && i < parameterColumns.length; i++) {
+                inOrder = parameterColumns[i] == i;
+            }
+            this.identity = inOrder;
+        }
+    }
+
+    // Records use their canonical constructor, other classes an all-args constructor in column order
+    private ConstructorMapping resolveConstructorMapping() {
+        Constructor<?> allArgs = null;
+        int[] parameterColumns = null;
+        if (entityClass.isRecord()) {
+            RecordComponent[] components = entityClass.getRecordComponents();
+            Class<?>[] types = new Class<?>[components.length];
+            parameterColumns = new int[components.length];
+            for (int i = 0; i < components.length; i++) {
+                types[i] = components[i].getType();
+                parameterColumns[i] = indexOfField(components[i].getName());
+            }
+            try {
+                allArgs = entityClass.getDeclaredConstructor(types);
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        } else {
+            Class<?>[] types = columns.stream().map(column -> column.getField().getType()).toArray(Class<?>[]::new);
+            try {
+                allArgs = entityClass.getDeclaredConstructor(types);
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+            parameterColumns = new int[types.length];
+            for (int i = 0; i < types.length; i++) {
+                parameterColumns[i] = i;
+            }
+        }
+
+        try {
+            MethodHandle handle = MethodHandles.privateLookupIn(entityClass, MethodHandles.lookup())
+                    .unreflectConstructor(allArgs)
+                    .asSpreader(Object[].class, allArgs.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+            return new ConstructorMapping(handle, parameterColumns, allArgs.getParameterTypes(), columns.size());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access constructor of " + entityClass.getName(), e);
+        }
+    }
+
+    private int indexOfField(String fieldName) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).getField().getName().equals(fieldName)) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     private Map<String, ColumnMetadata> createColumnMap() {
@@ -41,7 +231,7 @@ public class EntityMetadata {
         return Arrays.stream(entityClass.getDeclaredFields())
                 .filter(this::isValidColumn)
                 .map(ColumnMetadata::new)
-                .collect(Collectors.toList());
+                .collect(Collectors.toUnmodifiableList());
     }
 
     private boolean isValidColumn(Field field) {
@@ -71,12 +261,71 @@ public class EntityMetadata {
      * @throws IllegalStateException if no ID field is found
      */
     public Field getIdField() {
-        for (Field field : entityClass.getDeclaredFields()) {
-            if (field.isAnnotationPresent(Id.class)) {
-                return field;
-            }
+        return idColumn.getField();
+    }
+
+    /**
+     * Creates a new, empty instance of the entity through its no-arg constructor.
+     *
+     * @return The new entity instance.
+     * @throws ReflectiveOperationException If the entity cannot be instantiated.
+     */
+    public Object newInstance() throws ReflectiveOperationException {
+        if (constructor == null) {
+            throw new NoSuchMethodException("No no-arg constructor found in class: " + entityClass.getName());
+        }
+        return constructor.newInstance();
+    }
+
+    /**
+     * Checks whether the entity is built through a constructor taking the column
+     * values (records and classes with an all-args constructor but no no-arg one).
+     *
+     * @return true if {@link #newInstance(Object[])} must be used.
+     */
+    public boolean isConstructorMapped() {
+        return constructorMapping != null;
+    }
+
+    /**
+     * Creates an entity instance through its canonical or all-args constructor,
+     * invoked once through a cached method handle.
+     *
+     * @param values The value of each column, in {@link #getColumns()} order;
+     *               null for primitives stands for the default value.
+     * @return The new entity instance.
+     * @throws ReflectiveOperationException If the entity cannot be instantiated.
+     */
+    public Object newInstance(Object[] values) throws ReflectiveOperationException {
+        if (constructorMapping == null) {
+            throw new NoSuchMethodException("No record or all-args constructor found in class: "
+                    + entityClass.getName());
+        }
+        Object[] arguments = constructorMapping.identity ? values : new Object[constructorMapping.parameterColumns.length];
+        for (int i = 0; i < arguments.length; i++) {
+            int column = constructorMapping.parameterColumns[i];
+            Object value = column >= 0 ? values[column] : null;
+            Class<?> type = constructorMapping.parameterTypes[i];
+            arguments[i] = value == null && type.isPrimitive() ? defaultValue(type) : value;
+        }
+        try {
+            return (Object) constructorMapping.handle.invokeExact(arguments);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
         }
-        throw new IllegalStateException("No @Id field found in class: " + entityClass.getName());
+    }
+
+    private static Object defaultValue(Class<?> primitive) {
+        if (primitive == boolean.class) return false;
+        if (primitive == char.class) return '\0';
+        if (primitive == byte.class) return (byte) 0;
+        if (primitive == short.class) return (short) 0;
+        if (primitive == int.class) return 0;
+        if (primitive == long.class) return 0L;
+        if (primitive == float.class) return 0f;
+        return 0d;
     }
 
     public void validateEntity(Object entity) {
@@ -116,4 +365,135 @@ public class EntityMetadata {
         return idColumn;
     }
 
+    /**
+     * Retrieves the @JoinColumn columns that reference another entity.
+     *
+     * @return List of association ColumnMetadata.
+     */
+    public List<ColumnMetadata> getAssociationColumns() {
+        return associationColumns;
+    }
+
+    /**
+     * Retrieves the @OneToMany collections of the entity.
+     *
+     * @return List of CollectionMetadata.
+     */
+    public List<CollectionMetadata> getCollections() {
+        return collections;
+    }
+
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * Retrieves the SELECT statement reading every column of the table.
+     *
+     * @return The SQL SELECT query string.
+     */
+    public String getSelectAllSql() {
+        return selectAllSql;
+    }
+
+    /**
+     * Retrieves the SELECT statement reading one row, with a placeholder for the ID.
+     *
+     * @return The SQL SELECT query string.
+     */
+    public String getSelectByIdSql() {
+        return selectByIdSql;
+    }
+
+    /**
+     * Retrieves the INSERT statement, with one placeholder per column in the
+     * order of {@link #getColumns()}.
+     *
+     * @return The SQL INSERT query string.
+     */
+    public String getInsertSql() {
+        return insertSql;
+    }
+
+    /**
+     * Retrieves the UPDATE statement without its WHERE clause, with one
+     * placeholder per column in the order of {@link #getColumns()}.
+     *
+     * @return The SQL UPDATE query string.
+     */
+    public String getUpdateSql() {
+        return updateSql;
+    }
+
+    /**
+     * Retrieves the DELETE statement without its WHERE clause.
+     *
+     * @return The SQL DELETE query string.
+     */
+    public String getDeleteSql() {
+        return deleteSql;
+    }
+
+    /**
+     * Captures the column values of an entity, in the order of
+     * {@link #getColumns()}, to detect later which columns were modified.
+     * Associations are captured by the ID of the referenced entity, and mutable
+     * dates and byte arrays are copied.
+     *
+     * @param entity The entity instance.
+     * @return The column values.
+     * @throws IllegalAccessException If field access fails.
+     */
+    public Object[] snapshot(Object entity) throws IllegalAccessException {
+        Object[] values = new Object[columns.size()];
+        for (int i = 0; i < values.length; i++) {
+            Object value = columns.get(i).getColumnValue(entity);
+            if (value instanceof java.util.Date) {
+                value = ((java.util.Date) value).clone();
+            } else if (value instanceof byte[]) {
+                value = ((byte[]) value).clone();
+            }
+            values[i] = value;
+        }
+        return values;
+    }
+
+    /**
+     * Retrieves the columns whose value differs from a snapshot.
+     *
+     * @param snapshot The values captured by {@link #snapshot(Object)}.
+     * @param entity   The entity instance.
+     * @return The modified columns, in the order of {@link #getColumns()}.
+     * @throws IllegalAccessException If field access fails.
+     */
+    public List<ColumnMetadata> getDirtyColumns(Object[] snapshot, Object entity) throws IllegalAccessException {
+        List<ColumnMetadata> dirty = new ArrayList<>();
+        for (int i = 0; i < snapshot.length; i++) {
+            ColumnMetadata column = columns.get(i);
+            if (!Objects.deepEquals(snapshot[i], column.getColumnValue(entity))) {
+                dirty.add(column);
+            }
+        }
+        return dirty;
+    }
+
+    /**
+     * Checks whether a column uses a TypeHandler registered by the application.
+     *
+     * @return true if a custom TypeHandler is in use.
+     */
+    public boolean hasCustomTypeHandlers() {
+        return customTypeHandlers;
+    }
+
+    /**
+     * Retrieves the row mapper generated at compile time, if any.
+     *
+     * @return The RowMapper, or null if the entity has no descriptor or no
+     *         public no-arg constructor.
+     */
+    public RowMapper<?> getGeneratedRowMapper() {
+        return generatedRowMapper;
+    }
+
 }
@@ -0,0 +1,48 @@
+package com.example.entity;
+
+/**
+ * Process-wide registry of {@link EntityMetadata}.
+ * Metadata is built once per entity class and shared by every DAO, mapper and
+ * query builder, so annotation scanning happens only on first use of a class.
+ * Entities with a compile-time {@link EntityDescriptor} skip scanning entirely.
+ */
+public final class EntityMetadataRegistry {
+
+    // ClassValue is thread-safe and does not pin entity classes to this class loader
+    private static final ClassValue<EntityMetadata> METADATA = new ClassValue<>() {
+        @Override
+        protected EntityMetadata computeValue(Class<?> type) {
+            EntityDescriptor<?> descriptor = findDescriptor(type);
+            return descriptor != null ? new EntityMetadata(descriptor) : new EntityMetadata(type);
+        }
+    };
+
+    private EntityMetadataRegistry() {
+    } // Prevent instantiation
+
+    /**
+     * Retrieves the metadata of an entity class, building it on first access.
+     *
+     * @param entityClass The entity class.
+     * @return The shared EntityMetadata instance.
+     */
+    public static EntityMetadata getMetadata(Class<?> entityClass) {
+        return METADATA.get(entityClass);
+    }
+
+    // Looks up <Entity>_Descriptor generated by the annotation processor
+    private static EntityDescriptor<?> findDescriptor(Class<?> entityClass) {
+        try {
+            Class<?> descriptorClass = Class.forName(entityClass.getName() + EntityDescriptor.CLASS_SUFFIX,
+                    true, entityClass.getClassLoader());
+            if (!EntityDescriptor.class.isAssignableFrom(descriptorClass)) {
+                return null;
+            }
+            return (EntityDescriptor<?>) descriptorClass.getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            return null; // Not processed at compile time, fall back to annotation scanning
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot instantiate descriptor of " + entityClass.getName(), e);
+        }
+    }
+}
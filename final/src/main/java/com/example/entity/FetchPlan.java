@@ -0,0 +1,129 @@
+package com.example.entity;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.example.annotation.FetchMode;
+
+/**
+ * Per-query override of the FetchMode of associations, given by path from the
+ * entity read: {@code classObject}, {@code subjects}, {@code teacher.classObject}.
+ * Associations not listed keep the FetchMode of their annotation.
+ * <p>
+ * On a @OneToMany collection, LAZY (the default of the annotation) leaves the
+ * collection unloaded, BATCH or SELECT load it, and JOIN behaves like BATCH.
+ * JOIN applies to the associations of the entity read only, nested JOIN paths
+ * are batch-fetched.
+ *
+ * <pre>
+ * userDao.read("is_active = 1", new FetchPlan()
+ *         .join("classObject")
+ *         .batch("subjects")
+ *         .batch("teacher.classObject"));
+ * </pre>
+ */
+public class FetchPlan {
+
+    private final Map<String, FetchMode> fetchModes = new LinkedHashMap<>();
+    private final Map<String, FetchPlan> nestedPlans = new LinkedHashMap<>();
+
+    /**
+     * Sets the FetchMode of an association path.
+     *
+     * @param path The dot-separated field names leading to the association.
+     * @param mode The FetchMode.
+     * @return This FetchPlan.
+     */
+    public FetchPlan fetch(String path, FetchMode mode) {
+        int dot = path.indexOf('.');
+        if (dot < 0) {
+            fetchModes.put(path, mode);
+        } else {
+            nestedPlans.computeIfAbsent(path.substring(0, dot), attribute -> new FetchPlan())
+                    .fetch(path.substring(dot + 1), mode);
+        }
+        return this;
+    }
+
+    public FetchPlan join(String path) {
+        return fetch(path, FetchMode.JOIN);
+    }
+
+    public FetchPlan batch(String path) {
+        return fetch(path, FetchMode.BATCH);
+    }
+
+    public FetchPlan lazy(String path) {
+        return fetch(path, FetchMode.LAZY);
+    }
+
+    /**
+     * Retrieves the FetchMode planned for an association of the entity.
+     *
+     * @param attribute The field name of the association.
+     * @return The FetchMode, or null to use the one of the annotation.
+     */
+    public FetchMode getFetchMode(String attribute) {
+        return fetchModes.get(attribute);
+    }
+
+    /**
+     * Retrieves the FetchMode of a to-one association column.
+     *
+     * @param column The association column.
+     * @return The planned FetchMode, otherwise the one of the annotation.
+     */
+    public FetchMode getFetchMode(ColumnMetadata column) {
+        return fetchModes.getOrDefault(column.getField().getName(), column.getFetchMode());
+    }
+
+    /**
+     * Retrieves the plan of the entities reached through an association.
+     *
+     * @param attribute The field name of the association.
+     * @return The nested FetchPlan, or null if none was given.
+     */
+    public FetchPlan getNestedPlan(String attribute) {
+        return nestedPlans.get(attribute);
+    }
+
+    /**
+     * Checks that every path leads to an association.
+     *
+     * @param metadata The metadata of the entity the plan applies to.
+     * @throws IllegalArgumentException If a path names an unknown field or a
+     *                                  field that is not an association.
+     */
+    public void validate(EntityMetadata metadata) {
+        Set<String> attributes = new TreeSet<>(fetchModes.keySet());
+        attributes.addAll(nestedPlans.keySet());
+        for (String attribute : attributes) {
+            EntityMetadata target = findTarget(metadata, attribute);
+            if (target == null) {
+                throw new IllegalArgumentException("Unknown association '" + attribute + "' of "
+                        + metadata.getEntityClass().getSimpleName());
+            }
+            FetchPlan nested = nestedPlans.get(attribute);
+            if (nested != null) {
+                nested.validate(target);
+            }
+        }
+    }
+
+    // Metadata of the entity an association leads to, null if the field is not an association
+    private static EntityMetadata findTarget(EntityMetadata metadata, String attribute) {
+        for (ColumnMetadata column : metadata.getColumns()) {
+            if (column.isAssociation() && column.getField().getName().equals(attribute)) {
+                return column.getReferencedMetadata();
+            }
+        }
+        for (CollectionMetadata collection : metadata.getCollections()) {
+            if (collection.getField().getName().equals(attribute)) {
+                return EntityMetadataRegistry.getMetadata(collection.getElementType());
+            }
+        }
+        return null;
+    }
+}
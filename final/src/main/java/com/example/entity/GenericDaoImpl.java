@@ -26,13 +26,13 @@ public class GenericDaoImpl<T> extends AbstractGenericDao<T> {
     }
 
     @Override
-    protected String buildInsertQuery(T entity) throws IllegalAccessException, NoSuchFieldException {
-        return queryBuilder.buildInsertQuery(entity);
+    protected String buildInsertQuery() {
+        return queryBuilder.buildInsertQuery();
     }
 
     @Override
-    protected String buildSelectByIdQuery(Object id) {
-        return queryBuilder.buildSelectByIdQuery(id);
+    protected String buildSelectByIdQuery() {
+        return queryBuilder.buildSelectByIdQuery();
     }
 
     @Override
@@ -41,8 +41,8 @@ public class GenericDaoImpl<T> extends AbstractGenericDao<T> {
     }
 
     @Override
-    protected String buildUpdateQuery(T entity, String whereCondition) throws IllegalAccessException {
-        return queryBuilder.buildUpdateQuery(entity, whereCondition);
+    protected String buildUpdateQuery(String whereCondition) {
+        return queryBuilder.buildUpdateQuery(whereCondition);
     }
 
     @Override
@@ -0,0 +1,98 @@
+package com.example.entity;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+
+/**
+ * Reads and writes a single entity field through a precomputed VarHandle.
+ * Replaces per-call Field.setAccessible/get/set so field access can be inlined,
+ * and offers primitive-typed variants that avoid boxing for int, long, boolean
+ * and double fields.
+ */
+public final class PropertyAccessor {
+    private final String name;
+    private final Class<?> type;
+    private final VarHandle handle;
+
+    private PropertyAccessor(String name, Class<?> type, VarHandle handle) {
+        this.name = name;
+        this.type = type;
+        this.handle = handle;
+    }
+
+    /**
+     * Creates an accessor for the given field.
+     *
+     * @param field The entity field.
+     * @return The PropertyAccessor.
+     * @throws IllegalStateException If the field cannot be accessed.
+     */
+    public static PropertyAccessor of(Field field) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+            return new PropertyAccessor(field.getName(), field.getType(), lookup.unreflectVarHandle(field));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access field " + field.getDeclaringClass().getName()
+                    + "." + field.getName(), e);
+        }
+    }
+
+    public Object get(Object entity) {
+        return handle.get(entity);
+    }
+
+    public void set(Object entity, Object value) {
+        handle.set(entity, value);
+    }
+
+    public int getInt(Object entity) {
+        return (int) handle.get(entity);
+    }
+
+    public void setInt(Object entity, int value) {
+        handle.set(entity, value);
+    }
+
+    public long getLong(Object entity) {
+        return (long) handle.get(entity);
+    }
+
+    public void setLong(Object entity, long value) {
+        handle.set(entity, value);
+    }
+
+    public boolean getBoolean(Object entity) {
+        return (boolean) handle.get(entity);
+    }
+
+    public void setBoolean(Object entity, boolean value) {
+        handle.set(entity, value);
+    }
+
+    public double getDouble(Object entity) {
+        return (double) handle.get(entity);
+    }
+
+    public void setDouble(Object entity, double value) {
+        handle.set(entity, value);
+    }
+
+    /**
+     * Retrieves the name of the field.
+     *
+     * @return The field name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Retrieves the declared type of the field.
+     *
+     * @return The field type.
+     */
+    public Class<?> getType() {
+        return type;
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.entity;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Write-behind queue of a DatabaseSession transaction. Between
+ * beginTransaction and commitTransaction the DAOs register their writes here
+ * instead of executing them, and the flush (at commit, or before a query of
+ * the transaction) executes them as JDBC batches:
+ * <ul>
+ * <li>Repeated writes of an entity are coalesced: it is inserted or updated
+ * once with its final state, an update by ID of a new entity is part of its
+ * INSERT, and an entity created then deleted is never written.</li>
+ * <li>INSERTs run first, referenced entities before the entities referencing
+ * them through @JoinColumn associations, then UPDATEs, then DELETEs in the
+ * reverse order.</li>
+ * </ul>
+ * Within an entity type, writes keep the order they were registered in.
+ * Generated keys are written back to new entities when they are flushed.
+ */
+public class UnitOfWork {
+
+    private final Map<Class<?>, EntityChanges<?>> changes = new LinkedHashMap<>();
+    private boolean active;
+
+    public boolean isActive() {
+        return active;
+    }
+
+    // Starts queuing writes
+    public void begin() {
+        active = true;
+    }
+
+    // Stops queuing writes, discarding those not flushed
+    public void end() {
+        changes.clear();
+        active = false;
+    }
+
+    public boolean hasPendingWrites() {
+        return !changes.isEmpty();
+    }
+
+    <T> void registerNew(AbstractGenericDao<T> dao, T entity) {
+        changesOf(dao).inserts.add(entity);
+    }
+
+    <T> void registerUpdate(AbstractGenericDao<T> dao, T entity) {
+        EntityChanges<T> entityChanges = changesOf(dao);
+        if (!entityChanges.inserts.contains(entity) && !entityChanges.deletes.contains(entity)) {
+            entityChanges.updates.add(entity); // Once, with its state at flush time
+        }
+    }
+
+    <T> void registerUpdate(AbstractGenericDao<T> dao, T entity, String whereCondition) {
+        EntityChanges<T> entityChanges = changesOf(dao);
+        for (WhereUpdate<T> update : entityChanges.whereUpdates) {
+            if (update.entity() == entity && update.whereCondition().equals(whereCondition)) {
+                return;
+            }
+        }
+        entityChanges.whereUpdates.add(new WhereUpdate<>(entity, whereCondition));
+    }
+
+    <T> void registerDelete(AbstractGenericDao<T> dao, T entity) {
+        EntityChanges<T> entityChanges = changesOf(dao);
+        entityChanges.updates.remove(entity);
+        if (!entityChanges.inserts.remove(entity)) { // Otherwise never written
+            entityChanges.deletes.add(entity);
+        }
+    }
+
+    <T> void registerDelete(AbstractGenericDao<T> dao, String whereCondition) {
+        changesOf(dao).whereDeletes.add(whereCondition);
+    }
+
+    /**
+     * Executes the pending writes and empties the queue, even if a write fails.
+     *
+     * @throws SQLException If a write fails; the transaction should then be rolled back.
+     */
+    public void flush() throws SQLException {
+        if (changes.isEmpty()) {
+            return;
+        }
+        List<EntityChanges<?>> ordered = orderByDependencies();
+        changes.clear(); // Writes of postCreate hooks are queued for the next flush
+        try {
+            for (EntityChanges<?> entityChanges : ordered) {
+                entityChanges.flushInserts();
+            }
+            for (EntityChanges<?> entityChanges : ordered) {
+                entityChanges.flushUpdates();
+            }
+            for (int i = ordered.size() - 1; i >= 0; i--) {
+                ordered.get(i).flushDeletes();
+            }
+        } catch (IllegalAccessException e) {
+            throw new SQLException("Failed to flush pending writes", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> EntityChanges<T> changesOf(AbstractGenericDao<T> dao) {
+        return (EntityChanges<T>) changes.computeIfAbsent(dao.clazz, type -> new EntityChanges<>(dao));
+    }
+
+    // Entity types with pending writes, each after the types its associations reference
+    private List<EntityChanges<?>> orderByDependencies() {
+        List<EntityChanges<?>> ordered = new ArrayList<>(changes.size());
+        Set<Class<?>> visited = new HashSet<>();
+        for (Class<?> type : changes.keySet()) {
+            visit(type, visited, ordered);
+        }
+        return ordered;
+    }
+
+    // Depth-first, so a cycle (such as User.teacher) keeps the registration order
+    private void visit(Class<?> type, Set<Class<?>> visited, List<EntityChanges<?>> ordered) {
+        if (!visited.add(type)) {
+            return;
+        }
+        for (ColumnMetadata column : EntityMetadataRegistry.getMetadata(type).getAssociationColumns()) {
+            if (changes.containsKey(column.getReferencedEntity())) {
+                visit(column.getReferencedEntity(), visited, ordered);
+            }
+        }
+        ordered.add(changes.get(type));
+    }
+
+    private record WhereUpdate<T>(T entity, String whereCondition) {
+    }
+
+    /**
+     * Pending writes of one entity type, executed through its DAO. Entities are
+     * compared by identity.
+     */
+    private static final class EntityChanges<T> {
+        private final AbstractGenericDao<T> dao;
+        private final IdentityList<T> inserts = new IdentityList<>();
+        private final IdentityList<T> updates = new IdentityList<>();
+        private final List<WhereUpdate<T>> whereUpdates = new ArrayList<>();
+        private final IdentityList<T> deletes = new IdentityList<>();
+        private final Set<String> whereDeletes = new LinkedHashSet<>();
+
+        EntityChanges(AbstractGenericDao<T> dao) {
+            this.dao = dao;
+        }
+
+        void flushInserts() throws SQLException, IllegalAccessException {
+            if (!inserts.isEmpty()) {
+                dao.insertAll(inserts.list, AbstractGenericDao.INSERT_BATCH_SIZE);
+            }
+        }
+
+        void flushUpdates() throws SQLException, IllegalAccessException {
+            if (!updates.isEmpty()) {
+                dao.updateAll(updates.list);
+            }
+            for (WhereUpdate<T> update : whereUpdates) {
+                dao.updateWhere(update.entity(), update.whereCondition());
+            }
+        }
+
+        void flushDeletes() throws SQLException, IllegalAccessException {
+            if (!deletes.isEmpty()) {
+                dao.deleteAll(deletes.list);
+            }
+            for (String whereCondition : whereDeletes) {
+                dao.deleteWhere(whereCondition);
+            }
+        }
+    }
+
+    // Ordered list with constant-time membership by identity
+    private static final class IdentityList<T> {
+        private final List<T> list = new ArrayList<>();
+        private final Set<T> members = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        boolean contains(T element) {
+            return members.contains(element);
+        }
+
+        void add(T element) {
+            if (members.add(element)) {
+                list.add(element);
+            }
+        }
+
+        boolean remove(T element) {
+            if (!members.remove(element)) {
+                return false;
+            }
+            list.removeIf(member -> member == element);
+            return true;
+        }
+
+        boolean isEmpty() {
+            return list.isEmpty();
+        }
+    }
+}
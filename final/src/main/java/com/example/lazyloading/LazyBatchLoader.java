@@ -0,0 +1,176 @@
+package com.example.lazyloading;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.entity.ColumnMetadata;
+import com.example.entity.EntityMetadataRegistry;
+
+/**
+ * Session-scoped registry of the lazy proxies that are not initialized yet,
+ * grouped by entity type and ID.
+ * <p>
+ * When one proxy is initialized, up to {@link #getBatchSize()} pending IDs of
+ * the same type are loaded with it in a single {@code IN (...)} query, and
+ * every proxy of those IDs is initialized from the result. Iterating a list
+ * of proxies therefore costs one query per batch instead of one per proxy.
+ * <p>
+ * Pending proxies are held weakly: a proxy no longer referenced by the
+ * application is forgotten, and its ID is not loaded by later batches.
+ * DatabaseSession also clears the registry at the end of a transaction.
+ */
+public class LazyBatchLoader {
+
+    public static final int DEFAULT_BATCH_SIZE = 32;
+
+    /**
+     * Loads the entities of a set of IDs, typically Dao.findAllById.
+     *
+     * @param <T> The type of the entity.
+     */
+    @FunctionalInterface
+    public interface BatchFetcher<T> {
+        List<T> fetch(Collection<?> ids) throws Exception;
+    }
+
+    private final Map<Class<?>, LinkedHashMap<Object, List<PendingProxy>>> pending = new HashMap<>();
+    private final ReferenceQueue<LazyInitializer<?>> collected = new ReferenceQueue<>();
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the number of IDs loaded per query, 1 disabling batching.
+     *
+     * @param batchSize The batch size.
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Creates a proxy of an entity, registered as pending until it or one of its
+     * siblings is initialized.
+     *
+     * @param entityClass The Class type of the entity.
+     * @param id          The ID of the entity.
+     * @param fetcher     Loads the entities of a batch of IDs.
+     * @return The uninitialized proxy.
+     */
+    public <T> T createProxy(Class<T> entityClass, Object id, BatchFetcher<T> fetcher) {
+        LazyInitializer<T> initializer = new LazyInitializer<>(entityClass, id, () -> load(entityClass, id, fetcher));
+        T proxy = initializer.createProxy();
+        synchronized (this) {
+            expungeCollected();
+            pending.computeIfAbsent(entityClass, type -> new LinkedHashMap<>())
+                    .computeIfAbsent(id, key -> new ArrayList<>(1))
+                    .add(new PendingProxy(initializer, entityClass, id, collected));
+        }
+        return proxy;
+    }
+
+    /**
+     * Forgets every pending proxy, which then loads alone on first use.
+     */
+    public synchronized void clear() {
+        pending.clear();
+        while (collected.poll() != null) {
+            // Already forgotten
+        }
+    }
+
+    // Removes the entries of the proxies garbage collected since the last call
+    private void expungeCollected() {
+        Reference<? extends LazyInitializer<?>> reference;
+        while ((reference = collected.poll()) != null) {
+            PendingProxy proxy = (PendingProxy) reference;
+            LinkedHashMap<Object, List<PendingProxy>> byId = pending.get(proxy.entityClass);
+            List<PendingProxy> proxies = byId != null ? byId.get(proxy.id) : null;
+            if (proxies == null || !proxies.remove(proxy)) {
+                continue; // Claimed by a batch or cleared
+            }
+            if (proxies.isEmpty()) {
+                byId.remove(proxy.id);
+                if (byId.isEmpty()) {
+                    pending.remove(proxy.entityClass);
+                }
+            }
+        }
+    }
+
+    // Fetch callback of a proxy: loads its ID together with pending siblings
+    private <T> T load(Class<T> entityClass, Object id, BatchFetcher<T> fetcher) throws Exception {
+        Map<Object, List<PendingProxy>> claimed = claim(entityClass, id);
+        List<Object> ids = new ArrayList<>(claimed.keySet());
+        if (ids.isEmpty()) {
+            ids.add(id); // Claimed by a concurrent batch, load alone
+        }
+
+        ColumnMetadata idColumn = EntityMetadataRegistry.getMetadata(entityClass).getIdColumn();
+        Map<Object, T> loaded = new HashMap<>();
+        for (T entity : fetcher.fetch(ids)) {
+            loaded.put(idColumn.getColumnValue(entity), entity);
+        }
+
+        for (Map.Entry<Object, List<PendingProxy>> entry : claimed.entrySet()) {
+            Object entity = loaded.get(entry.getKey());
+            for (PendingProxy proxy : entry.getValue()) {
+                LazyInitializer<?> initializer = proxy.get();
+                if (initializer != null) {
+                    initializer.initialize(entity);
+                }
+            }
+        }
+        return loaded.get(id);
+    }
+
+    // Removes the requested ID and up to batchSize - 1 other pending IDs of the type
+    private synchronized Map<Object, List<PendingProxy>> claim(Class<?> entityClass, Object id) {
+        expungeCollected();
+        Map<Object, List<PendingProxy>> claimed = new LinkedHashMap<>();
+        LinkedHashMap<Object, List<PendingProxy>> byId = pending.get(entityClass);
+        if (byId == null) {
+            return claimed;
+        }
+        List<PendingProxy> requested = byId.remove(id);
+        if (requested != null) {
+            claimed.put(id, requested);
+        }
+        Iterator<Map.Entry<Object, List<PendingProxy>>> siblings = byId.entrySet().iterator();
+        while (siblings.hasNext() && claimed.size() < batchSize) {
+            Map.Entry<Object, List<PendingProxy>> sibling = siblings.next();
+            claimed.put(sibling.getKey(), sibling.getValue());
+            siblings.remove();
+        }
+        if (byId.isEmpty()) {
+            pending.remove(entityClass);
+        }
+        return claimed;
+    }
+
+    // Weak entry of a pending proxy, identified for removal once collected
+    private static final class PendingProxy extends WeakReference<LazyInitializer<?>> {
+        private final Class<?> entityClass;
+        private final Object id;
+
+        PendingProxy(LazyInitializer<?> initializer, Class<?> entityClass, Object id,
+                ReferenceQueue<LazyInitializer<?>> queue) {
+            super(initializer, queue);
+            this.entityClass = entityClass;
+            this.id = id;
+        }
+    }
+}
@@ -1,5 +1,24 @@
 package com.example.lazyloading;
 
+/**
+ * Implemented by the proxies created by {@link LazyInitializer}.
+ */
 public interface LazyEntity {
     boolean isInitialized();
+
+    /**
+     * Retrieves the ID of the proxied entity, without initializing it.
+     *
+     * @return The ID, or null if the proxy was created without one.
+     */
+    Object getIdentifier();
+
+    /**
+     * Retrieves the proxied entity, loading it if the proxy is not initialized.
+     * The fields of the proxy itself are never set, so code reading them (such
+     * as the DAO writes) must use the entity instead.
+     *
+     * @return The entity, or null if it does not exist.
+     */
+    Object getImplementation();
 }
@@ -1,77 +1,325 @@
 package com.example.lazyloading;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.concurrent.Callable;
 
+import com.example.entity.EntityMetadata;
+import com.example.entity.EntityMetadataRegistry;
+import com.example.entity.PropertyAccessor;
+
 import net.bytebuddy.ByteBuddy;
-import net.bytebuddy.implementation.MethodDelegation;
+import net.bytebuddy.asm.AsmVisitorWrapper;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.dynamic.scaffold.subclass.ConstructorStrategy;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
+import net.bytebuddy.implementation.bytecode.member.MethodReturn;
+import net.bytebuddy.implementation.bytecode.member.MethodVariableAccess;
+import net.bytebuddy.jar.asm.ClassWriter;
+import net.bytebuddy.jar.asm.Label;
+import net.bytebuddy.jar.asm.MethodVisitor;
+import net.bytebuddy.jar.asm.Opcodes;
+import net.bytebuddy.jar.asm.Type;
+import net.bytebuddy.matcher.ElementMatcher;
 import net.bytebuddy.matcher.ElementMatchers;
+import net.bytebuddy.pool.TypePool;
 
+/**
+ * Creates lazy-loading proxies of an entity.
+ * <p>
+ * One proxy class, {@code <Entity>$$LazyProxy}, is generated per entity type
+ * and cached. Each proxy instance holds its LazyInitializer in a field, and
+ * every proxied method calls the loaded target directly (no reflection). The
+ * target is loaded once, under double-checked locking, on the first call of
+ * any method other than the ID getter.
+ *
+ * @param <T> The type of the entity.
+ */
 public class LazyInitializer<T> {
-    private T target;
+
+    private static final String INITIALIZER_FIELD = "$lazyInitializer";
+    private static final String INITIALIZER = Type.getInternalName(LazyInitializer.class);
+
+    private static final ClassValue<ProxyType> PROXY_TYPES = new ClassValue<>() {
+        @Override
+        protected ProxyType computeValue(Class<?> type) {
+            return new ProxyType(type);
+        }
+    };
+
     private final Class<T> entityClass;
     private final Callable<T> fetchCallback;
-    private boolean initialized = false;
+    private final Object identifier;
+    private volatile boolean initialized = false;
+    private T target; // Published by the volatile write of initialized
+    private boolean identifierStored = false;
 
     public LazyInitializer(Class<T> entityClass, Callable<T> fetchCallback) {
+        this(entityClass, null, fetchCallback);
+    }
+
+    /**
+     * Creates an initializer for an entity whose ID is already known, such as
+     * the target of a foreign key. The ID getter of the proxy answers without
+     * loading the entity.
+     *
+     * @param entityClass   The Class type of the entity.
+     * @param identifier    The ID of the entity.
+     * @param fetchCallback Loads the entity on first use.
+     */
+    public LazyInitializer(Class<T> entityClass, Object identifier, Callable<T> fetchCallback) {
         this.entityClass = entityClass;
         this.fetchCallback = fetchCallback;
+        this.identifier = identifier;
     }
 
-    public T createProxy() {
+    /**
+     * Checks whether a class can be proxied, which requires a non-final, concrete
+     * class with a non-private no-arg constructor.
+     *
+     * @param entityClass The Class type of the entity.
+     * @return true if createProxy can be used.
+     */
+    public static boolean isProxyable(Class<?> entityClass) {
+        int modifiers = entityClass.getModifiers();
+        if (Modifier.isFinal(modifiers) || Modifier.isAbstract(modifiers) || entityClass.isRecord()) {
+            return false;
+        }
         try {
-            return new ByteBuddy()
-                    .subclass(entityClass) // Create subclass proxy
-                    .method(ElementMatchers.isVirtual() // Match only non-final methods
-                            .and(ElementMatchers.not(ElementMatchers.isDeclaredBy(Object.class)))) // Exclude Object methods
-                    .intercept(MethodDelegation.to(this)) // Delegate method calls to this LazyInitializer
-                    .make()
-                    .load(entityClass.getClassLoader())
-                    .getLoaded()
-                    .getDeclaredConstructor()
-                    .newInstance();
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to create proxy", e);
+            return !Modifier.isPrivate(entityClass.getDeclaredConstructor().getModifiers());
+        } catch (NoSuchMethodException e) {
+            return false;
         }
     }
 
-    @net.bytebuddy.implementation.bind.annotation.RuntimeType
-    public Object intercept(@net.bytebuddy.implementation.bind.annotation.SuperCall Callable<Object> superCall,
-                            @net.bytebuddy.implementation.bind.annotation.Origin Method method,
-                            @net.bytebuddy.implementation.bind.annotation.AllArguments Object[] args) throws Exception {
-        if (!initialized) {
-            loadEntity();
+    public T createProxy() {
+        ProxyType proxyType = PROXY_TYPES.get(entityClass);
+        T proxy = entityClass.cast(proxyType.newInstance(this));
+        if (identifier != null && proxyType.idAccessor != null) {
+            try {
+                proxyType.idAccessor.set(proxy, identifier); // Read back by the ID getter
+                identifierStored = true;
+            } catch (RuntimeException e) {
+                // ID of another type than the field, the ID getter will load the entity
+            }
         }
+        return proxy;
+    }
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    public Object getIdentifier() {
+        return identifier;
+    }
+
+    /**
+     * Checks whether the ID field of the proxy holds the ID, letting the ID
+     * getter run on the proxy itself. Called by the generated proxy.
+     *
+     * @return true if the ID getter does not need the target.
+     */
+    public boolean hasIdentifier() {
+        return identifierStored;
+    }
 
-        if (target == null) {
-            // Print error and return a default value or null based on the return type
-            System.out.println("Lazy loading failed: target object is null for method " + method.getName());
-            return getDefaultValue(method.getReturnType());
+    /**
+     * Retrieves the target entity, loading it on first call. Called by the
+     * generated proxy before every dispatched method.
+     *
+     * @return The target, or null if the entity does not exist (the call then
+     *         runs on the uninitialized proxy).
+     */
+    public T getImplementation() {
+        if (!initialized) {
+            synchronized (this) {
+                if (!initialized) {
+                    loadEntity();
+                }
+            }
         }
+        return target;
+    }
 
-        // Invoke the actual method on the target object
-        return method.invoke(target, args);
+    /**
+     * Initializes the proxy with an entity loaded elsewhere, such as in a batch
+     * with other proxies. Does nothing if the proxy is already initialized.
+     *
+     * @param entity The loaded entity, or null if it does not exist.
+     */
+    @SuppressWarnings("unchecked")
+    synchronized void initialize(Object entity) {
+        if (!initialized) {
+            this.target = (T) entity;
+            this.initialized = true;
+        }
     }
 
     private void loadEntity() {
         try {
             this.target = fetchCallback.call(); // Fetch the actual entity
+            if (target == null) {
+                System.out.println("Lazy loading failed: no " + entityClass.getSimpleName()
+                        + " found for ID " + identifier);
+            }
             this.initialized = true;
         } catch (Exception e) {
             throw new RuntimeException("Failed to initialize lazy entity", e);
         }
     }
 
-    // Helper to provide default values for primitive return types
-    private Object getDefaultValue(Class<?> returnType) {
-        if (returnType.isPrimitive()) {
-            if (returnType == boolean.class) return false;
-            if (returnType == char.class) return '\0';
-            if (returnType == byte.class || returnType == short.class ||
-                returnType == int.class || returnType == long.class) return 0;
-            if (returnType == float.class) return 0.0f;
-            if (returnType == double.class) return 0.0d;
+    /**
+     * Generated proxy class of an entity type, with handles to instantiate it.
+     */
+    private static final class ProxyType {
+        private final MethodHandle constructor;
+        private final MethodHandle initializerSetter;
+        private final PropertyAccessor idAccessor;
+
+        ProxyType(Class<?> entityClass) {
+            if (!isProxyable(entityClass)) {
+                throw new IllegalArgumentException("Cannot proxy " + entityClass.getName()
+                        + ": final, abstract or without a no-arg constructor");
+            }
+            EntityMetadata metadata = EntityMetadataRegistry.getMetadata(entityClass);
+            this.idAccessor = metadata.getIdColumn().getAccessor();
+            Method idGetter = findIdGetter(entityClass, metadata.getIdField().getName());
+
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(entityClass, MethodHandles.lookup());
+                Class<?> proxyClass = new ByteBuddy()
+                        .subclass(entityClass, ConstructorStrategy.Default.DEFAULT_CONSTRUCTOR)
+                        .name(entityClass.getName() + "$$LazyProxy")
+                        .implement(LazyEntity.class)
+                        .defineField(INITIALIZER_FIELD, LazyInitializer.class, Visibility.PUBLIC)
+                        .method(proxiedMethods(entityClass))
+                        .intercept(new Implementation.Simple(new DispatchAppender(entityClass, idGetter)))
+                        .method(ElementMatchers.isDeclaredBy(LazyEntity.class))
+                        .intercept(new Implementation.Simple(new StateAppender()))
+                        .visit(new AsmVisitorWrapper.ForDeclaredMethods().writerFlags(ClassWriter.COMPUTE_FRAMES))
+                        .make(TypePool.ClassLoading.of(entityClass.getClassLoader()))
+                        .load(entityClass.getClassLoader(), ClassLoadingStrategy.UsingLookup.of(lookup)) // Same package
+                        .getLoaded();
+                MethodHandles.Lookup proxyLookup = MethodHandles.privateLookupIn(proxyClass, MethodHandles.lookup());
+                Constructor<?> noArgs = proxyClass.getDeclaredConstructor();
+                this.constructor = proxyLookup.unreflectConstructor(noArgs)
+                        .asType(MethodType.methodType(Object.class));
+                this.initializerSetter = proxyLookup.findSetter(proxyClass, INITIALIZER_FIELD, LazyInitializer.class)
+                        .asType(MethodType.methodType(void.class, Object.class, LazyInitializer.class));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Failed to create proxy class of " + entityClass.getName(), e);
+            }
+        }
+
+        Object newInstance(LazyInitializer<?> initializer) {
+            try {
+                Object proxy = (Object) constructor.invokeExact();
+                initializerSetter.invokeExact(proxy, (LazyInitializer<?>) initializer);
+                return proxy;
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException("Failed to create proxy", e);
+            }
+        }
+
+        // Public methods, plus those of the entity itself (the proxy shares its package)
+        private static ElementMatcher<MethodDescription> proxiedMethods(Class<?> entityClass) {
+            return ElementMatchers.<MethodDescription>isVirtual()
+                    .and(ElementMatchers.not(ElementMatchers.isFinal()))
+                    .and(ElementMatchers.not(ElementMatchers.isDeclaredBy(Object.class)))
+                    .and(ElementMatchers.not(ElementMatchers.isDeclaredBy(LazyEntity.class)))
+                    .and(ElementMatchers.<MethodDescription>isPublic().or(ElementMatchers.isDeclaredBy(entityClass)));
+        }
+
+        private static Method findIdGetter(Class<?> entityClass, String idField) {
+            String name = "get" + Character.toUpperCase(idField.charAt(0)) + idField.substring(1);
+            try {
+                Method getter = entityClass.getMethod(name);
+                return Modifier.isFinal(getter.getModifiers()) ? null : getter;
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Emits a proxied method: {@code return ((Entity) init.getImplementation()).m(args)},
+     * running the method on the proxy itself when the entity was not found. The
+     * ID getter first returns the proxy's own ID field when it holds the ID.
+     */
+    private static final class DispatchAppender implements ByteCodeAppender {
+        private final String entityType;
+        private final Method idGetter;
+
+        DispatchAppender(Class<?> entityClass, Method idGetter) {
+            this.entityType = Type.getInternalName(entityClass);
+            this.idGetter = idGetter;
         }
-        return null; // For non-primitive types
+
+        @Override
+        public Size apply(MethodVisitor mv, Implementation.Context context, MethodDescription method) {
+            String proxyType = context.getInstrumentedType().getInternalName();
+            String name = method.getInternalName();
+            String descriptor = method.getDescriptor();
+            Label onProxy = new Label();
+            Label onTarget = new Label();
+
+            if (idGetter != null && name.equals(idGetter.getName()) && method.getParameters().isEmpty()) {
+                // if (init.hasIdentifier()) return super.getId();
+                loadInitializer(mv, proxyType);
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, INITIALIZER, "hasIdentifier", "()Z", false);
+                mv.visitJumpInsn(Opcodes.IFNE, onProxy);
+            }
+
+            // Object target = init.getImplementation(); if (target != null) return ((Entity) target).m(args);
+            loadInitializer(mv, proxyType);
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, INITIALIZER, "getImplementation", "()Ljava/lang/Object;", false);
+            mv.visitInsn(Opcodes.DUP);
+            mv.visitJumpInsn(Opcodes.IFNONNULL, onTarget);
+            mv.visitInsn(Opcodes.POP);
+
+            // return super.m(args);
+            mv.visitLabel(onProxy);
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            MethodVariableAccess.allArgumentsOf(method).apply(mv, context);
+            mv.visitMethodInsn(Opcodes.INVOKESPECIAL, entityType, name, descriptor, false);
+            MethodReturn.of(method.getReturnType()).apply(mv, context);
+
+            mv.visitLabel(onTarget);
+            mv.visitTypeInsn(Opcodes.CHECKCAST, entityType);
+            MethodVariableAccess.allArgumentsOf(method).apply(mv, context);
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, entityType, name, descriptor, false);
+            MethodReturn.of(method.getReturnType()).apply(mv, context);
+
+            return new Size(method.getStackSize() + 2, method.getStackSize());
+        }
+    }
+
+    /**
+     * Emits the LazyEntity methods: {@code return init.m();}.
+     */
+    private static final class StateAppender implements ByteCodeAppender {
+        @Override
+        public Size apply(MethodVisitor mv, Implementation.Context context, MethodDescription method) {
+            loadInitializer(mv, context.getInstrumentedType().getInternalName());
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, INITIALIZER, method.getInternalName(),
+                    method.getDescriptor(), false);
+            MethodReturn.of(method.getReturnType()).apply(mv, context);
+            return new Size(2, method.getStackSize());
+        }
+    }
+
+    private static void loadInitializer(MethodVisitor mv, String proxyType) {
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, proxyType, INITIALIZER_FIELD, "L" + INITIALIZER + ";");
     }
 }
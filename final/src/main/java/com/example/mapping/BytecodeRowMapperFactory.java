@@ -0,0 +1,228 @@
+package com.example.mapping;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSet;
+import java.util.List;
+
+import com.example.entity.ColumnMetadata;
+import com.example.entity.EntityMetadata;
+import com.example.entity.EntityMetadataRegistry;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.asm.AsmVisitorWrapper;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.modifier.FieldManifestation;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.scaffold.subclass.ConstructorStrategy;
+import net.bytebuddy.implementation.FieldAccessor;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.MethodCall;
+import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
+import net.bytebuddy.jar.asm.ClassWriter;
+import net.bytebuddy.jar.asm.Label;
+import net.bytebuddy.jar.asm.MethodVisitor;
+import net.bytebuddy.jar.asm.Opcodes;
+import net.bytebuddy.jar.asm.Type;
+import net.bytebuddy.matcher.ElementMatchers;
+import net.bytebuddy.pool.TypePool;
+
+/**
+ * Generates a specialized {@link RowMapper} per entity class with ByteBuddy.
+ * The generated mapper is a hidden class defined as a nestmate of the entity,
+ * so it calls the no-arg constructor and writes the fields directly, whatever
+ * their visibility. Columns whose TypeHandler stores a ResultSet getter's
+ * result unchanged (see {@link ColumnMetadata#getDirectGetter()}) are read
+ * with that getter; every other column is read through its TypeHandler.
+ * <p>
+ * Generation is skipped (and callers fall back to reflection) when the entity
+ * is abstract, has no no-arg constructor or has a final mapped field, or when
+ * its class cannot be accessed privately from this module.
+ */
+public final class BytecodeRowMapperFactory {
+
+    private static final String RESULT_SET = Type.getInternalName(ResultSet.class);
+    private static final String COLUMN_METADATA = Type.getInternalName(ColumnMetadata.class);
+    private static final String COLUMNS_FIELD = "columns";
+
+    // Generated once per entity class; null when the entity is not eligible
+    private static final ClassValue<RowMapper<?>> MAPPERS = new ClassValue<>() {
+        @Override
+        protected RowMapper<?> computeValue(Class<?> type) {
+            return generate(EntityMetadataRegistry.getMetadata(type));
+        }
+    };
+
+    private BytecodeRowMapperFactory() {
+    } // Prevent instantiation
+
+    /**
+     * Retrieves the generated mapper of an entity class.
+     *
+     * @param entityClass The entity class.
+     * @return The generated RowMapper, or null if the entity is not eligible.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RowMapper<T> getMapper(Class<T> entityClass) {
+        return (RowMapper<T>) MAPPERS.get(entityClass);
+    }
+
+    private static RowMapper<?> generate(EntityMetadata metadata) {
+        Class<?> entityClass = metadata.getEntityClass();
+        if (Modifier.isAbstract(entityClass.getModifiers()) || entityClass.isRecord() || !hasNoArgConstructor(entityClass)) {
+            return null;
+        }
+        List<ColumnMetadata> columns = metadata.getColumns();
+        for (ColumnMetadata column : columns) {
+            if (!column.isAssociation() && Modifier.isFinal(column.getField().getModifiers())) {
+                return null; // Only assignable in a constructor
+            }
+        }
+
+        MethodHandles.Lookup entityLookup;
+        try {
+            entityLookup = MethodHandles.privateLookupIn(entityClass, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            return null; // Package not open to this module
+        }
+
+        try {
+            byte[] bytes = new ByteBuddy()
+                    .subclass(Object.class, ConstructorStrategy.Default.NO_CONSTRUCTORS)
+                    .implement(TypeDescription.Generic.Builder.parameterizedType(RowMapper.class, entityClass).build())
+                    .name(entityClass.getName() + "$$RowMapper")
+                    .defineField(COLUMNS_FIELD, ColumnMetadata[].class, Visibility.PRIVATE, FieldManifestation.FINAL)
+                    .defineConstructor(Visibility.PUBLIC)
+                    .withParameters(ColumnMetadata[].class)
+                    .intercept(MethodCall.invoke(Object.class.getConstructor())
+                            .andThen(FieldAccessor.ofField(COLUMNS_FIELD).setsArgumentAt(0)))
+                    .method(ElementMatchers.named("mapRow"))
+                    .intercept(new Implementation.Simple(new MapRowAppender(entityClass, columns)))
+                    .visit(new AsmVisitorWrapper.ForDeclaredMethods().writerFlags(ClassWriter.COMPUTE_FRAMES))
+                    .make(TypePool.ClassLoading.of(entityClass.getClassLoader()))
+                    .getBytes();
+            // Nestmate of the entity: private fields and constructor are accessible
+            MethodHandles.Lookup mapperLookup = entityLookup.defineHiddenClass(bytes, true,
+                    MethodHandles.Lookup.ClassOption.NESTMATE);
+            MethodHandle constructor = mapperLookup.findConstructor(mapperLookup.lookupClass(),
+                    MethodType.methodType(void.class, ColumnMetadata[].class));
+            return (RowMapper<?>) constructor.invoke(columns.toArray(new ColumnMetadata[0]));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to generate row mapper of " + entityClass.getName(), e);
+        }
+    }
+
+    private static boolean hasNoArgConstructor(Class<?> entityClass) {
+        try {
+            entityClass.getDeclaredConstructor();
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Emits mapRow(ResultSet, int[]): instantiates the entity, then for every
+     * plain column present in the result reads it by index into its field.
+     */
+    private static final class MapRowAppender implements ByteCodeAppender {
+        private static final int RS = 1;
+        private static final int INDEXES = 2;
+        private static final int ENTITY = 3;
+        private static final int INDEX = 4;
+        private static final int VALUE = 5;
+
+        private final Class<?> entityClass;
+        private final List<ColumnMetadata> columns;
+
+        MapRowAppender(Class<?> entityClass, List<ColumnMetadata> columns) {
+            this.entityClass = entityClass;
+            this.columns = columns;
+        }
+
+        @Override
+        public Size apply(MethodVisitor mv, Implementation.Context context, MethodDescription method) {
+            String mapperType = context.getInstrumentedType().getInternalName();
+            String entityType = Type.getInternalName(entityClass);
+            mv.visitTypeInsn(Opcodes.NEW, entityType);
+            mv.visitInsn(Opcodes.DUP);
+            mv.visitMethodInsn(Opcodes.INVOKESPECIAL, entityType, "<init>", "()V", false);
+            mv.visitVarInsn(Opcodes.ASTORE, ENTITY);
+
+            for (int i = 0; i < columns.size(); i++) {
+                ColumnMetadata column = columns.get(i);
+                if (!column.isAssociation()) { // Resolved by the EntityMapper
+                    emitColumn(mv, mapperType, i, column);
+                }
+            }
+
+            mv.visitVarInsn(Opcodes.ALOAD, ENTITY);
+            mv.visitInsn(Opcodes.ARETURN);
+            return new Size(0, 0); // Computed by ASM along with the frames
+        }
+
+        private void emitColumn(MethodVisitor mv, String mapperType, int position, ColumnMetadata column) {
+            Label skip = new Label();
+            Field field = column.getField();
+            String owner = Type.getInternalName(field.getDeclaringClass());
+            String descriptor = Type.getDescriptor(field.getType());
+            String getter = column.getDirectGetter();
+
+            // int index = columnIndexes[position]; if (index > 0) { ... }
+            mv.visitVarInsn(Opcodes.ALOAD, INDEXES);
+            pushInt(mv, position);
+            mv.visitInsn(Opcodes.IALOAD);
+            mv.visitVarInsn(Opcodes.ISTORE, INDEX);
+            mv.visitVarInsn(Opcodes.ILOAD, INDEX);
+            mv.visitJumpInsn(Opcodes.IFLE, skip);
+
+            if (getter == null) {
+                // columns[position].readValue(rs, index, entity);
+                mv.visitVarInsn(Opcodes.ALOAD, 0);
+                mv.visitFieldInsn(Opcodes.GETFIELD, mapperType, COLUMNS_FIELD, "[L" + COLUMN_METADATA + ";");
+                pushInt(mv, position);
+                mv.visitInsn(Opcodes.AALOAD);
+                mv.visitVarInsn(Opcodes.ALOAD, RS);
+                mv.visitVarInsn(Opcodes.ILOAD, INDEX);
+                mv.visitVarInsn(Opcodes.ALOAD, ENTITY);
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, COLUMN_METADATA, "readValue",
+                        "(L" + RESULT_SET + ";ILjava/lang/Object;)V", false);
+            } else if (field.getType().isPrimitive()) {
+                // entity.x = rs.getX(index); SQL NULL reads as the primitive default
+                mv.visitVarInsn(Opcodes.ALOAD, ENTITY);
+                mv.visitVarInsn(Opcodes.ALOAD, RS);
+                mv.visitVarInsn(Opcodes.ILOAD, INDEX);
+                mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, RESULT_SET, getter, "(I)" + descriptor, true);
+                mv.visitFieldInsn(Opcodes.PUTFIELD, owner, field.getName(), descriptor);
+            } else {
+                // value = rs.getX(index); if (value != null) entity.x = value;
+                mv.visitVarInsn(Opcodes.ALOAD, RS);
+                mv.visitVarInsn(Opcodes.ILOAD, INDEX);
+                mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, RESULT_SET, getter, "(I)" + descriptor, true);
+                mv.visitVarInsn(Opcodes.ASTORE, VALUE);
+                mv.visitVarInsn(Opcodes.ALOAD, VALUE);
+                mv.visitJumpInsn(Opcodes.IFNULL, skip);
+                mv.visitVarInsn(Opcodes.ALOAD, ENTITY);
+                mv.visitVarInsn(Opcodes.ALOAD, VALUE);
+                mv.visitFieldInsn(Opcodes.PUTFIELD, owner, field.getName(), descriptor);
+            }
+            mv.visitLabel(skip);
+        }
+
+        private static void pushInt(MethodVisitor mv, int value) {
+            if (value <= 5) {
+                mv.visitInsn(Opcodes.ICONST_0 + value);
+            } else if (value <= Byte.MAX_VALUE) {
+                mv.visitIntInsn(Opcodes.BIPUSH, value);
+            } else {
+                mv.visitIntInsn(Opcodes.SIPUSH, value);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.mapping;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.example.entity.ColumnMetadata;
+import com.example.entity.EntityMetadata;
+import com.example.entity.EntityMetadataRegistry;
+
+/**
+ * Resolves the ResultSet column index of every entity column.
+ * Resolutions are cached per entity and per result shape (the ordered list of
+ * column labels, and the label prefix of joined entities), so a query shape
+ * pays for label lookups only once.
+ */
+public final class ColumnIndexCache {
+
+    // Upper bound on cached shapes per entity, ad-hoc queries beyond it are resolved every time
+    private static final int MAX_SHAPES = 64;
+
+    private static final ClassValue<ColumnIndexCache> CACHES = new ClassValue<>() {
+        @Override
+        protected ColumnIndexCache computeValue(Class<?> type) {
+            return new ColumnIndexCache(EntityMetadataRegistry.getMetadata(type));
+        }
+    };
+
+    private final EntityMetadata metadata;
+    private final Map<String, int[]> indexesByShape = new ConcurrentHashMap<>();
+
+    private ColumnIndexCache(EntityMetadata metadata) {
+        this.metadata = metadata;
+    }
+
+    /**
+     * Retrieves the cache of an entity class.
+     *
+     * @param entityClass The entity class.
+     * @return The shared ColumnIndexCache.
+     */
+    public static ColumnIndexCache forEntity(Class<?> entityClass) {
+        return CACHES.get(entityClass);
+    }
+
+    /**
+     * Resolves the column indexes for a result.
+     *
+     * @param resultSetMetaData The metadata of the ResultSet.
+     * @return ResultSet column index for each entry of EntityMetadata.getColumns(),
+     *         or 0 when the column was not selected. The array must not be modified.
+     * @throws SQLException If the metadata cannot be read.
+     */
+    public int[] resolve(ResultSetMetaData resultSetMetaData) throws SQLException {
+        return resolve(resultSetMetaData, "");
+    }
+
+    /**
+     * Resolves the column indexes of an entity selected with prefixed labels,
+     * such as a join-fetched association.
+     *
+     * @param resultSetMetaData The metadata of the ResultSet.
+     * @param labelPrefix       Prefix of the column labels, in lower case.
+     * @return ResultSet column index for each entry of EntityMetadata.getColumns(),
+     *         or 0 when the column was not selected. The array must not be modified.
+     * @throws SQLException If the metadata cannot be read.
+     */
+    public int[] resolve(ResultSetMetaData resultSetMetaData, String labelPrefix) throws SQLException {
+        int columnCount = resultSetMetaData.getColumnCount();
+        String[] labels = new String[columnCount];
+        StringBuilder shape = new StringBuilder(labelPrefix).append('|');
+        for (int i = 0; i < columnCount; i++) {
+            labels[i] = resultSetMetaData.getColumnLabel(i + 1).toLowerCase(Locale.ROOT);
+            shape.append(labels[i]).append(',');
+        }
+
+        String key = shape.toString();
+        int[] indexes = indexesByShape.get(key);
+        if (indexes == null) {
+            indexes = resolve(labels, labelPrefix);
+            if (indexesByShape.size() < MAX_SHAPES) {
+                indexesByShape.putIfAbsent(key, indexes);
+            }
+        }
+        return indexes;
+    }
+
+    // Position of each entity column in the result, 0 when it was not selected
+    private int[] resolve(String[] labels, String labelPrefix) {
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = labels.length - 1; i >= 0; i--) {
+            positions.put(labels[i], i + 1); // First occurrence wins
+        }
+
+        List<ColumnMetadata> columns = metadata.getColumns();
+        int[] indexes = new int[columns.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = positions.getOrDefault(labelPrefix + columns.get(i).getColumnName().toLowerCase(Locale.ROOT), 0);
+        }
+        return indexes;
+    }
+}
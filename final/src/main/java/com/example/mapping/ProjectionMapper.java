@@ -0,0 +1,190 @@
+package com.example.mapping;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.example.entity.EntityUtils;
+import com.example.entity.PropertyAccessor;
+import com.example.type.TypeHandler;
+import com.example.type.TypeHandlerRegistry;
+
+/**
+ * Maps query results into a projection type: a record, or a class with a
+ * no-arg constructor whose fields receive the values.
+ * Properties are matched to result columns by label, either the property name
+ * itself or its snake_case form, ignoring case. Values are converted by the
+ * {@link TypeHandler} of the property type; properties without a matching
+ * column keep their default value.
+ *
+ * @param <P> The projection type.
+ */
+public final class ProjectionMapper<P> {
+
+    private static final ClassValue<ProjectionMapper<?>> MAPPERS = new ClassValue<>() {
+        @Override
+        protected ProjectionMapper<?> computeValue(Class<?> type) {
+            return new ProjectionMapper<>(type);
+        }
+    };
+
+    private final Class<P> type;
+    private final Constructor<P> constructor;
+    private final List<String> propertyNames;
+    private final Class<?>[] propertyTypes;
+    private final TypeHandler<?>[] handlers;
+    private final PropertyAccessor[] accessors; // null for records, which are built through their constructor
+
+    private ProjectionMapper(Class<P> type) {
+        this.type = type;
+        List<String> names = new ArrayList<>();
+        List<Class<?>> types = new ArrayList<>();
+        try {
+            if (type.isRecord()) {
+                RecordComponent[] components = type.getRecordComponents();
+                Class<?>[] parameterTypes = new Class<?>[components.length];
+                for (int i = 0; i < components.length; i++) {
+                    names.add(components[i].getName());
+                    types.add(components[i].getType());
+                    parameterTypes[i] = components[i].getType();
+                }
+                this.constructor = type.getDeclaredConstructor(parameterTypes); // Canonical constructor
+                this.accessors = null;
+            } else {
+                List<Field> fields = resolveFields(type);
+                this.accessors = new PropertyAccessor[fields.size()];
+                for (int i = 0; i < fields.size(); i++) {
+                    names.add(fields.get(i).getName());
+                    types.add(fields.get(i).getType());
+                    accessors[i] = PropertyAccessor.of(fields.get(i));
+                }
+                this.constructor = type.getDeclaredConstructor();
+            }
+            constructor.setAccessible(true);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Projection " + type.getName()
+                    + " must be a record or have a no-arg constructor", e);
+        }
+
+        this.propertyNames = Collections.unmodifiableList(names);
+        this.propertyTypes = types.toArray(new Class<?>[0]);
+        this.handlers = new TypeHandler<?>[propertyTypes.length];
+        for (int i = 0; i < propertyTypes.length; i++) {
+            handlers[i] = TypeHandlerRegistry.getHandler(propertyTypes[i], null);
+        }
+    }
+
+    /**
+     * Retrieves the mapper of a projection type.
+     *
+     * @param type The record or DTO class.
+     * @return The shared ProjectionMapper.
+     * @throws IllegalArgumentException If the type cannot be instantiated.
+     */
+    @SuppressWarnings("unchecked")
+    public static <P> ProjectionMapper<P> forType(Class<P> type) {
+        return (ProjectionMapper<P>) MAPPERS.get(type);
+    }
+
+    private static List<Field> resolveFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Retrieves the property names, in record component or field order.
+     *
+     * @return The property names.
+     */
+    public List<String> getPropertyNames() {
+        return propertyNames;
+    }
+
+    public Class<P> getType() {
+        return type;
+    }
+
+    /**
+     * Resolves the column index of every property.
+     *
+     * @param resultSetMetaData The metadata of the ResultSet.
+     * @return ResultSet column index for each property, or 0 when it was not selected.
+     * @throws SQLException If the metadata cannot be read.
+     */
+    public int[] resolve(ResultSetMetaData resultSetMetaData) throws SQLException {
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = resultSetMetaData.getColumnCount(); i >= 1; i--) {
+            positions.put(resultSetMetaData.getColumnLabel(i).toLowerCase(Locale.ROOT), i); // First occurrence wins
+        }
+
+        int[] indexes = new int[propertyNames.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            String name = propertyNames.get(i);
+            Integer position = positions.get(name.toLowerCase(Locale.ROOT));
+            if (position == null) {
+                position = positions.get(EntityUtils.convertToSnakeCase(name).toLowerCase(Locale.ROOT));
+            }
+            indexes[i] = position != null ? position : 0;
+        }
+        return indexes;
+    }
+
+    /**
+     * Maps the current row into a new projection instance.
+     *
+     * @param rs      The ResultSet positioned on a row.
+     * @param indexes The indexes returned by {@link #resolve}.
+     * @return The projection instance.
+     * @throws ReflectiveOperationException If instantiation fails.
+     * @throws SQLException                 If ResultSet access fails.
+     */
+    public P mapRow(ResultSet rs, int[] indexes) throws ReflectiveOperationException, SQLException {
+        if (accessors == null) {
+            Object[] arguments = new Object[indexes.length];
+            for (int i = 0; i < indexes.length; i++) {
+                Object value = indexes[i] > 0 ? handlers[i].getResult(rs, indexes[i]) : null;
+                arguments[i] = value != null || !propertyTypes[i].isPrimitive()
+                        ? value : defaultValue(propertyTypes[i]);
+            }
+            return constructor.newInstance(arguments);
+        }
+
+        P projection = constructor.newInstance();
+        for (int i = 0; i < indexes.length; i++) {
+            if (indexes[i] > 0) {
+                handlers[i].read(rs, indexes[i], projection, accessors[i]);
+            }
+        }
+        return projection;
+    }
+
+    // Default of a primitive record component when the column is absent or NULL
+    private static Object defaultValue(Class<?> primitive) {
+        if (primitive == boolean.class) return false;
+        if (primitive == char.class) return '\0';
+        if (primitive == byte.class) return (byte) 0;
+        if (primitive == short.class) return (short) 0;
+        if (primitive == int.class) return 0;
+        if (primitive == long.class) return 0L;
+        if (primitive == float.class) return 0f;
+        return 0d;
+    }
+}
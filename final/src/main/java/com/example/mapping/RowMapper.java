@@ -0,0 +1,27 @@
+package com.example.mapping;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a ResultSet to a new entity instance.
+ * Implementations only hydrate plain columns; associations are resolved by the
+ * caller.
+ *
+ * @param <T> The type of the entity.
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Maps the current row.
+     *
+     * @param rs            The ResultSet positioned on a row.
+     * @param columnIndexes ResultSet column index for each entry of
+     *                      EntityMetadata.getColumns(), or 0 if the column is
+     *                      absent from the result.
+     * @return The mapped entity.
+     * @throws SQLException If ResultSet access fails.
+     */
+    T mapRow(ResultSet rs, int[] columnIndexes) throws SQLException;
+}
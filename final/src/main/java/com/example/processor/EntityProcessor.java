@@ -0,0 +1,346 @@
+package com.example.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+import com.example.annotation.Column;
+import com.example.annotation.FetchMode;
+import com.example.annotation.Id;
+import com.example.annotation.JoinColumn;
+import com.example.annotation.ManyToOne;
+import com.example.annotation.OneToOne;
+import com.example.annotation.Table;
+import com.example.entity.EntityUtils;
+
+/**
+ * Annotation processor generating an {@code EntityDescriptor} for every entity
+ * at compile time. Each {@code <Entity>_Descriptor} carries the table name,
+ * column metadata, SQL templates and, when the entity has a public no-arg
+ * constructor, a row mapper, so no annotation scanning of the columns or
+ * reflective mapping is needed at runtime.
+ * <p>
+ * The row mapper reads a column with a ResultSet getter and passes it to the
+ * public setter only where the default TypeHandler of the field type does the
+ * same (primitive int, long, boolean and double, String, BigDecimal and the
+ * java.sql date types); every other column is read through its TypeHandler.
+ */
+@SupportedAnnotationTypes({
+        "com.example.annotation.Table",
+        "com.example.annotation.Column",
+        "com.example.annotation.Id",
+        "com.example.annotation.JoinColumn",
+        "com.example.annotation.ManyToOne",
+        "com.example.annotation.OneToOne",
+        "com.example.annotation.OneToMany"
+})
+public class EntityProcessor extends AbstractProcessor {
+
+    private static final String DESCRIPTOR_SUFFIX = "_Descriptor";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> entities = new LinkedHashSet<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(Table.class)) {
+            entities.add((TypeElement) element);
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(Id.class)) {
+            entities.add((TypeElement) element.getEnclosingElement());
+        }
+
+        for (TypeElement entity : entities) {
+            try {
+                generateDescriptor(entity);
+            } catch (IOException | RuntimeException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Cannot generate descriptor: " + e.getMessage(), entity);
+            }
+        }
+        return false; // Leave the annotations to other processors
+    }
+
+    /**
+     * Mapped field of an entity, as seen at compile time.
+     */
+    private static final class ColumnField {
+        final VariableElement field;
+        final String name;
+        final String columnName;
+        final String jdbcType;
+        final boolean isId;
+        final boolean isAutoIncrement;
+        final boolean isForeignKey;
+        final boolean isNullable;
+        final boolean isUnique;
+        final Integer length;
+        final Integer precision;
+        final FetchMode fetchMode;
+        ExecutableElement setter;
+        String directGetter; // Null when read through the TypeHandler
+
+        ColumnField(VariableElement field) {
+            this.field = field;
+            this.name = field.getSimpleName().toString();
+            Id id = field.getAnnotation(Id.class);
+            Column column = field.getAnnotation(Column.class);
+            JoinColumn joinColumn = field.getAnnotation(JoinColumn.class);
+            this.isId = id != null;
+            this.isAutoIncrement = id != null && id.autoIncrement();
+            this.isForeignKey = joinColumn != null;
+            if (column != null) {
+                this.columnName = column.name().isEmpty() ? EntityUtils.convertToSnakeCase(name) : column.name();
+                this.jdbcType = column.type().name();
+                this.isNullable = column.nullable();
+                this.isUnique = column.unique();
+                this.length = column.length();
+                this.precision = column.precision();
+            } else {
+                this.columnName = joinColumn.name();
+                this.jdbcType = "INTEGER"; // Assuming foreign key is an integer
+                this.isNullable = joinColumn.nullable();
+                this.isUnique = false;
+                this.length = null;
+                this.precision = null;
+            }
+            ManyToOne manyToOne = field.getAnnotation(ManyToOne.class);
+            OneToOne oneToOne = field.getAnnotation(OneToOne.class);
+            this.fetchMode = manyToOne != null ? manyToOne.fetch()
+                    : oneToOne != null ? oneToOne.fetch() : FetchMode.BATCH;
+        }
+    }
+
+    private void generateDescriptor(TypeElement entity) throws IOException {
+        String packageName = processingEnv.getElementUtils().getPackageOf(entity)
+                .getQualifiedName().toString();
+        String entityName = entity.getQualifiedName().toString();
+        // Named after the binary name, Outer$Entity_Descriptor for a nested entity, as the registry looks it up
+        String binaryName = processingEnv.getElementUtils().getBinaryName(entity).toString();
+        String descriptorName = binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1)
+                + DESCRIPTOR_SUFFIX;
+
+        List<ColumnField> columns = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(entity.getEnclosedElements())) {
+            if (field.getAnnotation(Column.class) != null || field.getAnnotation(JoinColumn.class) != null) {
+                columns.add(new ColumnField(field));
+            }
+        }
+
+        Table table = entity.getAnnotation(Table.class);
+        String tableName = table != null && !table.name().isEmpty()
+                ? table.name()
+                : EntityUtils.convertToSnakeCase(entity.getSimpleName().toString());
+
+        boolean mappable = isInstantiable(entity);
+        for (ColumnField column : columns) {
+            if (!isAssociation(column)) {
+                column.setter = findSetter(entity, column);
+                column.directGetter = column.setter != null ? directGetter(column.field.asType()) : null;
+            }
+        }
+
+        StringBuilder src = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            src.append("package ").append(packageName).append(";\n\n");
+        }
+        src.append("/**\n * Generated by ").append(EntityProcessor.class.getName())
+                .append(" for {@link ").append(entityName).append("}. Do not edit.\n */\n");
+        src.append("public final class ").append(descriptorName)
+                .append(" implements com.example.entity.EntityDescriptor<").append(entityName).append("> {\n\n");
+
+        src.append("    private static final java.util.List<com.example.entity.ColumnDescriptor> COLUMNS = java.util.List.of(");
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnField column = columns.get(i);
+            src.append(i == 0 ? "\n" : ",\n")
+                    .append("            new com.example.entity.ColumnDescriptor(")
+                    .append(literal(column.name)).append(", ")
+                    .append(literal(column.columnName)).append(", ")
+                    .append("java.sql.JDBCType.").append(column.jdbcType).append(", ")
+                    .append(column.isId).append(", ")
+                    .append(column.isAutoIncrement).append(", ")
+                    .append(column.isForeignKey).append(", ")
+                    .append(column.isNullable).append(", ")
+                    .append(column.isUnique).append(", ")
+                    .append(column.length).append(", ")
+                    .append(column.precision).append(", ")
+                    .append("com.example.annotation.FetchMode.").append(column.fetchMode.name()).append(")");
+        }
+        src.append(");\n\n");
+
+        src.append("    private static final java.lang.String SELECT_ALL_SQL = ")
+                .append(literal("SELECT * FROM " + tableName)).append(";\n\n");
+
+        if (mappable) {
+            src.append("    // ResultSet getter inlined per column, null for columns read through their TypeHandler\n")
+                    .append("    private static final java.lang.String[] DIRECT_GETTERS = {");
+            for (int i = 0; i < columns.size(); i++) {
+                String getter = columns.get(i).directGetter;
+                src.append(i == 0 ? " " : ", ").append(getter == null ? "null" : literal(getter));
+            }
+            src.append(" };\n\n");
+        }
+
+        src.append("    @Override\n    public java.lang.Class<").append(entityName).append("> getEntityClass() {\n")
+                .append("        return ").append(entityName).append(".class;\n    }\n\n");
+        src.append("    @Override\n    public java.lang.String getTableName() {\n")
+                .append("        return ").append(literal(tableName)).append(";\n    }\n\n");
+        src.append("    @Override\n    public java.util.List<com.example.entity.ColumnDescriptor> getColumns() {\n")
+                .append("        return COLUMNS;\n    }\n\n");
+        src.append("    @Override\n    public java.lang.String getSelectAllSql() {\n")
+                .append("        return SELECT_ALL_SQL;\n    }\n\n");
+        src.append("    @Override\n    public com.example.mapping.RowMapper<").append(entityName)
+                .append("> getRowMapper(java.util.List<com.example.entity.ColumnMetadata> columns) {\n");
+        if (mappable) {
+            src.append("        if (!com.example.entity.EntityDescriptor.readsDirectly(columns, DIRECT_GETTERS)) {\n")
+                    .append("            return null;\n        }\n")
+                    .append("        com.example.entity.ColumnMetadata[] handled = ")
+                    .append("columns.toArray(new com.example.entity.ColumnMetadata[0]);\n")
+                    .append("        return (rs, columnIndexes) -> mapRow(rs, columnIndexes, handled);\n    }\n\n");
+            appendMapRow(src, entityName, columns);
+        } else {
+            src.append("        return null; // No public no-arg constructor\n    }\n");
+        }
+        src.append("}\n");
+
+        try (Writer writer = processingEnv.getFiler()
+                .createSourceFile(packageName.isEmpty() ? descriptorName : packageName + "." + descriptorName, entity)
+                .openWriter()) {
+            writer.write(src.toString());
+        }
+    }
+
+    // Reads each plain column by index, with its getter or its TypeHandler; associations are left to the EntityMapper
+    private void appendMapRow(StringBuilder src, String entityName, List<ColumnField> columns) {
+        src.append("    private static ").append(entityName)
+                .append(" mapRow(java.sql.ResultSet rs, int[] columnIndexes, com.example.entity.ColumnMetadata[] columns)")
+                .append(" throws java.sql.SQLException {\n")
+                .append("        ").append(entityName).append(" entity = new ").append(entityName).append("();\n")
+                .append("        int index;\n");
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnField column = columns.get(i);
+            if (isAssociation(column)) {
+                continue;
+            }
+            TypeMirror type = column.field.asType();
+            src.append("        if ((index = columnIndexes[").append(i).append("]) > 0) {\n");
+            if (column.directGetter == null) {
+                src.append("            columns[").append(i).append("].readValue(rs, index, entity);\n");
+            } else if (type.getKind().isPrimitive()) {
+                src.append("            entity.").append(column.setter.getSimpleName()).append("(rs.")
+                        .append(column.directGetter).append("(index));\n");
+            } else {
+                String typeName = processingEnv.getTypeUtils().erasure(type).toString();
+                src.append("            ").append(typeName).append(" value = rs.")
+                        .append(column.directGetter).append("(index);\n")
+                        .append("            if (value != null) {\n")
+                        .append("                entity.").append(column.setter.getSimpleName()).append("(value);\n")
+                        .append("            }\n");
+            }
+            src.append("        }\n");
+        }
+        src.append("        return entity;\n    }\n");
+    }
+
+    private boolean isInstantiable(TypeElement entity) {
+        if (!entity.getModifiers().contains(Modifier.PUBLIC) || entity.getModifiers().contains(Modifier.ABSTRACT)
+                || entity.getNestingKind().isNested() && !entity.getModifiers().contains(Modifier.STATIC)) {
+            return false;
+        }
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(entity.getEnclosedElements());
+        return constructors.stream().anyMatch(c -> c.getParameters().isEmpty()
+                && c.getModifiers().contains(Modifier.PUBLIC));
+    }
+
+    // JavaBean setter, "isActive" may use "setActive"
+    private ExecutableElement findSetter(TypeElement entity, ColumnField column) {
+        String name = column.name;
+        ExecutableElement setter = findPublicSetter(entity, "set" + capitalize(name), column.field.asType());
+        if (setter == null && column.field.asType().getKind() == TypeKind.BOOLEAN
+                && name.startsWith("is") && name.length() > 2) {
+            setter = findPublicSetter(entity, "set" + capitalize(name.substring(2)), column.field.asType());
+        }
+        return setter;
+    }
+
+    private ExecutableElement findPublicSetter(TypeElement entity, String name, TypeMirror type) {
+        for (ExecutableElement method : ElementFilter.methodsIn(entity.getEnclosedElements())) {
+            if (method.getSimpleName().contentEquals(name)
+                    && method.getModifiers().contains(Modifier.PUBLIC)
+                    && !method.getModifiers().contains(Modifier.STATIC)
+                    && method.getParameters().size() == 1
+                    && processingEnv.getTypeUtils().isSameType(method.getParameters().get(0).asType(), type)) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    // A @JoinColumn field typed with an entity is resolved by the EntityMapper
+    private boolean isAssociation(ColumnField column) {
+        TypeMirror type = column.field.asType();
+        return column.isForeignKey && type.getKind() == TypeKind.DECLARED
+                && !processingEnv.getTypeUtils().erasure(type).toString().startsWith("java.");
+    }
+
+    // Getter whose result the default TypeHandler of the type stores unchanged, checked again at run time
+    private static String directGetter(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return "getBoolean";
+            case INT:
+                return "getInt";
+            case LONG:
+                return "getLong";
+            case DOUBLE:
+                return "getDouble";
+            case DECLARED:
+                break;
+            default:
+                return null;
+        }
+        switch (type.toString()) {
+            case "java.lang.String":
+                return "getString";
+            case "java.math.BigDecimal":
+                return "getBigDecimal";
+            case "java.sql.Timestamp":
+                return "getTimestamp";
+            case "java.sql.Date":
+                return "getDate";
+            case "java.sql.Time":
+                return "getTime";
+            default:
+                return null;
+        }
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static String literal(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
@@ -77,7 +77,10 @@ public class CreateTableGenerator extends DDLGenerator {
     }
 
     private String getReferencedTable(ColumnMetadata column) {
-        Class<?> fieldType = column.getField().getType();
-        return new EntityMetadata(fieldType).getTableName();
+        EntityMetadata referenced = column.getReferencedMetadata();
+        if (referenced == null) {
+            throw new IllegalStateException("Foreign key " + column.getColumnName() + " does not reference an entity");
+        }
+        return referenced.getTableName();
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.example.schema;
 import java.sql.SQLException;
 import com.example.connection.DatabaseSession;
 import com.example.entity.EntityMetadata;
+import com.example.entity.EntityMetadataRegistry;
 import com.example.schema.factory.DBMSStrategyFactory;
 
 public class SchemaManager {
@@ -19,7 +20,7 @@ public class SchemaManager {
     }
 
     public void dropTable(Class<?> entityClass, boolean cascade) throws SQLException {
-        EntityMetadata metadata = new EntityMetadata(entityClass);
+        EntityMetadata metadata = EntityMetadataRegistry.getMetadata(entityClass);
         if (!cascade) {
             dropForeignKeyConstraints(metadata);
         }
@@ -32,7 +33,7 @@ public class SchemaManager {
 
     private String generateCreateTableSQL(Class<?> entityClass) throws SQLException {
         DDLGenerator generator = new CreateTableGenerator(factory);
-        return generator.generateDDL(new EntityMetadata(entityClass));
+        return generator.generateDDL(EntityMetadataRegistry.getMetadata(entityClass));
     }
 
     private String generateDropTableSQL(EntityMetadata metadata, boolean cascade) throws SQLException {
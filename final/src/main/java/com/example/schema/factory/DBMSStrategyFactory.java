@@ -2,8 +2,10 @@ package com.example.schema.factory;
 
 import com.example.schema.strategy.ColumnDefinitionStrategy;
 import com.example.schema.strategy.DDLStrategy;
+import com.example.schema.strategy.DMLStrategy;
 
 public interface DBMSStrategyFactory {
     DDLStrategy createDDLStrategy();
     ColumnDefinitionStrategy createColumnDefinitionStrategy();
+    DMLStrategy createDMLStrategy();
 }
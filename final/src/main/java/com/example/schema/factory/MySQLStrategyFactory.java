@@ -4,6 +4,8 @@ import com.example.schema.strategy.MySQLColumnDefinitionStrategy;
 import com.example.schema.strategy.MySQLDDLStrategy;
 import com.example.schema.strategy.ColumnDefinitionStrategy;
 import com.example.schema.strategy.DDLStrategy;
+import com.example.schema.strategy.DMLStrategy;
+import com.example.schema.strategy.MySQLDMLStrategy;
 
 public class MySQLStrategyFactory implements DBMSStrategyFactory{
     @Override
@@ -15,4 +17,9 @@ public class MySQLStrategyFactory implements DBMSStrategyFactory{
     public ColumnDefinitionStrategy createColumnDefinitionStrategy() {
         return new MySQLColumnDefinitionStrategy();
     }
+
+    @Override
+    public DMLStrategy createDMLStrategy() {
+        return new MySQLDMLStrategy();
+    }
 }
@@ -4,6 +4,8 @@ import com.example.schema.strategy.PostgresColumnDefinitionStrategy;
 import com.example.schema.strategy.PostgresDDLStrategy;
 import com.example.schema.strategy.ColumnDefinitionStrategy;
 import com.example.schema.strategy.DDLStrategy;
+import com.example.schema.strategy.DMLStrategy;
+import com.example.schema.strategy.PostgresDMLStrategy;
 
 public class PostgreStrategyFactory implements  DBMSStrategyFactory{
     @Override
@@ -15,4 +17,9 @@ public class PostgreStrategyFactory implements  DBMSStrategyFactory{
     public ColumnDefinitionStrategy createColumnDefinitionStrategy() {
         return new PostgresColumnDefinitionStrategy();
     }
+
+    @Override
+    public DMLStrategy createDMLStrategy() {
+        return new PostgresDMLStrategy();
+    }
 }
@@ -4,6 +4,8 @@ import com.example.schema.strategy.SqlServerColumnDefinitionStrategy;
 import com.example.schema.strategy.SqlServerDDLStrategy;
 import com.example.schema.strategy.ColumnDefinitionStrategy;
 import com.example.schema.strategy.DDLStrategy;
+import com.example.schema.strategy.DMLStrategy;
+import com.example.schema.strategy.SqlServerDMLStrategy;
 
 public class SqlServerStrategyFactory implements DBMSStrategyFactory {
     @Override
@@ -15,4 +17,9 @@ public class SqlServerStrategyFactory implements DBMSStrategyFactory {
     public ColumnDefinitionStrategy createColumnDefinitionStrategy() {
         return new SqlServerColumnDefinitionStrategy();
     }
+
+    @Override
+    public DMLStrategy createDMLStrategy() {
+        return new SqlServerDMLStrategy();
+    }
 }
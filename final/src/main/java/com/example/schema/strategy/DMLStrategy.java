@@ -0,0 +1,47 @@
+package com.example.schema.strategy;
+
+import java.util.List;
+
+public interface DMLStrategy {
+
+    // Whether the keys of every row are returned for a batch or a multi-row INSERT run with RETURN_GENERATED_KEYS
+    boolean supportsBatchGeneratedKeys();
+
+    // Whether bulk inserts are sent as INSERT ... VALUES (...), (...) rather than as a JDBC batch
+    boolean prefersMultiRowInsert();
+
+    // Maximum number of parameters bound to one statement
+    int getMaxParameters();
+
+    // Maximum number of rows in the VALUES list of one INSERT
+    int getMaxInsertRows();
+
+    /**
+     * Builds an INSERT that updates the row when one with the same ID exists,
+     * with one placeholder per column of each row, row after row.
+     *
+     * @param tableName    The table.
+     * @param columnNames  The columns written, the ID included.
+     * @param idColumnName The ID column the rows are matched on.
+     * @param rowCount     The number of rows.
+     * @return The SQL upsert statement.
+     */
+    String getUpsertSQL(String tableName, List<String> columnNames, String idColumnName, int rowCount);
+
+    /**
+     * Appends the placeholder rows of a VALUES list: {@code (?, ?), (?, ?)}.
+     *
+     * @param sql         The statement being built.
+     * @param columnCount The number of placeholders per row.
+     * @param rowCount    The number of rows.
+     */
+    static void appendRows(StringBuilder sql, int columnCount, int rowCount) {
+        for (int row = 0; row < rowCount; row++) {
+            sql.append(row == 0 ? "(" : ", (");
+            for (int i = 0; i < columnCount; i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(')');
+        }
+    }
+}
@@ -9,7 +9,7 @@ public class MySQLColumnDefinitionStrategy implements ColumnDefinitionStrategy {
     public String generateColumnDefinition(ColumnMetadata column) {
         StringBuilder def = new StringBuilder();
 
-        if (column.isId() && column.getIdAnnotation().autoIncrement()) {
+        if (column.isId() && column.isAutoIncrement()) {
             def.append("INT AUTO_INCREMENT");
         } else if (column.getJdbcType() == JDBCType.VARCHAR) {
             def.append("VARCHAR(").append(column.getLength()).append(")");
@@ -0,0 +1,44 @@
+package com.example.schema.strategy;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+public class MySQLDMLStrategy implements DMLStrategy {
+
+    @Override
+    public boolean supportsBatchGeneratedKeys() {
+        return true;
+    }
+
+    @Override
+    public boolean prefersMultiRowInsert() {
+        return true; // Connector/J sends a batch one row at a time unless rewriteBatchedStatements is set
+    }
+
+    @Override
+    public int getMaxParameters() {
+        return 65535;
+    }
+
+    @Override
+    public int getMaxInsertRows() {
+        return Integer.MAX_VALUE; // Bounded by max_allowed_packet only
+    }
+
+    @Override
+    public String getUpsertSQL(String tableName, List<String> columnNames, String idColumnName, int rowCount) {
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(tableName)
+                .append(" (").append(String.join(", ", columnNames)).append(") VALUES ");
+        DMLStrategy.appendRows(sql, columnNames.size(), rowCount);
+        // Row alias of MySQL 8.0.19, replacing the deprecated VALUES(column) function
+        sql.append(" AS new ON DUPLICATE KEY UPDATE ");
+        StringJoiner assignments = new StringJoiner(", ");
+        for (String column : columnNames) {
+            if (!column.equals(idColumnName)) {
+                assignments.add(column + " = new." + column);
+            }
+        }
+        // Nothing but the ID to write, the existing row is kept
+        return sql.append(assignments.length() > 0 ? assignments : idColumnName + " = " + idColumnName).toString();
+    }
+}
@@ -9,7 +9,7 @@ public class PostgresColumnDefinitionStrategy implements ColumnDefinitionStrateg
     public String generateColumnDefinition(ColumnMetadata column) {
         StringBuilder def = new StringBuilder();
         
-        if (column.isId() && column.getIdAnnotation().autoIncrement()) {
+        if (column.isId() && column.isAutoIncrement()) {
             def.append("SERIAL");
         } else if (column.getJdbcType() == JDBCType.VARCHAR) {
             def.append("VARCHAR(").append(column.getLength()).append(")");
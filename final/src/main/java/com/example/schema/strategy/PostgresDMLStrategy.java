@@ -0,0 +1,42 @@
+package com.example.schema.strategy;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+public class PostgresDMLStrategy implements DMLStrategy {
+
+    @Override
+    public boolean supportsBatchGeneratedKeys() {
+        return true;
+    }
+
+    @Override
+    public boolean prefersMultiRowInsert() {
+        return false; // The driver pipelines a batch in one round trip
+    }
+
+    @Override
+    public int getMaxParameters() {
+        return 32767;
+    }
+
+    @Override
+    public int getMaxInsertRows() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public String getUpsertSQL(String tableName, List<String> columnNames, String idColumnName, int rowCount) {
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(tableName)
+                .append(" (").append(String.join(", ", columnNames)).append(") VALUES ");
+        DMLStrategy.appendRows(sql, columnNames.size(), rowCount);
+        sql.append(" ON CONFLICT (").append(idColumnName).append(") ");
+        StringJoiner assignments = new StringJoiner(", ", "DO UPDATE SET ", "");
+        for (String column : columnNames) {
+            if (!column.equals(idColumnName)) {
+                assignments.add(column + " = EXCLUDED." + column);
+            }
+        }
+        return sql.append(columnNames.size() > 1 ? assignments : "DO NOTHING").toString();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.schema.strategy;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+public class SqlServerDMLStrategy implements DMLStrategy {
+
+    @Override
+    public boolean supportsBatchGeneratedKeys() {
+        return false; // The driver only returns the keys of the last row
+    }
+
+    @Override
+    public boolean prefersMultiRowInsert() {
+        return true;
+    }
+
+    @Override
+    public int getMaxParameters() {
+        return 2100;
+    }
+
+    @Override
+    public int getMaxInsertRows() {
+        return 1000; // Limit of a table value constructor
+    }
+
+    @Override
+    public String getUpsertSQL(String tableName, List<String> columnNames, String idColumnName, int rowCount) {
+        String columns = String.join(", ", columnNames);
+        // HOLDLOCK keeps the matched key range locked, so concurrent MERGEs cannot both insert the same ID
+        StringBuilder sql = new StringBuilder("MERGE INTO ").append(tableName)
+                .append(" WITH (HOLDLOCK) AS target USING (VALUES ");
+        DMLStrategy.appendRows(sql, columnNames.size(), rowCount);
+        sql.append(") AS source (").append(columns).append(") ON target.").append(idColumnName)
+                .append(" = source.").append(idColumnName);
+        StringJoiner assignments = new StringJoiner(", ", " WHEN MATCHED THEN UPDATE SET ", "");
+        StringJoiner values = new StringJoiner(", ", " WHEN NOT MATCHED THEN INSERT (" + columns + ") VALUES (", ")");
+        for (String column : columnNames) {
+            if (!column.equals(idColumnName)) {
+                assignments.add(column + " = source." + column);
+            }
+            values.add("source." + column);
+        }
+        if (columnNames.size() > 1) {
+            sql.append(assignments);
+        }
+        return sql.append(values).append(';').toString(); // MERGE must be terminated
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.type;
+
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Base class for handlers, binding null values as SQL NULL of the declared type.
+ *
+ * @param <T> The Java type handled.
+ */
+public abstract class BaseTypeHandler<T> implements TypeHandler<T> {
+
+    @Override
+    public void setParameter(PreparedStatement ps, int index, T value, JDBCType jdbcType) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, jdbcType != null ? jdbcType.getVendorTypeNumber() : java.sql.Types.NULL);
+        } else {
+            setNonNullParameter(ps, index, value, jdbcType);
+        }
+    }
+
+    /**
+     * Binds a non-null value to a statement parameter.
+     *
+     * @param ps       The PreparedStatement.
+     * @param index    The parameter index.
+     * @param value    The value.
+     * @param jdbcType The declared column type.
+     * @throws SQLException If binding fails.
+     */
+    protected abstract void setNonNullParameter(PreparedStatement ps, int index, T value, JDBCType jdbcType)
+            throws SQLException;
+}
@@ -0,0 +1,24 @@
+package com.example.type;
+
+import java.math.BigDecimal;
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Handles BigDecimal fields.
+ */
+public class BigDecimalTypeHandler extends BaseTypeHandler<BigDecimal> {
+
+    @Override
+    public BigDecimal getResult(ResultSet rs, int index) throws SQLException {
+        return rs.getBigDecimal(index);
+    }
+
+    @Override
+    protected void setNonNullParameter(PreparedStatement ps, int index, BigDecimal value, JDBCType jdbcType)
+            throws SQLException {
+        ps.setBigDecimal(index, value);
+    }
+}
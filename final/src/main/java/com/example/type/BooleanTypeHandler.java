@@ -0,0 +1,58 @@
+package com.example.type;
+
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import com.example.entity.PropertyAccessor;
+
+/**
+ * Handles boolean and Boolean fields.
+ * Values are always read with getBoolean, which every driver supports for
+ * BIT, BOOLEAN and integer columns alike (MySQL reports TINYINT(1) as either
+ * Boolean or Integer depending on its settings). Columns declared as an
+ * integer type are bound as 0/1.
+ */
+public class BooleanTypeHandler extends BaseTypeHandler<Boolean> {
+
+    @Override
+    public Boolean getResult(ResultSet rs, int index) throws SQLException {
+        boolean value = rs.getBoolean(index);
+        return !value && rs.wasNull() ? null : value;
+    }
+
+    @Override
+    protected void setNonNullParameter(PreparedStatement ps, int index, Boolean value, JDBCType jdbcType)
+            throws SQLException {
+        setBoolean(ps, index, value, jdbcType);
+    }
+
+    @Override
+    public void read(ResultSet rs, int index, Object entity, PropertyAccessor accessor) throws SQLException {
+        if (accessor.getType() == boolean.class) {
+            accessor.setBoolean(entity, rs.getBoolean(index)); // SQL NULL reads as false
+        } else {
+            super.read(rs, index, entity, accessor);
+        }
+    }
+
+    @Override
+    public void bind(PreparedStatement ps, int index, Object entity, PropertyAccessor accessor, JDBCType jdbcType)
+            throws SQLException {
+        if (accessor.getType() == boolean.class) {
+            setBoolean(ps, index, accessor.getBoolean(entity), jdbcType);
+        } else {
+            super.bind(ps, index, entity, accessor, jdbcType);
+        }
+    }
+
+    private static void setBoolean(PreparedStatement ps, int index, boolean value, JDBCType jdbcType)
+            throws SQLException {
+        if (jdbcType == JDBCType.TINYINT || jdbcType == JDBCType.SMALLINT || jdbcType == JDBCType.INTEGER) {
+            ps.setInt(index, value ? 1 : 0);
+        } else {
+            ps.setBoolean(index, value);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.type;
+
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import com.example.entity.PropertyAccessor;
+
+/**
+ * Handles double and Double fields.
+ */
+public class DoubleTypeHandler extends BaseTypeHandler<Double> {
+
+    @Override
+    public Double getResult(ResultSet rs, int index) throws SQLException {
+        double value = rs.getDouble(index);
+        return value == 0d && rs.wasNull() ? null : value;
+    }
+
+    @Override
+    protected void setNonNullParameter(PreparedStatement ps, int index, Double value, JDBCType jdbcType)
+            throws SQLException {
+        ps.setDouble(index, value);
+    }
+
+    @Override
+    public void read(ResultSet rs, int index, Object entity, PropertyAccessor accessor) throws SQLException {
+        if (accessor.getType() == double.class) {
+            accessor.setDouble(entity, rs.getDouble(index)); // SQL NULL reads as 0
+        } else {
+            super.read(rs, index, entity, accessor);
+        }
+    }
+
+    @Override
+    public void bind(PreparedStatement ps, int index, Object entity, PropertyAccessor accessor, JDBCType jdbcType)
+            throws SQLException {
+        if (accessor.getType() == double.class) {
+            ps.setDouble(index, accessor.getDouble(entity));
+        } else {
+            super.bind(ps, index, entity, accessor, jdbcType);
+        }
+    }
+}
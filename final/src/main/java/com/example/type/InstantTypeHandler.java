@@ -0,0 +1,27 @@
+package com.example.type;
+
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * Handles Instant fields through Timestamp, since drivers do not map Instant
+ * natively.
+ */
+public class InstantTypeHandler extends BaseTypeHandler<Instant> {
+
+    @Override
+    public Instant getResult(ResultSet rs, int index) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(index);
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+
+    @Override
+    protected void setNonNullParameter(PreparedStatement ps, int index, Instant value, JDBCType jdbcType)
+            throws SQLException {
+        ps.setTimestamp(index, Timestamp.from(value));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.type;
+
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import com.example.entity.PropertyAccessor;
+
+/**
+ * Handles int and Integer fields.
+ */
+public class IntegerTypeHandler extends BaseTypeHandler<Integer> {
+
+    @Override
+    public Integer getResult(ResultSet rs, int index) throws SQLException {
+        int value = rs.getInt(index);
+        return value == 0 && rs.wasNull() ? null : value;
+    }
+
+    @Override
+    protected void setNonNullParameter(PreparedStatement ps, int index, Integer value, JDBCType jdbcType)
+            throws SQLException {
+        ps.setInt(index, value);
+    }
+
+    @Override
+    public void read(ResultSet rs, int index, Object entity, PropertyAccessor accessor) throws SQLException {
+        if (accessor.getType() == int.class) {
+            accessor.setInt(entity, rs.getInt(index)); // SQL NULL reads as 0
+        } else {
+            super.read(rs, index, entity, accessor);
+        }
+    }
+
+    @Override
+    public void bind(PreparedStatement ps, int index, Object entity, PropertyAccessor accessor, JDBCType jdbcType)
+            throws SQLException {
+        if (accessor.getType() == int.class) {
+            ps.setInt(index, accessor.getInt(entity));
+        } else {
+            super.bind(ps, index, entity, accessor, jdbcType);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.type;
+
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Handles the java.time types that JDBC 4.2 maps natively (LocalDate,
+ * LocalTime, LocalDateTime, OffsetDateTime), letting the driver do the
+ * conversion instead of going through java.sql.Date/Timestamp and the JVM
+ * time zone.
+ *
+ * @param <T> The java.time type handled.
+ */
+public class JavaTimeTypeHandler<T> extends BaseTypeHandler<T> {
+    private final Class<T> type;
+
+    public JavaTimeTypeHandler(Class<T> type) {
+        this.type = type;
+    }
+
+    @Override
+    public T getResult(ResultSet rs, int index) throws SQLException {
+        return rs.getObject(index, type);
+    }
+
+    @Override
+    protected void setNonNullParameter(PreparedStatement ps, int index, T value, JDBCType jdbcType)
+            throws SQLException {
+        ps.setObject(index, value);
+    }
+}
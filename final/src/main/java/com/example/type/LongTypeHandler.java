@@ -0,0 +1,45 @@
+package com.example.type;
+
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import com.example.entity.PropertyAccessor;
+
+/**
+ * Handles long and Long fields.
+ */
+public class LongTypeHandler extends BaseTypeHandler<Long> {
+
+    @Override
+    public Long getResult(ResultSet rs, int index) throws SQLException {
+        long value = rs.getLong(index);
+        return value == 0L && rs.wasNull() ? null : value;
+    }
+
+    @Override
+    protected void setNonNullParameter(PreparedStatement ps, int index, Long value, JDBCType jdbcType)
+            throws SQLException {
+        ps.setLong(index, value);
+    }
+
+    @Override
+    public void read(ResultSet rs, int index, Object entity, PropertyAccessor accessor) throws SQLException {
+        if (accessor.getType() == long.class) {
+            accessor.setLong(entity, rs.getLong(index)); // SQL NULL reads as 0
+        } else {
+            super.read(rs, index, entity, accessor);
+        }
+    }
+
+    @Override
+    public void bind(PreparedStatement ps, int index, Object entity, PropertyAccessor accessor, JDBCType jdbcType)
+            throws SQLException {
+        if (accessor.getType() == long.class) {
+            ps.setLong(index, accessor.getLong(entity));
+        } else {
+            super.bind(ps, index, entity, accessor, jdbcType);
+        }
+    }
+}
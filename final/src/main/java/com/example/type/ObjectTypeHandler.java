@@ -0,0 +1,35 @@
+package com.example.type;
+
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Fallback handler for types without a dedicated handler.
+ * Reads with getObject(int, Class) when a target type is known, leaving the
+ * conversion to the driver, and with plain getObject otherwise.
+ *
+ * @param <T> The Java type handled.
+ */
+public class ObjectTypeHandler<T> extends BaseTypeHandler<T> {
+    private final Class<T> type;
+
+    public ObjectTypeHandler(Class<T> type) {
+        this.type = type;
+    }
+
+    @Override
+    public T getResult(ResultSet rs, int index) throws SQLException {
+        if (type == Object.class) {
+            return type.cast(rs.getObject(index));
+        }
+        return rs.getObject(index, type);
+    }
+
+    @Override
+    protected void setNonNullParameter(PreparedStatement ps, int index, T value, JDBCType jdbcType)
+            throws SQLException {
+        ps.setObject(index, value);
+    }
+}
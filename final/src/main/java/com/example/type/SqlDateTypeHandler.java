@@ -0,0 +1,24 @@
+package com.example.type;
+
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Date;
+
+/**
+ * Handles java.sql.Date fields, and java.util.Date fields mapped to a DATE column.
+ */
+public class SqlDateTypeHandler extends BaseTypeHandler<Date> {
+
+    @Override
+    public Date getResult(ResultSet rs, int index) throws SQLException {
+        return rs.getDate(index);
+    }
+
+    @Override
+    protected void setNonNullParameter(PreparedStatement ps, int index, Date value, JDBCType jdbcType)
+            throws SQLException {
+        ps.setDate(index, value instanceof java.sql.Date ? (java.sql.Date) value : new java.sql.Date(value.getTime()));
+    }
+}
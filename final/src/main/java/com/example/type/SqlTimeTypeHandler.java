@@ -0,0 +1,25 @@
+package com.example.type;
+
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.util.Date;
+
+/**
+ * Handles java.sql.Time fields, and java.util.Date fields mapped to a TIME column.
+ */
+public class SqlTimeTypeHandler extends BaseTypeHandler<Date> {
+
+    @Override
+    public Date getResult(ResultSet rs, int index) throws SQLException {
+        return rs.getTime(index);
+    }
+
+    @Override
+    protected void setNonNullParameter(PreparedStatement ps, int index, Date value, JDBCType jdbcType)
+            throws SQLException {
+        ps.setTime(index, value instanceof Time ? (Time) value : new Time(value.getTime()));
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.type;
+
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Handles String fields.
+ */
+public class StringTypeHandler extends BaseTypeHandler<String> {
+
+    @Override
+    public String getResult(ResultSet rs, int index) throws SQLException {
+        return rs.getString(index);
+    }
+
+    @Override
+    protected void setNonNullParameter(PreparedStatement ps, int index, String value, JDBCType jdbcType)
+            throws SQLException {
+        ps.setString(index, value);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.type;
+
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+
+/**
+ * Handles java.sql.Timestamp fields, and java.util.Date fields mapped to a
+ * TIMESTAMP column.
+ */
+public class TimestampTypeHandler extends BaseTypeHandler<Date> {
+
+    @Override
+    public Date getResult(ResultSet rs, int index) throws SQLException {
+        return rs.getTimestamp(index);
+    }
+
+    @Override
+    protected void setNonNullParameter(PreparedStatement ps, int index, Date value, JDBCType jdbcType)
+            throws SQLException {
+        ps.setTimestamp(index, value instanceof Timestamp ? (Timestamp) value : new Timestamp(value.getTime()));
+    }
+}
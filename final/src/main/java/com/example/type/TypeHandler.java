@@ -0,0 +1,75 @@
+package com.example.type;
+
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import com.example.entity.PropertyAccessor;
+
+/**
+ * Converts between a Java type and a JDBC column.
+ * Handlers are looked up once per column through {@link TypeHandlerRegistry},
+ * keyed by the field type and the JDBCType declared in Column.type().
+ * <p>
+ * The entity-level {@link #read} and {@link #bind} methods move the value
+ * straight between the ResultSet/PreparedStatement and the entity field;
+ * handlers of primitive types override them to avoid boxing.
+ *
+ * @param <T> The Java type handled.
+ */
+public interface TypeHandler<T> {
+
+    /**
+     * Reads a column of the current row.
+     *
+     * @param rs    The ResultSet positioned on a row.
+     * @param index The ResultSet index of the column.
+     * @return The value, or null for SQL NULL.
+     * @throws SQLException If ResultSet access fails.
+     */
+    T getResult(ResultSet rs, int index) throws SQLException;
+
+    /**
+     * Binds a value to a statement parameter.
+     *
+     * @param ps       The PreparedStatement.
+     * @param index    The parameter index.
+     * @param value    The value, may be null.
+     * @param jdbcType The declared column type.
+     * @throws SQLException If binding fails.
+     */
+    void setParameter(PreparedStatement ps, int index, T value, JDBCType jdbcType) throws SQLException;
+
+    /**
+     * Reads a column into an entity field. SQL NULL leaves the field untouched.
+     *
+     * @param rs       The ResultSet positioned on a row.
+     * @param index    The ResultSet index of the column.
+     * @param entity   The entity instance.
+     * @param accessor The accessor of the field.
+     * @throws SQLException If ResultSet access fails.
+     */
+    default void read(ResultSet rs, int index, Object entity, PropertyAccessor accessor) throws SQLException {
+        T value = getResult(rs, index);
+        if (value != null) {
+            accessor.set(entity, value);
+        }
+    }
+
+    /**
+     * Binds an entity field to a statement parameter.
+     *
+     * @param ps       The PreparedStatement.
+     * @param index    The parameter index.
+     * @param entity   The entity instance.
+     * @param accessor The accessor of the field.
+     * @param jdbcType The declared column type.
+     * @throws SQLException If binding fails.
+     */
+    @SuppressWarnings("unchecked")
+    default void bind(PreparedStatement ps, int index, Object entity, PropertyAccessor accessor, JDBCType jdbcType)
+            throws SQLException {
+        setParameter(ps, index, (T) accessor.get(entity), jdbcType);
+    }
+}
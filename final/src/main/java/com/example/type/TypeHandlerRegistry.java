@@ -0,0 +1,190 @@
+package com.example.type;
+
+import java.math.BigDecimal;
+import java.sql.JDBCType;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide registry of {@link TypeHandler}s, keyed by Java type and,
+ * optionally, by the JDBCType declared in Column.type().
+ * <p>
+ * Lookup order: a handler registered for the exact (type, JDBCType) pair, then
+ * one registered for the type alone, then a getObject based fallback.
+ * Primitive types share the handler of their wrapper.
+ * <p>
+ * Handlers are resolved once when an entity's metadata is built, so custom
+ * handlers must be registered before the first DAO of the entity is created.
+ */
+public final class TypeHandlerRegistry {
+
+    private static final Map<Class<?>, TypeHandler<?>> HANDLERS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Map<JDBCType, TypeHandler<?>>> HANDLERS_BY_JDBC_TYPE = new ConcurrentHashMap<>();
+    private static final Set<TypeHandler<?>> BUILT_IN = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    // Built-in handler -> field type -> ResultSet getter whose result the handler stores unchanged
+    private static final Map<TypeHandler<?>, Map<Class<?>, String>> DIRECT_GETTERS = new IdentityHashMap<>();
+
+    static {
+        TypeHandler<Integer> integer = new IntegerTypeHandler();
+        TypeHandler<Long> longs = new LongTypeHandler();
+        TypeHandler<Boolean> bool = new BooleanTypeHandler();
+        TypeHandler<Double> doubles = new DoubleTypeHandler();
+        TypeHandler<String> string = new StringTypeHandler();
+        TypeHandler<BigDecimal> decimal = new BigDecimalTypeHandler();
+        TypeHandler<Date> timestamp = new TimestampTypeHandler();
+        TypeHandler<Date> date = new SqlDateTypeHandler();
+        TypeHandler<Date> time = new SqlTimeTypeHandler();
+
+        // Wrapper fields are not listed: their handlers check wasNull to read SQL NULL as null
+        registerDirectGetter(integer, int.class, "getInt");
+        registerDirectGetter(longs, long.class, "getLong");
+        registerDirectGetter(bool, boolean.class, "getBoolean");
+        registerDirectGetter(doubles, double.class, "getDouble");
+        registerDirectGetter(string, String.class, "getString");
+        registerDirectGetter(decimal, BigDecimal.class, "getBigDecimal");
+        registerDirectGetter(timestamp, Timestamp.class, "getTimestamp");
+        registerDirectGetter(date, java.sql.Date.class, "getDate");
+        registerDirectGetter(time, Time.class, "getTime");
+
+        registerBuiltIn(Integer.class, null, integer);
+        registerBuiltIn(Long.class, null, longs);
+        registerBuiltIn(Boolean.class, null, bool);
+        registerBuiltIn(Double.class, null, doubles);
+        registerBuiltIn(String.class, null, string);
+        registerBuiltIn(BigDecimal.class, null, decimal);
+        registerBuiltIn(Timestamp.class, null, timestamp);
+        registerBuiltIn(java.sql.Date.class, null, date);
+        registerBuiltIn(Time.class, null, time);
+        registerBuiltIn(LocalDate.class, null, new JavaTimeTypeHandler<>(LocalDate.class));
+        registerBuiltIn(LocalTime.class, null, new JavaTimeTypeHandler<>(LocalTime.class));
+        registerBuiltIn(LocalDateTime.class, null, new JavaTimeTypeHandler<>(LocalDateTime.class));
+        registerBuiltIn(OffsetDateTime.class, null, new JavaTimeTypeHandler<>(OffsetDateTime.class));
+        registerBuiltIn(Instant.class, null, new InstantTypeHandler());
+
+        // java.util.Date and Object fields are too wide, the declared column type decides
+        registerBuiltIn(Date.class, null, timestamp);
+        registerBuiltIn(Date.class, JDBCType.DATE, date);
+        registerBuiltIn(Date.class, JDBCType.TIME, time);
+        registerBuiltIn(Object.class, null, new ObjectTypeHandler<>(Object.class));
+        registerBuiltIn(Object.class, JDBCType.TIMESTAMP, timestamp);
+        registerBuiltIn(Object.class, JDBCType.TIMESTAMP_WITH_TIMEZONE, timestamp);
+        registerBuiltIn(Object.class, JDBCType.DATE, date);
+        registerBuiltIn(Object.class, JDBCType.TIME, time);
+    }
+
+    private TypeHandlerRegistry() {
+    } // Prevent instantiation
+
+    /**
+     * Registers a handler for every column of the given Java type.
+     *
+     * @param javaType The Java type (use the wrapper for primitives).
+     * @param handler  The TypeHandler.
+     */
+    public static <T> void register(Class<T> javaType, TypeHandler<T> handler) {
+        HANDLERS.put(wrap(javaType), handler);
+    }
+
+    /**
+     * Registers a handler for columns of the given Java type declared with the
+     * given JDBCType. Takes precedence over a handler registered for the type alone.
+     *
+     * @param javaType The Java type (use the wrapper for primitives).
+     * @param jdbcType The JDBCType declared in Column.type().
+     * @param handler  The TypeHandler.
+     */
+    public static <T> void register(Class<T> javaType, JDBCType jdbcType, TypeHandler<T> handler) {
+        HANDLERS_BY_JDBC_TYPE
+                .computeIfAbsent(wrap(javaType), type -> Collections.synchronizedMap(new EnumMap<>(JDBCType.class)))
+                .put(jdbcType, handler);
+    }
+
+    /**
+     * Retrieves the handler of a column.
+     *
+     * @param javaType The field type.
+     * @param jdbcType The declared JDBCType, may be null.
+     * @return The TypeHandler, never null.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public static TypeHandler<?> getHandler(Class<?> javaType, JDBCType jdbcType) {
+        Class<?> type = wrap(javaType);
+        if (jdbcType != null) {
+            Map<JDBCType, TypeHandler<?>> byJdbcType = HANDLERS_BY_JDBC_TYPE.get(type);
+            TypeHandler<?> handler = byJdbcType != null ? byJdbcType.get(jdbcType) : null;
+            if (handler != null) {
+                return handler;
+            }
+        }
+        return HANDLERS.computeIfAbsent(type, missing -> {
+            TypeHandler<?> fallback = new ObjectTypeHandler(missing);
+            BUILT_IN.add(fallback);
+            return fallback;
+        });
+    }
+
+    /**
+     * Checks whether a handler is one of the defaults rather than one
+     * registered by the application.
+     *
+     * @param handler The TypeHandler.
+     * @return true if the handler was not registered by the application.
+     */
+    public static boolean isBuiltIn(TypeHandler<?> handler) {
+        return BUILT_IN.contains(handler);
+    }
+
+    /**
+     * Retrieves the ResultSet getter whose result a handler stores unchanged in
+     * a field of the given type. Generated row mappers call this getter in
+     * place of the handler; for any other column they must call the handler.
+     *
+     * @param handler   The TypeHandler of the column.
+     * @param fieldType The field type.
+     * @return The getter name, e.g. "getInt", or null if the handler converts the value.
+     */
+    public static String getDirectGetter(TypeHandler<?> handler, Class<?> fieldType) {
+        Map<Class<?>, String> getters = DIRECT_GETTERS.get(handler);
+        return getters != null ? getters.get(fieldType) : null;
+    }
+
+    private static void registerDirectGetter(TypeHandler<?> handler, Class<?> fieldType, String getter) {
+        DIRECT_GETTERS.computeIfAbsent(handler, h -> new IdentityHashMap<>()).put(fieldType, getter);
+    }
+
+    private static void registerBuiltIn(Class<?> javaType, JDBCType jdbcType, TypeHandler<?> handler) {
+        BUILT_IN.add(handler);
+        if (jdbcType == null) {
+            HANDLERS.put(javaType, handler);
+        } else {
+            HANDLERS_BY_JDBC_TYPE
+                    .computeIfAbsent(javaType, type -> Collections.synchronizedMap(new EnumMap<>(JDBCType.class)))
+                    .put(jdbcType, handler);
+        }
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        if (!type.isPrimitive()) return type;
+        if (type == int.class) return Integer.class;
+        if (type == long.class) return Long.class;
+        if (type == boolean.class) return Boolean.class;
+        if (type == double.class) return Double.class;
+        if (type == float.class) return Float.class;
+        if (type == short.class) return Short.class;
+        if (type == byte.class) return Byte.class;
+        if (type == char.class) return Character.class;
+        return type;
+    }
+}
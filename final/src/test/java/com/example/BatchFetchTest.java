@@ -0,0 +1,69 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.client.Subject;
+import com.example.connection.DatabaseSession;
+import com.example.entity.GenericDaoImpl;
+
+/**
+ * To-one associations of a page loaded with one IN query per association
+ * type, on H2.
+ */
+public class BatchFetchTest {
+    private H2ConnectionFactory factory;
+    private DatabaseSession session;
+    private GenericDaoImpl<Subject> subjectDao;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        factory = new H2ConnectionFactory();
+        session = new DatabaseSession(factory);
+        SchoolData.create(session);
+        subjectDao = new GenericDaoImpl<>(session, Subject.class);
+        factory.resetExecuted();
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        session.closeConnection();
+    }
+
+    @Test
+    public void testBatchFetchOfToOneAssociations() throws Exception {
+        List<Subject> subjects = subjectDao.read(null);
+
+        assertEquals(SchoolData.SUBJECT_COUNT, subjects.size());
+        // The page, then one IN query per association type: users, then their classes
+        assertEquals(List.of("SELECT * FROM subjects", "SELECT * FROM users WHERE id IN (?, ?)",
+                "SELECT * FROM classes WHERE id IN (?)"), factory.getExecuted());
+        assertSame(subjects.get(0).getUser(), subjects.get(2).getUser());
+        assertSame(subjects.get(0).getUser(), subjects.get(1).getUser().getTeacher());
+    }
+
+    @Test
+    public void testInListIsPaddedToPowerOfTwo() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            ids.add(i);
+        }
+        ids.add(5); // Duplicates are sent once
+
+        List<Subject> subjects = subjectDao.findAllById(ids);
+
+        assertEquals(5, subjects.size());
+        assertEquals("SELECT * FROM subjects WHERE id IN (?, ?, ?, ?, ?, ?, ?, ?)", factory.getExecuted().get(0));
+        factory.resetExecuted();
+        assertEquals(5, subjectDao.findAllById(ids).size());
+        assertEquals(0, SchoolData.executedFrom(factory, "subjects")); // All in the identity map
+    }
+}
@@ -0,0 +1,72 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.connection.DatabaseSession;
+import com.example.entity.GenericDaoImpl;
+import com.example.schema.SchemaManager;
+import com.example.schema.factory.MySQLStrategyFactory;
+import com.example.schema.factory.PostgreStrategyFactory;
+
+/**
+ * createAll sent as JDBC batches of a single-row INSERT, run on H2 with the
+ * DML strategy of PostgreSQL.
+ */
+public class BatchInsertTest {
+    private H2ConnectionFactory factory;
+    private DatabaseSession session;
+    private GenericDaoImpl<Tag> dao;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        factory = new H2ConnectionFactory(new PostgreStrategyFactory());
+        session = new DatabaseSession(factory);
+        new SchemaManager(session, new MySQLStrategyFactory()).createTable(Tag.class);
+        dao = new GenericDaoImpl<>(session, Tag.class);
+        factory.resetExecuted();
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        session.closeConnection();
+    }
+
+    @Test
+    public void testCreateAllWritesBackKeysOfJdbcBatches() throws Exception {
+        List<Tag> tags = List.of(new Tag("a"), new Tag("b"), new Tag("c"), new Tag("d"), new Tag("e"));
+
+        dao.createAll(tags, 2);
+
+        assertEquals(3, factory.getExecuted().size()); // Batches of 2, 2 and 1 rows
+        for (int i = 0; i < tags.size(); i++) {
+            assertEquals(i + 1, tags.get(i).getId());
+        }
+        session.getIdentityMap().clear();
+        assertEquals("c", dao.findById(3).get().getLabel());
+    }
+
+    @Test
+    public void testOneStatementServesEveryBatch() throws Exception {
+        dao.createAll(List.of(new Tag("a"), new Tag("b"), new Tag("c")), 1);
+
+        assertTrue(factory.getExecuted().stream().allMatch("INSERT INTO tags (id, label) VALUES (?, ?)"::equals));
+        assertEquals(3, dao.read(null).size());
+    }
+
+    @Test
+    public void testBatchSizeMustBePositive() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> dao.createAll(List.of(new Tag("a")), 0));
+        dao.createAll(List.of());
+
+        assertTrue(factory.getExecuted().isEmpty());
+    }
+}
@@ -0,0 +1,169 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.JDBCType;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.annotation.Column;
+import com.example.annotation.Id;
+import com.example.annotation.Table;
+import com.example.client.User;
+import com.example.connection.DatabaseSession;
+import com.example.entity.ColumnMetadata;
+import com.example.entity.EntityMetadata;
+import com.example.entity.EntityMetadataRegistry;
+import com.example.mapping.BytecodeRowMapperFactory;
+import com.example.mapping.ColumnIndexCache;
+import com.example.mapping.RowMapper;
+import com.example.schema.SchemaManager;
+import com.example.schema.factory.MySQLStrategyFactory;
+
+/**
+ * Rows mapped by the generated mappers compared with the reflective,
+ * TypeHandler based mapping, on H2.
+ */
+public class BytecodeRowMapperFactoryTest {
+    private DatabaseSession session;
+
+    // Entity without setters nor public constructor, mapped through its fields
+    @Table(name = "counters")
+    public static class Counter {
+        @Id
+        @Column(name = "id", type = JDBCType.INTEGER)
+        private long id;
+
+        @Column(name = "name")
+        private String name = "unnamed";
+
+        private Counter() {
+        }
+    }
+
+    @BeforeAll
+    public static void registerTypeHandlers() {
+        Measurement.registerTypeHandlers();
+    }
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        session = new DatabaseSession(new H2ConnectionFactory());
+        new SchemaManager(session, new MySQLStrategyFactory()).createTable(Measurement.class);
+        session.executeUpdate("INSERT INTO measurements (id, label, sample_count, valid, active, ratio, amount,"
+                + " taken_at, taken_on, grade) VALUES"
+                + " (1, 'pressure', 12, 1, 1, 0.25, 1250, TIMESTAMP '2024-02-29 10:30:00', DATE '2024-02-29', 'b'),"
+                + " (2, NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL),"
+                + " (3, '', 0, 0, 0, 0, 0, NULL, NULL, 'a')");
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        session.closeConnection();
+    }
+
+    /**
+     * Maps each row of a query with the given mapper and with the reflective
+     * mapping of the EntityMapper, and asserts that every plain column holds
+     * the same value of the same class.
+     */
+    static <T> int assertSameAsReflective(DatabaseSession session, String sql, Class<T> entityClass,
+            RowMapper<T> mapper) throws Exception {
+        EntityMetadata metadata = EntityMetadataRegistry.getMetadata(entityClass);
+        int rows = 0;
+        try (Statement statement = session.getConnection().createStatement();
+                ResultSet rs = statement.executeQuery(sql)) {
+            int[] indexes = ColumnIndexCache.forEntity(entityClass).resolve(rs.getMetaData());
+            while (rs.next()) {
+                T generated = mapper.mapRow(rs, indexes);
+                Object reflective = metadata.newInstance();
+                List<ColumnMetadata> columns = metadata.getColumns();
+                for (int i = 0; i < columns.size(); i++) {
+                    if (!columns.get(i).isAssociation() && indexes[i] > 0) {
+                        columns.get(i).readValue(rs, indexes[i], reflective);
+                    }
+                }
+                for (ColumnMetadata column : columns) {
+                    if (column.isAssociation()) {
+                        continue;
+                    }
+                    Object expected = column.getValueFromEntity(reflective);
+                    Object actual = column.getValueFromEntity(generated);
+                    String message = column.getColumnName() + " of row " + (rows + 1);
+                    assertTrue(Objects.deepEquals(expected, actual), message + ": " + expected + " != " + actual);
+                    assertEquals(expected == null ? null : expected.getClass(),
+                            actual == null ? null : actual.getClass(), message);
+                }
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    @Test
+    public void testGeneratedMapperReadsLikeTypeHandlers() throws Exception {
+        RowMapper<Measurement> mapper = BytecodeRowMapperFactory.getMapper(Measurement.class);
+        assertNotNull(mapper); // Wrapper, java.util.Date, java.time and custom handler columns included
+
+        assertEquals(3, assertSameAsReflective(session, "SELECT * FROM measurements ORDER BY id",
+                Measurement.class, mapper));
+        assertEquals(2, assertSameAsReflective(session, "SELECT id, taken_at, grade FROM measurements WHERE id < 3",
+                Measurement.class, mapper)); // Absent columns are left untouched
+    }
+
+    @Test
+    public void testGeneratedMapperOfClientEntity() throws Exception {
+        SchemaManager schemaManager = new SchemaManager(session, new MySQLStrategyFactory());
+        schemaManager.createTable(com.example.client.Class.class);
+        schemaManager.createTable(User.class);
+        session.executeUpdate("INSERT INTO users (id, username, email, date_of_birth, is_active, created_at)"
+                + " VALUES (1, 'student1', 's@example.com', DATE '2001-05-04', 1, TIMESTAMP '2024-01-01 08:00:00'),"
+                + " (2, 'student2', 't@example.com', NULL, 0, NULL)");
+
+        assertEquals(2, assertSameAsReflective(session, "SELECT * FROM users ORDER BY id", User.class,
+                BytecodeRowMapperFactory.getMapper(User.class)));
+    }
+
+    @Test
+    public void testPrivateMembersAreWrittenDirectly() throws Exception {
+        new SchemaManager(session, new MySQLStrategyFactory()).createTable(Counter.class);
+        session.executeUpdate("INSERT INTO counters (id, name) VALUES (7, 'seven'), (8, NULL)");
+        RowMapper<Counter> mapper = BytecodeRowMapperFactory.getMapper(Counter.class);
+        assertNotNull(mapper);
+
+        List<Counter> counters = new ArrayList<>();
+        try (Statement statement = session.getConnection().createStatement();
+                ResultSet rs = statement.executeQuery("SELECT * FROM counters ORDER BY id")) {
+            int[] indexes = ColumnIndexCache.forEntity(Counter.class).resolve(rs.getMetaData());
+            while (rs.next()) {
+                counters.add(mapper.mapRow(rs, indexes));
+            }
+        }
+        assertEquals(7L, counters.get(0).id);
+        assertEquals("seven", counters.get(0).name);
+        assertEquals("unnamed", counters.get(1).name); // SQL NULL keeps the initial value
+        assertTrue(mapper.getClass().isHidden());
+        assertEquals(Counter.class.getNestHost(), mapper.getClass().getNestHost());
+    }
+
+    @Test
+    public void testRecordsAreNotGenerated() {
+        assertNull(BytecodeRowMapperFactory.getMapper(Note.class)); // Built through their constructor
+    }
+
+    @Table(name = "notes")
+    public record Note(@Id @Column(name = "id", type = JDBCType.INTEGER) int id, @Column(name = "text") String text) {
+    }
+}
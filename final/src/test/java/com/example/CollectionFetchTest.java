@@ -0,0 +1,82 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.client.User;
+import com.example.connection.DatabaseSession;
+import com.example.entity.FetchPlan;
+import com.example.entity.GenericDaoImpl;
+import com.example.iterator.ForwardLazyIterator;
+import com.example.iterator.IterableDao;
+import com.example.iterator.LazyIterator;
+
+/**
+ * One-to-many collections, loaded only when a FetchPlan asks for them, on H2.
+ */
+public class CollectionFetchTest {
+    private H2ConnectionFactory factory;
+    private DatabaseSession session;
+    private GenericDaoImpl<User> userDao;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        factory = new H2ConnectionFactory();
+        session = new DatabaseSession(factory);
+        SchoolData.create(session);
+        userDao = new GenericDaoImpl<>(session, User.class);
+        factory.resetExecuted();
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        session.closeConnection();
+    }
+
+    @Test
+    public void testCollectionsAreOptIn() throws Exception {
+        List<User> users = userDao.read(null);
+        assertNull(users.get(0).getSubjects());
+        assertEquals(0, SchoolData.executedFrom(factory, "subjects"));
+
+        session.getIdentityMap().clear();
+        factory.resetExecuted();
+        users = userDao.read(null, new FetchPlan().batch("subjects"));
+        assertEquals(SchoolData.SUBJECT_COUNT / 2, users.get(0).getSubjects().size());
+        assertEquals(SchoolData.SUBJECT_COUNT / 2, users.get(1).getSubjects().size());
+        assertEquals(1, SchoolData.executedFrom(factory, "subjects")); // One IN query for the page
+        assertSame(users.get(0), users.get(0).getSubjects().get(0).getUser());
+    }
+
+    @Test
+    public void testCollectionOfSingleEntity() throws Exception {
+        User student = userDao.findById(2, new FetchPlan().batch("subjects")).get();
+
+        assertEquals(SchoolData.SUBJECT_COUNT / 2, student.getSubjects().size());
+        assertEquals(1, SchoolData.executedFrom(factory, "subjects"));
+        assertSame(student, student.getSubjects().get(0).getUser());
+    }
+
+    @Test
+    public void testIteratorLoadsNoCollections() throws Exception {
+        var dao = new IterableDao<>(session, User.class);
+        LazyIterator<User> iterator = dao.iterate(null, ForwardLazyIterator::new);
+        int count = 0;
+        while (iterator.hasNext()) {
+            assertNull(iterator.next().getSubjects());
+            count++;
+        }
+        iterator.close();
+
+        assertEquals(2, count);
+        assertEquals(0, SchoolData.executedFrom(factory, "subjects"));
+    }
+}
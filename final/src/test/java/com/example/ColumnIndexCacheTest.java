@@ -0,0 +1,89 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.client.Subject;
+import com.example.connection.DatabaseSession;
+import com.example.entity.GenericDaoImpl;
+import com.example.mapping.ColumnIndexCache;
+
+/**
+ * ResultSet indexes of the entity columns, resolved once per result shape.
+ * Subject columns are id, name, credit and user_id.
+ */
+public class ColumnIndexCacheTest {
+    private final ColumnIndexCache cache = ColumnIndexCache.forEntity(Subject.class);
+    private Connection connection;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        connection = new H2ConnectionFactory().createConnection();
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    private int[] resolve(String sql, String labelPrefix) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            return cache.resolve(rs.getMetaData(), labelPrefix);
+        }
+    }
+
+    @Test
+    public void testLabelsResolveToIndexes() throws SQLException {
+        // Labels are matched regardless of case, columns not selected resolve to 0
+        assertArrayEquals(new int[] { 2, 1, 0, 0 }, resolve("SELECT 'a' AS NAME, 1 AS id", ""));
+        assertArrayEquals(new int[] { 1, 0, 3, 2 }, resolve("SELECT 1 AS id, 2 AS user_id, 3 AS credit", ""));
+    }
+
+    @Test
+    public void testFirstOccurrenceOfLabelWins() throws SQLException {
+        assertArrayEquals(new int[] { 1, 0, 0, 0 }, resolve("SELECT 1 AS id, 2 AS id", ""));
+    }
+
+    @Test
+    public void testPrefixedLabelsOfJoinedEntity() throws SQLException {
+        String sql = "SELECT 1 AS id, 'a' AS name, 2 AS j3_id, 'b' AS j3_name";
+
+        assertArrayEquals(new int[] { 3, 4, 0, 0 }, resolve(sql, "j3_"));
+        assertArrayEquals(new int[] { 1, 2, 0, 0 }, resolve(sql, ""));
+    }
+
+    @Test
+    public void testResolutionIsCachedPerShape() throws SQLException {
+        int[] first = resolve("SELECT 1 AS id, 'a' AS name", "");
+
+        assertSame(first, resolve("SELECT 7 AS id, 'b' AS name", ""));
+        assertNotSame(first, resolve("SELECT 'a' AS name, 1 AS id", ""));
+        assertSame(ColumnIndexCache.forEntity(Subject.class), cache);
+    }
+
+    @Test
+    public void testEntitiesAreMappedByIndex() throws Exception {
+        DatabaseSession session = new DatabaseSession(new H2ConnectionFactory());
+        try {
+            SchoolData.create(session);
+            var subject = new GenericDaoImpl<>(session, Subject.class).read("id = 3").get(0);
+
+            assertEquals(3, subject.getId());
+            assertEquals("S3", subject.getName());
+            assertEquals("teacher1", subject.getUser().getUsername());
+        } finally {
+            session.closeConnection();
+        }
+    }
+}
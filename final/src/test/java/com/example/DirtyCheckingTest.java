@@ -0,0 +1,101 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.client.Class;
+import com.example.client.Subject;
+import com.example.client.User;
+import com.example.connection.DatabaseSession;
+import com.example.entity.ColumnMetadata;
+import com.example.entity.EntityMetadata;
+import com.example.entity.EntityMetadataRegistry;
+import com.example.entity.GenericDaoImpl;
+import com.example.schema.SchemaManager;
+import com.example.schema.factory.MySQLStrategyFactory;
+
+/**
+ * UPDATE statements limited to the columns changed since an entity was
+ * loaded, on H2.
+ */
+public class DirtyCheckingTest {
+    private H2ConnectionFactory factory;
+    private DatabaseSession session;
+    private GenericDaoImpl<User> dao;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        factory = new H2ConnectionFactory();
+        session = new DatabaseSession(factory);
+        SchemaManager schemaManager = new SchemaManager(session, new MySQLStrategyFactory());
+        schemaManager.createTable(Class.class);
+        schemaManager.createTable(User.class);
+        dao = new GenericDaoImpl<>(session, User.class);
+        factory.resetExecuted();
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        session.closeConnection();
+    }
+
+    private static User newUser(int id, String username) {
+        User user = SchoolData.newUser(id, username, null, null);
+        user.setActive(true);
+        return user;
+    }
+
+    @Test
+    public void testUpdateWritesOnlyModifiedColumns() throws Exception {
+        dao.create(newUser(1, "student1"));
+        session.getIdentityMap().clear();
+
+        User user = dao.findById(1).get();
+        user.setFullName("Jane Student");
+        factory.resetExecuted();
+        dao.update(user);
+        dao.update(user); // Unchanged since the last update
+
+        assertEquals(List.of("UPDATE users SET full_name = ? WHERE id = ?"), factory.getExecuted());
+        session.getIdentityMap().clear();
+        assertEquals("Jane Student", dao.findById(1).get().getFullName());
+
+        // Not loaded in the session: every column is written
+        User detached = newUser(1, "student1");
+        factory.resetExecuted();
+        dao.update(detached);
+        assertTrue(factory.getExecuted().get(0).startsWith("UPDATE users SET id = ?, username = ?"));
+    }
+
+    @Test
+    public void testDirtyColumnsComparedWithSnapshot() throws Exception {
+        EntityMetadata metadata = EntityMetadataRegistry.getMetadata(User.class);
+        User user = newUser(1, "student1");
+        Object[] snapshot = metadata.snapshot(user);
+        assertTrue(metadata.getDirtyColumns(snapshot, user).isEmpty());
+
+        user.setEmail("jane@example.com");
+        user.setActive(false);
+        List<ColumnMetadata> dirty = metadata.getDirtyColumns(snapshot, user);
+
+        assertEquals(List.of("email", "is_active"), dirty.stream().map(ColumnMetadata::getColumnName).toList());
+    }
+
+    @Test
+    public void testPartialUpdateQuery() {
+        QueryBuilder<Subject> subjects = new QueryBuilder<>(Subject.class);
+        ColumnMetadata name = EntityMetadataRegistry.getMetadata(Subject.class).findColumn("name").get();
+        ColumnMetadata credit = EntityMetadataRegistry.getMetadata(Subject.class).findColumn("credit").get();
+
+        assertEquals("UPDATE subjects SET name = ? WHERE id = ?", subjects.buildUpdateQuery(List.of(name), "id = ?"));
+        assertEquals("UPDATE subjects SET name = ?, credit = ? WHERE id = ?",
+                subjects.buildUpdateQuery(List.of(name, credit), "id = ?"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.client.Subject;
+import com.example.client.User;
+import com.example.entity.CollectionMetadata;
+import com.example.entity.ColumnMetadata;
+import com.example.entity.EntityMetadata;
+import com.example.entity.EntityMetadataRegistry;
+
+/**
+ * Metadata built once per entity class and shared by every user of the class.
+ */
+public class EntityMetadataRegistryTest {
+
+    @Test
+    public void testMetadataIsBuiltOncePerClass() throws Exception {
+        EntityMetadata metadata = EntityMetadataRegistry.getMetadata(User.class);
+        assertSame(metadata, EntityMetadataRegistry.getMetadata(User.class));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Callable<EntityMetadata> lookup = () -> EntityMetadataRegistry.getMetadata(Subject.class);
+            List<Future<EntityMetadata>> lookups = executor.invokeAll(List.of(lookup, lookup, lookup, lookup));
+            for (Future<EntityMetadata> result : lookups) {
+                assertSame(EntityMetadataRegistry.getMetadata(Subject.class), result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testMetadataDescribesTheEntity() {
+        EntityMetadata metadata = EntityMetadataRegistry.getMetadata(User.class);
+
+        assertEquals("users", metadata.getTableName());
+        assertEquals("id", metadata.getIdColumn().getColumnName());
+        assertEquals("id, username, email, password, full_name, date_of_birth, is_active, created_at, updated_at,"
+                + " teacher_id, class_id", metadata.getColumnNames());
+        assertEquals(List.of("teacher_id", "class_id"),
+                metadata.getAssociationColumns().stream().map(ColumnMetadata::getColumnName).toList());
+        assertEquals(List.of(Subject.class),
+                metadata.getCollections().stream().map(CollectionMetadata::getElementType).toList());
+    }
+
+    @Test
+    public void testAssociationsShareTheMetadataOfTheirTarget() {
+        ColumnMetadata user = EntityMetadataRegistry.getMetadata(Subject.class).findColumn("user_id").get();
+
+        assertTrue(user.isAssociation());
+        assertSame(EntityMetadataRegistry.getMetadata(User.class), user.getReferencedMetadata());
+    }
+
+    @Test
+    public void testClassWithoutIdIsRejected() {
+        assertThrows(IllegalStateException.class, () -> EntityMetadataRegistry.getMetadata(String.class));
+    }
+}
@@ -0,0 +1,122 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.client.User;
+import com.example.client.User_Descriptor;
+import com.example.connection.DatabaseSession;
+import com.example.entity.ColumnMetadata;
+import com.example.entity.EntityDescriptor;
+import com.example.entity.EntityMetadata;
+import com.example.entity.EntityMetadataRegistry;
+import com.example.mapping.RowMapper;
+import com.example.schema.SchemaManager;
+import com.example.schema.factory.MySQLStrategyFactory;
+
+/**
+ * Descriptors generated at compile time compared with the metadata and
+ * reflective mapping they replace, on H2.
+ */
+public class EntityProcessorTest {
+    private DatabaseSession session;
+
+    @BeforeAll
+    public static void registerTypeHandlers() {
+        Measurement.registerTypeHandlers();
+    }
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        session = new DatabaseSession(new H2ConnectionFactory());
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        session.closeConnection();
+    }
+
+    @Test
+    public void testDescriptorMatchesAnnotations() {
+        Measurement_Descriptor descriptor = new Measurement_Descriptor();
+        EntityMetadata metadata = EntityMetadataRegistry.getMetadata(Measurement.class);
+
+        assertEquals("measurements", descriptor.getTableName());
+        assertEquals("SELECT * FROM measurements", descriptor.getSelectAllSql());
+        assertEquals(metadata.getColumns().size(), descriptor.getColumns().size());
+        for (int i = 0; i < descriptor.getColumns().size(); i++) {
+            assertEquals(metadata.getColumns().get(i).getColumnName(), descriptor.getColumns().get(i).getColumnName());
+        }
+        assertNotNull(metadata.getGeneratedRowMapper()); // Built from the descriptor
+    }
+
+    @Test
+    public void testDescriptorMapperReadsLikeTypeHandlers() throws Exception {
+        new SchemaManager(session, new MySQLStrategyFactory()).createTable(Measurement.class);
+        session.executeUpdate("INSERT INTO measurements (id, label, sample_count, valid, active, ratio, amount,"
+                + " taken_at, taken_on, grade) VALUES"
+                + " (1, 'pressure', 12, 1, 1, 0.25, 1250, TIMESTAMP '2024-02-29 10:30:00', DATE '2024-02-29', 'b'),"
+                + " (2, NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL)");
+        List<ColumnMetadata> columns = EntityMetadataRegistry.getMetadata(Measurement.class).getColumns();
+        RowMapper<Measurement> mapper = new Measurement_Descriptor().getRowMapper(columns);
+        assertNotNull(mapper); // Wrapper, java.util.Date, java.time and custom handler columns included
+
+        assertEquals(2, BytecodeRowMapperFactoryTest.assertSameAsReflective(session,
+                "SELECT * FROM measurements ORDER BY id", Measurement.class, mapper));
+        assertEquals(1, BytecodeRowMapperFactoryTest.assertSameAsReflective(session,
+                "SELECT id, grade FROM measurements WHERE id = 1", Measurement.class, mapper));
+    }
+
+    @Test
+    public void testDescriptorMapperOfClientEntity() throws Exception {
+        SchemaManager schemaManager = new SchemaManager(session, new MySQLStrategyFactory());
+        schemaManager.createTable(com.example.client.Class.class);
+        schemaManager.createTable(User.class);
+        session.executeUpdate("INSERT INTO users (id, username, email, date_of_birth, is_active, created_at)"
+                + " VALUES (1, 'student1', 's@example.com', DATE '2001-05-04', 1, TIMESTAMP '2024-01-01 08:00:00'),"
+                + " (2, 'student2', 't@example.com', NULL, 0, NULL)");
+        List<ColumnMetadata> columns = EntityMetadataRegistry.getMetadata(User.class).getColumns();
+
+        assertEquals(2, BytecodeRowMapperFactoryTest.assertSameAsReflective(session,
+                "SELECT * FROM users ORDER BY id", User.class, new User_Descriptor().getRowMapper(columns)));
+    }
+
+    @Test
+    public void testInlinedGetterCheckedAgainstHandlers() {
+        List<ColumnMetadata> columns = EntityMetadataRegistry.getMetadata(Measurement.class).getColumns();
+        String[] getters = new String[columns.size()];
+        assertTrue(EntityDescriptor.readsDirectly(columns, getters)); // Everything through the handlers
+
+        int grade = columns.indexOf(EntityMetadataRegistry.getMetadata(Measurement.class).findColumn("grade").get());
+        getters[grade] = "getString"; // The custom handler does more than getString
+        assertFalse(EntityDescriptor.readsDirectly(columns, getters));
+        assertFalse(EntityDescriptor.readsDirectly(columns.subList(1, columns.size()), new String[0]));
+    }
+
+    @Test
+    public void testNoMapperWithoutPublicConstructor() {
+        List<ColumnMetadata> columns = EntityMetadataRegistry.getMetadata(BytecodeRowMapperFactoryTest.Counter.class)
+                .getColumns();
+        assertNull(new BytecodeRowMapperFactoryTest$Counter_Descriptor().getRowMapper(columns));
+        assertSame(BytecodeRowMapperFactoryTest.Counter.class,
+                new BytecodeRowMapperFactoryTest$Counter_Descriptor().getEntityClass());
+    }
+
+    @Test
+    public void testNestedEntityDescriptorIsFoundByBinaryName() throws ClassNotFoundException {
+        assertSame(BytecodeRowMapperFactoryTest$Counter_Descriptor.class, Class.forName(
+                BytecodeRowMapperFactoryTest.Counter.class.getName() + EntityDescriptor.CLASS_SUFFIX));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.annotation.FetchMode;
+import com.example.client.Subject;
+import com.example.client.User;
+import com.example.connection.DatabaseSession;
+import com.example.entity.ColumnMetadata;
+import com.example.entity.EntityMetadataRegistry;
+import com.example.entity.FetchPlan;
+import com.example.entity.GenericDaoImpl;
+import com.example.lazyloading.LazyEntity;
+
+/**
+ * Per-query FetchMode overrides given by association path.
+ */
+public class FetchPlanTest {
+    private H2ConnectionFactory factory;
+    private DatabaseSession session;
+    private GenericDaoImpl<Subject> subjectDao;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        factory = new H2ConnectionFactory();
+        session = new DatabaseSession(factory);
+        SchoolData.create(session);
+        subjectDao = new GenericDaoImpl<>(session, Subject.class);
+        factory.resetExecuted();
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        session.closeConnection();
+    }
+
+    @Test
+    public void testPathsAreSplitIntoNestedPlans() {
+        FetchPlan plan = new FetchPlan().join("classObject").batch("teacher.classObject");
+
+        assertEquals(FetchMode.JOIN, plan.getFetchMode("classObject"));
+        assertNull(plan.getFetchMode("teacher")); // Only its own associations are planned
+        assertEquals(FetchMode.BATCH, plan.getNestedPlan("teacher").getFetchMode("classObject"));
+        assertNull(plan.getNestedPlan("classObject"));
+    }
+
+    @Test
+    public void testUnlistedAssociationKeepsAnnotationMode() {
+        ColumnMetadata user = EntityMetadataRegistry.getMetadata(Subject.class).findColumn("user_id").get();
+
+        assertEquals(user.getFetchMode(), new FetchPlan().getFetchMode(user));
+        assertEquals(FetchMode.LAZY, new FetchPlan().lazy("user").getFetchMode(user));
+    }
+
+    @Test
+    public void testValidateRejectsUnknownPaths() {
+        var metadata = EntityMetadataRegistry.getMetadata(User.class);
+        new FetchPlan().join("classObject").batch("subjects").batch("teacher.subjects").validate(metadata);
+
+        assertThrows(IllegalArgumentException.class, () -> new FetchPlan().join("username").validate(metadata));
+        assertThrows(IllegalArgumentException.class, () -> new FetchPlan().join("missing").validate(metadata));
+        assertThrows(IllegalArgumentException.class,
+                () -> new FetchPlan().batch("teacher.missing").validate(metadata));
+    }
+
+    @Test
+    public void testDaoRejectsUnknownPathBeforeQuerying() {
+        assertThrows(IllegalArgumentException.class, () -> subjectDao.read(null, new FetchPlan().join("teacher")));
+        assertThrows(IllegalArgumentException.class,
+                () -> subjectDao.findById(1, new FetchPlan().join("teacher")));
+        assertTrue(factory.getExecuted().isEmpty());
+    }
+
+    @Test
+    public void testNestedPlanAppliesToAssociatedEntities() throws Exception {
+        List<Subject> subjects = subjectDao.read("id <= 2", new FetchPlan().lazy("user.classObject"));
+
+        assertEquals(List.of("SELECT * FROM subjects WHERE id <= 2", "SELECT * FROM users WHERE id IN (?, ?)"),
+                factory.getExecuted()); // No classes query
+        assertTrue(subjects.get(0).getUser().getClassObject() instanceof LazyEntity);
+        assertEquals("1A", subjects.get(1).getUser().getClassObject().getName());
+    }
+}
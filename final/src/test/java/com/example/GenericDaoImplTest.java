@@ -11,7 +11,8 @@ import org.junit.After;
 import org.junit.AfterClass;
 
 import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -235,9 +236,17 @@ public class GenericDaoImplTest {
     
             // Verify eviction of user1
             System.out.println("Expecting user1 to be evicted...");
-            var evictedUser1 = cachedDao.findById(1).get(); // Cache miss, re-fetch from DB
+            var evictedUser1 = cachedDao.findById(1).get(); // Cache miss, answered by the identity map
             System.out.println("Evicted user1: " + evictedUser1);
-            assertNotEquals(user1, evictedUser1); // Ensure a fresh instance is fetched
+            assertSame(user1, evictedUser1); // One instance per row within the session's transaction
+
+            // The identity map is cleared at the end of a transaction
+            session.beginTransaction();
+            session.commitTransaction();
+            cachedDao.findById(2).get();
+            cachedDao.findById(3).get();
+            var reloadedUser1 = cachedDao.findById(1).get(); // Cache miss, re-fetch from DB
+            assertNotSame(user1, reloadedUser1); // A fresh instance is mapped
         });
     }
     
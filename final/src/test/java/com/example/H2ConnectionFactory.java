@@ -0,0 +1,106 @@
+package com.example;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.example.bulkload.BulkLoader;
+import com.example.connection.ConnectionFactory;
+import com.example.connection.DatabaseConfiguration;
+import com.example.schema.factory.DBMSStrategyFactory;
+import com.example.schema.factory.MySQLStrategyFactory;
+
+/**
+ * In-memory H2 database in MySQL mode for the tests that need no server,
+ * dropped when its connection is closed. The SQL of every statement executed
+ * through the connection is recorded, so tests can assert how many statements
+ * a DAO call runs and what they are.
+ */
+public class H2ConnectionFactory implements ConnectionFactory {
+    private final String url = "jdbc:h2:mem:" + UUID.randomUUID()
+            + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,USER,VALUE";
+    private final DBMSStrategyFactory strategyFactory;
+    private final List<String> executed = new ArrayList<>();
+
+    public H2ConnectionFactory() {
+        this(new MySQLStrategyFactory());
+    }
+
+    // The DML strategy of the given dialect is used on the H2 database
+    public H2ConnectionFactory(DBMSStrategyFactory strategyFactory) {
+        this.strategyFactory = strategyFactory;
+    }
+
+    @Override
+    public Connection createConnection() throws SQLException {
+        Connection connection = DriverManager.getConnection(url, "sa", "");
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof PreparedStatement) {
+                        return recording((PreparedStatement) result, (String) args[0]);
+                    }
+                    return result;
+                });
+    }
+
+    // Records the SQL each time the statement is executed
+    private PreparedStatement recording(PreparedStatement statement, String sql) {
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+                    if (method.getName().startsWith("execute")) {
+                        executed.add(sql);
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Retrieves the SQL of the statements executed since the last reset, a
+     * JDBC batch counting once.
+     *
+     * @return The SQL texts, in execution order.
+     */
+    public List<String> getExecuted() {
+        return executed;
+    }
+
+    public void resetExecuted() {
+        executed.clear();
+    }
+
+    @Override
+    public String getConnectionURL() {
+        return url;
+    }
+
+    @Override
+    public DatabaseConfiguration getConfig() {
+        return null;
+    }
+
+    @Override
+    public DBMSStrategyFactory getStrategyFactory() {
+        return strategyFactory;
+    }
+
+    @Override
+    public BulkLoader createBulkLoader() {
+        return null; // H2 has no native bulk load protocol
+    }
+}
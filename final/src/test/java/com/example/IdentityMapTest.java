@@ -0,0 +1,99 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.client.Subject;
+import com.example.client.User;
+import com.example.connection.DatabaseSession;
+import com.example.connection.IdentityMap;
+import com.example.entity.GenericDaoImpl;
+
+/**
+ * One instance per row within a transaction, bounded per entity type.
+ */
+public class IdentityMapTest {
+    private H2ConnectionFactory factory;
+    private DatabaseSession session;
+    private GenericDaoImpl<User> userDao;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        factory = new H2ConnectionFactory();
+        session = new DatabaseSession(factory);
+        SchoolData.create(session);
+        userDao = new GenericDaoImpl<>(session, User.class);
+        factory.resetExecuted();
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        session.closeConnection();
+    }
+
+    @Test
+    public void testIdentityMapIsScopedToTransaction() throws Exception {
+        User user = userDao.findById(1).get();
+        assertSame(user, userDao.findById(1).get());
+        assertEquals(1, SchoolData.executedFrom(factory, "users"));
+
+        session.beginTransaction();
+        session.commitTransaction();
+        assertNotSame(user, userDao.findById(1).get());
+    }
+
+    @Test
+    public void testPutIfAbsentKeepsKnownInstance() {
+        IdentityMap identityMap = new IdentityMap();
+        User first = SchoolData.newUser(1, "a", null, null);
+
+        assertSame(first, identityMap.putIfAbsent(User.class, 1, first));
+        assertSame(first, identityMap.putIfAbsent(User.class, 1, SchoolData.newUser(1, "b", null, null)));
+        assertNull(identityMap.get(Subject.class, 1)); // Keyed by type
+    }
+
+    @Test
+    public void testIdentityMapIsBoundedPerType() {
+        IdentityMap identityMap = new IdentityMap(2);
+        User first = SchoolData.newUser(1, "a", null, null);
+        identityMap.putIfAbsent(User.class, 1, first);
+        identityMap.putSnapshot(first, new Object[0]);
+        identityMap.putIfAbsent(User.class, 2, SchoolData.newUser(2, "b", null, null));
+        identityMap.putIfAbsent(User.class, 3, SchoolData.newUser(3, "c", null, null));
+
+        assertNull(identityMap.get(User.class, 1)); // Least recently used
+        assertNull(identityMap.getSnapshot(first));
+        assertNotNull(identityMap.get(User.class, 3));
+    }
+
+    @Test
+    public void testEvictForgetsEntitiesAndTheirState() {
+        IdentityMap identityMap = new IdentityMap();
+        User user = SchoolData.newUser(1, "a", null, null);
+        identityMap.putIfAbsent(User.class, 1, user);
+        identityMap.putSnapshot(user, new Object[0]);
+        identityMap.markCollectionsLoaded(user);
+
+        identityMap.evictCollections(User.class);
+        assertFalse(identityMap.hasCollections(user));
+        assertSame(user, identityMap.get(User.class, 1));
+
+        identityMap.markCollectionsLoaded(user);
+        identityMap.evict(User.class);
+        assertNull(identityMap.get(User.class, 1));
+        assertNull(identityMap.getSnapshot(user));
+        assertFalse(identityMap.hasCollections(user));
+        assertTrue(identityMap.getEntityClasses().isEmpty());
+    }
+}
@@ -0,0 +1,127 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.JDBCType;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.annotation.Column;
+import com.example.annotation.Id;
+import com.example.annotation.JoinColumn;
+import com.example.annotation.ManyToOne;
+import com.example.annotation.Table;
+import com.example.client.User;
+import com.example.connection.DatabaseSession;
+import com.example.entity.EntityMetadataRegistry;
+import com.example.entity.GenericDaoImpl;
+import com.example.schema.SchemaManager;
+import com.example.schema.factory.MySQLStrategyFactory;
+
+/**
+ * Records and classes without a no-arg constructor, built through their
+ * constructor from the row, on H2.
+ */
+public class ImmutableEntityTest {
+    private H2ConnectionFactory factory;
+    private DatabaseSession session;
+
+    @Table(name = "notes")
+    public record Note(@Id @Column(name = "id", type = JDBCType.INTEGER) int id,
+            @Column(name = "text") String text,
+            @Column(name = "pages", type = JDBCType.INTEGER) int pages) {
+    }
+
+    @Table(name = "enrollments")
+    public record Enrollment(@Id @Column(name = "id", type = JDBCType.INTEGER) int id,
+            @ManyToOne @JoinColumn(name = "user_id", nullable = true) User user) {
+    }
+
+    @Table(name = "labels")
+    public static final class Label {
+        @Id
+        @Column(name = "id", type = JDBCType.INTEGER)
+        private final int id;
+
+        @Column(name = "text")
+        private final String text;
+
+        public Label(int id, String text) {
+            this.id = id;
+            this.text = text;
+        }
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        factory = new H2ConnectionFactory();
+        session = new DatabaseSession(factory);
+        SchoolData.create(session);
+        SchemaManager schemaManager = new SchemaManager(session, new MySQLStrategyFactory());
+        schemaManager.createTable(Note.class);
+        schemaManager.createTable(Enrollment.class);
+        schemaManager.createTable(Label.class);
+        factory.resetExecuted();
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        session.closeConnection();
+    }
+
+    @Test
+    public void testRecordsAreBuiltThroughCanonicalConstructor() throws Exception {
+        var dao = new GenericDaoImpl<>(session, Note.class);
+        dao.create(new Note(1, "first", 12));
+        session.getIdentityMap().clear();
+
+        assertTrue(EntityMetadataRegistry.getMetadata(Note.class).isConstructorMapped());
+        assertEquals(new Note(1, "first", 12), dao.findById(1).get());
+        assertEquals(List.of(new Note(1, "first", 12)), dao.read(null));
+    }
+
+    @Test
+    public void testSqlNullBecomesDefaultOfPrimitive() throws Exception {
+        session.executeUpdate("INSERT INTO notes (id) VALUES (2)");
+
+        Note note = new GenericDaoImpl<>(session, Note.class).findById(2).get();
+
+        assertNull(note.text());
+        assertEquals(0, note.pages());
+    }
+
+    @Test
+    public void testRecordAssociationsAreBatchFetched() throws Exception {
+        session.executeUpdate("INSERT INTO enrollments (id, user_id) VALUES (1, 2), (2, 2), (3, 1), (4, NULL)");
+
+        List<Enrollment> enrollments = new GenericDaoImpl<>(session, Enrollment.class).read("1 = 1 ORDER BY id");
+
+        assertEquals("student1", enrollments.get(0).user().getUsername());
+        assertSame(enrollments.get(0).user(), enrollments.get(1).user());
+        assertEquals("teacher1", enrollments.get(2).user().getUsername());
+        assertNull(enrollments.get(3).user());
+        assertEquals(1, SchoolData.executedFrom(factory, "users")); // One IN query, before construction
+    }
+
+    @Test
+    public void testClassWithAllArgsConstructor() throws Exception {
+        var dao = new GenericDaoImpl<>(session, Label.class);
+        dao.create(new Label(1, "urgent"));
+        session.getIdentityMap().clear();
+
+        Label label = dao.findById(1).get();
+
+        assertTrue(EntityMetadataRegistry.getMetadata(Label.class).isConstructorMapped());
+        assertEquals(1, label.id);
+        assertEquals("urgent", label.text);
+        assertFalse(EntityMetadataRegistry.getMetadata(User.class).isConstructorMapped());
+    }
+}
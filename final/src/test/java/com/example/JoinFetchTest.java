@@ -0,0 +1,80 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.client.Subject;
+import com.example.connection.DatabaseSession;
+import com.example.entity.FetchPlan;
+import com.example.entity.GenericDaoImpl;
+
+/**
+ * To-one associations read in the same statement as their owner through a
+ * LEFT JOIN, on H2.
+ */
+public class JoinFetchTest {
+    private final QueryBuilder<Subject> subjects = new QueryBuilder<>(Subject.class);
+    private H2ConnectionFactory factory;
+    private DatabaseSession session;
+    private GenericDaoImpl<Subject> subjectDao;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        factory = new H2ConnectionFactory();
+        session = new DatabaseSession(factory);
+        SchoolData.create(session);
+        subjectDao = new GenericDaoImpl<>(session, Subject.class);
+        factory.resetExecuted();
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        session.closeConnection();
+    }
+
+    @Test
+    public void testJoinFetchThroughFetchPlan() throws Exception {
+        List<Subject> subjects = subjectDao.read("id > 30 ORDER BY id DESC", new FetchPlan().join("user"));
+
+        assertEquals(10, subjects.size());
+        assertEquals(40, subjects.get(0).getId()); // Sorted after the join
+        assertEquals(31, subjects.get(9).getId());
+        assertEquals("student1", subjects.get(0).getUser().getUsername());
+        assertEquals(0, SchoolData.executedFrom(factory, "users")); // Joined, no query of its own
+        assertTrue(factory.getExecuted().get(0).contains(" LEFT JOIN users "));
+        assertTrue(factory.getExecuted().get(0).endsWith(" ORDER BY id DESC"));
+    }
+
+    @Test
+    public void testJoinFetchById() throws Exception {
+        Subject subject = subjectDao.findById(3, new FetchPlan().join("user")).get();
+
+        assertEquals("teacher1", subject.getUser().getUsername());
+        assertEquals(0, SchoolData.executedFrom(factory, "users"));
+        assertTrue(factory.getExecuted().get(0).contains(" LEFT JOIN users "));
+    }
+
+    @Test
+    public void testJoinFetchSortsOuterQuery() {
+        String sql = subjects.buildReadQuery("credit > 0 ORDER BY name DESC LIMIT 5", new FetchPlan().join("user"));
+
+        assertTrue(sql.startsWith("SELECT subjects.*, j3.id AS j3_id, j3.username AS j3_username"), sql);
+        assertTrue(sql.endsWith(" FROM (SELECT * FROM subjects WHERE credit > 0) subjects"
+                + " LEFT JOIN users j3 ON j3.id = subjects.user_id ORDER BY name DESC LIMIT 5"), sql);
+    }
+
+    @Test
+    public void testOrderByInQuotesOrSubqueryStaysInCondition() {
+        assertEquals(-1, QueryBuilder.indexOfOrderBy("name = 'x order by y'"));
+        assertEquals(-1, QueryBuilder.indexOfOrderBy("id IN (SELECT id FROM subjects ORDER BY id LIMIT 3)"));
+        assertEquals(-1, QueryBuilder.indexOfOrderBy("border_by = 1"));
+        assertEquals(11, QueryBuilder.indexOfOrderBy("credit > 0 order\n by name"));
+    }
+}
@@ -0,0 +1,118 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.JDBCType;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.annotation.Column;
+import com.example.annotation.FetchMode;
+import com.example.annotation.Id;
+import com.example.annotation.JoinColumn;
+import com.example.annotation.ManyToOne;
+import com.example.annotation.Table;
+import com.example.client.Subject;
+import com.example.client.User;
+import com.example.connection.DatabaseSession;
+import com.example.entity.FetchPlan;
+import com.example.entity.GenericDaoImpl;
+import com.example.lazyloading.LazyEntity;
+import com.example.schema.SchemaManager;
+import com.example.schema.factory.MySQLStrategyFactory;
+
+/**
+ * To-one associations left to proxies that answer their ID from the foreign
+ * key and load on first use, on H2.
+ */
+public class LazyAssociationTest {
+    private H2ConnectionFactory factory;
+    private DatabaseSession session;
+    private GenericDaoImpl<Subject> subjectDao;
+
+    @Table(name = "reviews")
+    public static class Review {
+        @Id
+        @Column(name = "id", type = JDBCType.INTEGER)
+        private int id;
+
+        @ManyToOne(fetch = FetchMode.LAZY)
+        @JoinColumn(name = "reviewer_id", nullable = true)
+        private User reviewer;
+
+        public User getReviewer() {
+            return reviewer;
+        }
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        factory = new H2ConnectionFactory();
+        session = new DatabaseSession(factory);
+        SchoolData.create(session);
+        new SchemaManager(session, new MySQLStrategyFactory()).createTable(Review.class);
+        subjectDao = new GenericDaoImpl<>(session, Subject.class);
+        factory.resetExecuted();
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        session.closeConnection();
+    }
+
+    @Test
+    public void testLazyPlanLeavesProxies() throws Exception {
+        List<Subject> subjects = subjectDao.read("id <= 2", new FetchPlan().lazy("user"));
+        assertEquals(List.of("SELECT * FROM subjects WHERE id <= 2"), factory.getExecuted());
+
+        User teacher = subjects.get(0).getUser();
+        assertTrue(teacher instanceof LazyEntity);
+        assertEquals(1, teacher.getId()); // From the foreign key
+        assertFalse(((LazyEntity) teacher).isInitialized());
+
+        assertEquals("teacher1", teacher.getUsername());
+        assertTrue(((LazyEntity) subjects.get(1).getUser()).isInitialized()); // Loaded in the same batch
+        assertEquals(1, SchoolData.executedFrom(factory, "users"));
+    }
+
+    @Test
+    public void testLazyAnnotationLeavesProxies() throws Exception {
+        session.executeUpdate("INSERT INTO reviews (id, reviewer_id) VALUES (1, 2)");
+
+        Review review = new GenericDaoImpl<>(session, Review.class).findById(1).get();
+
+        assertTrue(review.getReviewer() instanceof LazyEntity);
+        assertEquals(0, SchoolData.executedFrom(factory, "users"));
+        assertEquals("student1", review.getReviewer().getUsername());
+    }
+
+    @Test
+    public void testEntityOfSessionIsNotProxied() throws Exception {
+        User teacher = new GenericDaoImpl<>(session, User.class).findById(1).get();
+
+        Subject subject = subjectDao.findById(1, new FetchPlan().lazy("user")).get();
+
+        assertSame(teacher, subject.getUser());
+    }
+
+    @Test
+    public void testWritingThroughProxyKeepsItUninitialized() throws Exception {
+        Subject subject = subjectDao.findById(1, new FetchPlan().lazy("user")).get();
+        subject.setName("Math");
+        factory.resetExecuted();
+
+        subjectDao.update(subject);
+
+        assertEquals(List.of("UPDATE subjects SET name = ? WHERE id = ?"), factory.getExecuted());
+        assertFalse(((LazyEntity) subject.getUser()).isInitialized());
+        session.getIdentityMap().clear();
+        assertEquals(1, subjectDao.findById(1).get().getUser().getId());
+    }
+}
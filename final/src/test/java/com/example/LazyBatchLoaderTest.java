@@ -0,0 +1,127 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.client.Subject;
+import com.example.connection.DatabaseSession;
+import com.example.entity.GenericDaoImpl;
+import com.example.lazyloading.LazyBatchLoader;
+import com.example.lazyloading.LazyEntity;
+
+/**
+ * Pending lazy proxies loaded together, one IN query per batch.
+ */
+public class LazyBatchLoaderTest {
+    private H2ConnectionFactory factory;
+    private DatabaseSession session;
+    private GenericDaoImpl<Subject> subjectDao;
+    private final List<List<Object>> fetched = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        factory = new H2ConnectionFactory();
+        session = new DatabaseSession(factory);
+        SchoolData.create(session);
+        subjectDao = new GenericDaoImpl<>(session, Subject.class);
+        factory.resetExecuted();
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        session.closeConnection();
+    }
+
+    // Records the IDs of each batch and returns a subject for each
+    private List<Subject> fetch(Collection<?> ids) {
+        fetched.add(new ArrayList<>(ids));
+        List<Subject> subjects = new ArrayList<>();
+        for (Object id : ids) {
+            Subject subject = new Subject();
+            subject.setId((Integer) id);
+            subject.setName("S" + id);
+            subjects.add(subject);
+        }
+        return subjects;
+    }
+
+    @Test
+    public void testLazyProxiesLoadInBatches() throws Exception {
+        List<Subject> proxies = new ArrayList<>();
+        for (int i = 1; i <= SchoolData.SUBJECT_COUNT; i++) {
+            proxies.add(subjectDao.getLazy(Subject.class, i));
+        }
+        assertEquals(0, factory.getExecuted().size());
+
+        for (Subject proxy : proxies) {
+            assertNotNull(proxy.getName());
+        }
+        // Batches of LazyBatchLoader.DEFAULT_BATCH_SIZE pending IDs
+        assertEquals(2, SchoolData.executedFrom(factory, "subjects"));
+    }
+
+    @Test
+    public void testLazyProxiesAreForgottenAtCommit() throws Exception {
+        Subject first = subjectDao.getLazy(Subject.class, 1);
+        Subject second = subjectDao.getLazy(Subject.class, 2);
+        session.beginTransaction();
+        session.commitTransaction();
+
+        assertEquals("S1", first.getName());
+        assertFalse(((LazyEntity) second).isInitialized()); // Not loaded with the first one
+        assertTrue(factory.getExecuted().contains("SELECT * FROM subjects WHERE id IN (?)"));
+    }
+
+    @Test
+    public void testBatchStartsWithRequestedId() {
+        LazyBatchLoader loader = new LazyBatchLoader();
+        loader.setBatchSize(3);
+        List<Subject> proxies = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            proxies.add(loader.createProxy(Subject.class, i, this::fetch));
+        }
+
+        assertEquals("S4", proxies.get(3).getName());
+        assertEquals(List.of(List.of(4, 1, 2)), fetched); // Then the oldest pending IDs
+        assertTrue(((LazyEntity) proxies.get(0)).isInitialized());
+        assertFalse(((LazyEntity) proxies.get(2)).isInitialized());
+
+        assertEquals("S5", proxies.get(4).getName());
+        assertEquals(List.of(5, 3), fetched.get(1));
+    }
+
+    @Test
+    public void testProxiesOfSameIdShareLoad() {
+        LazyBatchLoader loader = new LazyBatchLoader();
+        Subject first = loader.createProxy(Subject.class, 7, this::fetch);
+        Subject second = loader.createProxy(Subject.class, 7, this::fetch);
+
+        assertEquals("S7", first.getName());
+        assertTrue(((LazyEntity) second).isInitialized());
+        assertEquals(List.of(List.of(7)), fetched);
+    }
+
+    @Test
+    public void testBatchSizeOfOneLoadsAlone() {
+        LazyBatchLoader loader = new LazyBatchLoader();
+        loader.setBatchSize(1);
+        Subject first = loader.createProxy(Subject.class, 1, this::fetch);
+        loader.createProxy(Subject.class, 2, this::fetch);
+
+        assertEquals("S1", first.getName());
+        assertEquals(List.of(List.of(1)), fetched);
+        assertThrows(IllegalArgumentException.class, () -> loader.setBatchSize(0));
+    }
+}
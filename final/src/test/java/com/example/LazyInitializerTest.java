@@ -0,0 +1,116 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.client.Subject;
+import com.example.lazyloading.LazyEntity;
+import com.example.lazyloading.LazyInitializer;
+
+/**
+ * Proxies created by the LazyInitializer, without a database.
+ */
+public class LazyInitializerTest {
+
+    private static Subject subject(int id, String name) {
+        Subject subject = new Subject();
+        subject.setId(id);
+        subject.setName(name);
+        return subject;
+    }
+
+    @Test
+    public void testProxyClassIsGeneratedOncePerType() {
+        Subject first = new LazyInitializer<>(Subject.class, 1, () -> subject(1, "S1")).createProxy();
+        Subject second = new LazyInitializer<>(Subject.class, 2, () -> subject(2, "S2")).createProxy();
+
+        assertSame(first.getClass(), second.getClass());
+        assertEquals(Subject.class, first.getClass().getSuperclass());
+        assertTrue(first instanceof LazyEntity);
+    }
+
+    @Test
+    public void testIdGetterDoesNotLoad() {
+        AtomicInteger loads = new AtomicInteger();
+        Subject proxy = new LazyInitializer<>(Subject.class, 7, () -> {
+            loads.incrementAndGet();
+            return subject(7, "S7");
+        }).createProxy();
+
+        assertEquals(7, proxy.getId());
+        assertFalse(((LazyEntity) proxy).isInitialized());
+        assertEquals("S7", proxy.getName());
+        assertEquals(1, loads.get());
+        assertTrue(((LazyEntity) proxy).isInitialized());
+    }
+
+    @Test
+    public void testCallsDispatchToTheTarget() {
+        Subject target = subject(3, "S3");
+        Subject proxy = new LazyInitializer<>(Subject.class, 3, () -> target).createProxy();
+
+        proxy.setName("renamed");
+        assertEquals("renamed", target.getName()); // Written through to the loaded entity
+        assertEquals("renamed", proxy.getName());
+    }
+
+    @Test
+    public void testMissingEntityRunsOnTheProxy() {
+        Subject proxy = new LazyInitializer<Subject>(Subject.class, 9, () -> null).createProxy();
+
+        assertNull(proxy.getName());
+        assertTrue(((LazyEntity) proxy).isInitialized());
+    }
+
+    @Test
+    public void testConcurrentCallsLoadOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Subject proxy = new LazyInitializer<>(Subject.class, 5, () -> {
+            loads.incrementAndGet();
+            Thread.sleep(50); // Keep the other threads waiting on the lock
+            return subject(5, "S5");
+        }).createProxy();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> names = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                names.add(executor.submit(() -> {
+                    start.await();
+                    return proxy.getName();
+                }));
+            }
+            start.countDown();
+            for (Future<String> name : names) {
+                assertEquals("S5", name.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testFinalClassesAreNotProxyable() {
+        assertFalse(LazyInitializer.isProxyable(String.class));
+        assertTrue(LazyInitializer.isProxyable(Subject.class));
+        assertThrows(IllegalArgumentException.class,
+                () -> new LazyInitializer<>(String.class, () -> "").createProxy());
+    }
+}
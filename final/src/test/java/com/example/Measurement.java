@@ -0,0 +1,159 @@
+package com.example;
+
+import java.math.BigDecimal;
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Date;
+
+import com.example.annotation.Column;
+import com.example.annotation.Id;
+import com.example.annotation.Table;
+import com.example.type.BaseTypeHandler;
+import com.example.type.TypeHandlerRegistry;
+
+// Entity with a column of each kind of conversion: direct getters, wrappers, wide types and a custom handler
+@Table(name = "measurements")
+public class Measurement {
+    public enum Grade {
+        A, B, C
+    }
+
+    // Stores the grade as its lower case letter
+    public static final class GradeTypeHandler extends BaseTypeHandler<Grade> {
+        @Override
+        public Grade getResult(ResultSet rs, int index) throws SQLException {
+            String code = rs.getString(index);
+            return code == null ? null : Grade.valueOf(code.toUpperCase());
+        }
+
+        @Override
+        protected void setNonNullParameter(PreparedStatement ps, int index, Grade value, JDBCType jdbcType)
+                throws SQLException {
+            ps.setString(index, value.name().toLowerCase());
+        }
+    }
+
+    public static final GradeTypeHandler GRADE_HANDLER = new GradeTypeHandler();
+
+    @Id
+    @Column(name = "id", type = JDBCType.INTEGER)
+    private int id;
+
+    @Column(name = "label")
+    private String label;
+
+    @Column(name = "sample_count", type = JDBCType.INTEGER)
+    private Integer sampleCount;
+
+    @Column(name = "valid", type = JDBCType.TINYINT)
+    private Boolean valid;
+
+    @Column(name = "active", type = JDBCType.BOOLEAN)
+    private boolean active;
+
+    @Column(name = "ratio", type = JDBCType.DOUBLE)
+    private double ratio;
+
+    @Column(name = "amount", type = JDBCType.DECIMAL)
+    private BigDecimal amount;
+
+    @Column(name = "taken_at", type = JDBCType.TIMESTAMP)
+    private Date takenAt;
+
+    @Column(name = "taken_on", type = JDBCType.DATE)
+    private LocalDate takenOn;
+
+    @Column(name = "grade", type = JDBCType.CHAR)
+    private Grade grade;
+
+    /**
+     * Registers the handler of the grade column. Must run before the metadata
+     * of the entity is first built.
+     */
+    public static void registerTypeHandlers() {
+        TypeHandlerRegistry.register(Grade.class, GRADE_HANDLER);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public Integer getSampleCount() {
+        return sampleCount;
+    }
+
+    public void setSampleCount(Integer sampleCount) {
+        this.sampleCount = sampleCount;
+    }
+
+    public Boolean getValid() {
+        return valid;
+    }
+
+    public void setValid(Boolean valid) {
+        this.valid = valid;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public double getRatio() {
+        return ratio;
+    }
+
+    public void setRatio(double ratio) {
+        this.ratio = ratio;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public Date getTakenAt() {
+        return takenAt;
+    }
+
+    public void setTakenAt(Date takenAt) {
+        this.takenAt = takenAt;
+    }
+
+    public LocalDate getTakenOn() {
+        return takenOn;
+    }
+
+    public void setTakenOn(LocalDate takenOn) {
+        this.takenOn = takenOn;
+    }
+
+    public Grade getGrade() {
+        return grade;
+    }
+
+    public void setGrade(Grade grade) {
+        this.grade = grade;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.client.Class;
+import com.example.client.Subject;
+import com.example.client.User;
+import com.example.connection.DatabaseSession;
+import com.example.entity.GenericDaoImpl;
+import com.example.schema.SchemaManager;
+import com.example.schema.factory.DBMSStrategyFactory;
+import com.example.schema.factory.MySQLStrategyFactory;
+import com.example.schema.factory.SqlServerStrategyFactory;
+import com.example.schema.strategy.DMLStrategy;
+import com.example.schema.strategy.MySQLDMLStrategy;
+import com.example.schema.strategy.PostgresDMLStrategy;
+import com.example.schema.strategy.SqlServerDMLStrategy;
+
+/**
+ * Bulk inserts sent as multi-row INSERT statements, run on H2 with the DML
+ * strategy of each dialect.
+ */
+public class MultiRowInsertTest {
+    private static final String SUBJECT_ROW = "(?, ?, ?, ?)";
+
+    private H2ConnectionFactory factory;
+    private DatabaseSession session;
+
+    private DatabaseSession open(DBMSStrategyFactory strategyFactory) throws SQLException {
+        factory = new H2ConnectionFactory(strategyFactory);
+        session = new DatabaseSession(factory);
+        SchemaManager schemaManager = new SchemaManager(session, new MySQLStrategyFactory());
+        schemaManager.createTable(Class.class);
+        schemaManager.createTable(User.class);
+        schemaManager.createTable(Subject.class);
+        schemaManager.createTable(Tag.class);
+        factory.resetExecuted();
+        return session;
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        if (session != null) {
+            session.closeConnection();
+        }
+    }
+
+    @Test
+    public void testMultiRowInsertQuery() {
+        QueryBuilder<Subject> subjects = new QueryBuilder<>(Subject.class);
+
+        assertEquals(subjects.buildInsertQuery(), subjects.buildMultiRowInsertQuery(1));
+        assertEquals("INSERT INTO subjects (id, name, credit, user_id) VALUES "
+                + SUBJECT_ROW + ", " + SUBJECT_ROW + ", " + SUBJECT_ROW, subjects.buildMultiRowInsertQuery(3));
+    }
+
+    @Test
+    public void testDialectLimits() {
+        DMLStrategy mySql = new MySQLDMLStrategy();
+        DMLStrategy postgres = new PostgresDMLStrategy();
+        DMLStrategy sqlServer = new SqlServerDMLStrategy();
+
+        assertTrue(mySql.prefersMultiRowInsert());
+        assertTrue(mySql.supportsBatchGeneratedKeys());
+        assertFalse(postgres.prefersMultiRowInsert()); // JDBC batches, rewritten by the driver
+        assertTrue(postgres.supportsBatchGeneratedKeys());
+        assertTrue(sqlServer.prefersMultiRowInsert());
+        assertFalse(sqlServer.supportsBatchGeneratedKeys());
+        assertEquals(2100, sqlServer.getMaxParameters());
+        assertEquals(1000, sqlServer.getMaxInsertRows());
+    }
+
+    @Test
+    public void testCreateAllWritesBackKeysOfMultiRowInsert() throws Exception {
+        var dao = new GenericDaoImpl<>(open(new MySQLStrategyFactory()), Tag.class);
+        List<Tag> tags = List.of(new Tag("a"), new Tag("b"), new Tag("c"));
+
+        dao.createAll(tags);
+
+        assertEquals(List.of("INSERT INTO tags (id, label) VALUES (?, ?), (?, ?), (?, ?)"), factory.getExecuted());
+        assertEquals(List.of(1, 2, 3), List.of(tags.get(0).getId(), tags.get(1).getId(), tags.get(2).getId()));
+    }
+
+    @Test
+    public void testRowsWithAnIdAreInsertedApart() throws Exception {
+        var dao = new GenericDaoImpl<>(open(new MySQLStrategyFactory()), Tag.class);
+        Tag explicit = new Tag("explicit");
+        explicit.setId(100);
+        List<Tag> tags = List.of(new Tag("a"), explicit, new Tag("b"));
+
+        dao.createAll(tags);
+
+        // Keys are read for the generated rows only, and written back to them alone
+        assertEquals(List.of("INSERT INTO tags (id, label) VALUES (?, ?)",
+                "INSERT INTO tags (id, label) VALUES (?, ?), (?, ?)"), factory.getExecuted());
+        assertEquals(100, explicit.getId());
+        assertNotEquals(tags.get(0).getId(), tags.get(2).getId());
+        session.getIdentityMap().clear();
+        for (Tag tag : tags) {
+            assertEquals(tag.getLabel(), dao.findById(tag.getId()).get().getLabel());
+        }
+    }
+
+    @Test
+    public void testMultiRowInsertStaysWithinParameterLimit() throws Exception {
+        var dao = new GenericDaoImpl<>(open(new SqlServerStrategyFactory()), Subject.class);
+        List<Subject> subjects = new ArrayList<>();
+        for (int i = 1; i <= 1200; i++) {
+            Subject subject = new Subject();
+            subject.setId(i);
+            subject.setName("S" + i);
+            subjects.add(subject);
+        }
+
+        dao.createAll(subjects, 1000);
+
+        // 2100 parameters of SQL Server over 4 columns: 525 rows per statement
+        List<Integer> rowsPerStatement = new ArrayList<>();
+        for (String sql : factory.getExecuted()) {
+            rowsPerStatement.add(sql.split("\\(\\?", -1).length - 1);
+        }
+        assertEquals(List.of(525, 525, 150), rowsPerStatement);
+        assertEquals(1200, dao.read(null).size());
+    }
+}
@@ -0,0 +1,124 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.connection.DatabaseSession;
+import com.example.connection.PreparedStatementCache;
+
+/**
+ * Reuse, eviction and closing of cached PreparedStatements, on H2.
+ */
+public class PreparedStatementCacheTest {
+    private static final String SELECT_ONE = "SELECT ? FROM DUAL";
+    private static final String SELECT_TWO = "SELECT 2 FROM DUAL";
+    private static final String SELECT_THREE = "SELECT 3 FROM DUAL";
+
+    private Connection connection;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        connection = new H2ConnectionFactory().createConnection();
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    private static PreparedStatement cycle(PreparedStatementCache cache, String sql) throws SQLException {
+        PreparedStatement statement = cache.acquire(sql, Statement.NO_GENERATED_KEYS);
+        cache.release(statement);
+        return statement;
+    }
+
+    @Test
+    public void testReleasedStatementIsReused() throws SQLException {
+        PreparedStatementCache cache = new PreparedStatementCache(connection, 4);
+        PreparedStatement statement = cycle(cache, SELECT_ONE);
+
+        assertSame(statement, cache.acquire(SELECT_ONE, Statement.NO_GENERATED_KEYS));
+        assertNotSame(statement, cache.acquire(SELECT_ONE, Statement.RETURN_GENERATED_KEYS)); // Keyed apart
+    }
+
+    @Test
+    public void testStatementInUseIsNotSharedByNestedQueries() throws SQLException {
+        PreparedStatementCache cache = new PreparedStatementCache(connection, 4);
+        PreparedStatement outer = cache.acquire(SELECT_ONE, Statement.NO_GENERATED_KEYS);
+        PreparedStatement nested = cache.acquire(SELECT_ONE, Statement.NO_GENERATED_KEYS);
+        assertNotSame(outer, nested);
+
+        cache.release(nested);
+        cache.release(outer); // The cache already holds one for this SQL
+        assertTrue(outer.isClosed());
+        assertFalse(nested.isClosed());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvictedAndClosed() throws SQLException {
+        PreparedStatementCache cache = new PreparedStatementCache(connection, 2);
+        PreparedStatement one = cycle(cache, SELECT_ONE);
+        PreparedStatement two = cycle(cache, SELECT_TWO);
+        cycle(cache, SELECT_ONE); // Most recently used again
+
+        cycle(cache, SELECT_THREE);
+
+        assertTrue(two.isClosed());
+        assertFalse(one.isClosed());
+        assertSame(one, cache.acquire(SELECT_ONE, Statement.NO_GENERATED_KEYS));
+    }
+
+    @Test
+    public void testReleaseClearsParameters() throws SQLException {
+        PreparedStatementCache cache = new PreparedStatementCache(connection, 4);
+        PreparedStatement statement = cache.acquire(SELECT_ONE, Statement.NO_GENERATED_KEYS);
+        statement.setInt(1, 1);
+        cache.release(statement);
+
+        PreparedStatement reused = cache.acquire(SELECT_ONE, Statement.NO_GENERATED_KEYS);
+        assertSame(statement, reused);
+        assertThrows(SQLException.class, reused::executeQuery); // Parameter no longer set
+    }
+
+    @Test
+    public void testDisabledCacheClosesReleasedStatements() throws SQLException {
+        PreparedStatementCache cache = new PreparedStatementCache(connection, 0);
+
+        assertTrue(cycle(cache, SELECT_ONE).isClosed());
+    }
+
+    @Test
+    public void testCloseClosesIdleAndInUseStatements() throws SQLException {
+        PreparedStatementCache cache = new PreparedStatementCache(connection, 4);
+        PreparedStatement idle = cycle(cache, SELECT_ONE);
+        PreparedStatement inUse = cache.acquire(SELECT_TWO, Statement.NO_GENERATED_KEYS);
+
+        cache.close();
+
+        assertTrue(idle.isClosed());
+        assertTrue(inUse.isClosed());
+    }
+
+    @Test
+    public void testSessionClosesItsStatements() throws SQLException {
+        DatabaseSession session = new DatabaseSession(new H2ConnectionFactory());
+        PreparedStatement statement = session.prepareStatement(SELECT_TWO);
+        session.releaseStatement(statement);
+        assertSame(statement, session.prepareStatement(SELECT_TWO));
+
+        session.closeConnection();
+        assertTrue(statement.isClosed());
+    }
+}
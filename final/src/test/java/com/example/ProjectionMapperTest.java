@@ -0,0 +1,115 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.connection.DatabaseSession;
+import com.example.entity.GenericDaoImpl;
+import com.example.mapping.ProjectionMapper;
+import com.example.schema.SchemaManager;
+import com.example.schema.factory.MySQLStrategyFactory;
+
+/**
+ * Query results mapped into records and DTOs, on H2.
+ */
+public class ProjectionMapperTest {
+    private DatabaseSession session;
+    private GenericDaoImpl<Measurement> dao;
+
+    public record Summary(int id, String label, Measurement.Grade grade, LocalDate takenOn) {
+    }
+
+    // Matched by snake_case column name; "note" has no column and keeps its default
+    public static class Counts {
+        private int id;
+        private Integer sampleCount;
+        private String note = "none";
+    }
+
+    public record Total(long total, int ratio) {
+    }
+
+    public static class NoDefaultConstructor {
+        public NoDefaultConstructor(int id) {
+        }
+    }
+
+    @BeforeAll
+    public static void registerTypeHandlers() {
+        Measurement.registerTypeHandlers();
+    }
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        session = new DatabaseSession(new H2ConnectionFactory());
+        new SchemaManager(session, new MySQLStrategyFactory()).createTable(Measurement.class);
+        session.executeUpdate("INSERT INTO measurements (id, label, sample_count, grade, taken_on) VALUES"
+                + " (1, 'pressure', 12, 'b', DATE '2024-02-29'), (2, NULL, NULL, NULL, NULL)");
+        dao = new GenericDaoImpl<>(session, Measurement.class);
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        session.closeConnection();
+    }
+
+    @Test
+    public void testRecordProjection() throws Exception {
+        List<Summary> summaries = dao.select(new SelectBuilder<>(Measurement.class).where("id = 1"), Summary.class);
+
+        assertEquals(List.of(new Summary(1, "pressure", Measurement.Grade.B, LocalDate.of(2024, 2, 29))), summaries);
+    }
+
+    @Test
+    public void testDtoProjectionSelectsOnlyMappedColumns() throws Exception {
+        // "note" is not a column of measurements: selecting it would fail
+        List<Counts> counts = dao.select(new SelectBuilder<>(Measurement.class).where("id IN (1, 2)"), Counts.class);
+
+        assertEquals(2, counts.size());
+        Counts first = counts.get(0).id == 1 ? counts.get(0) : counts.get(1);
+        Counts second = first == counts.get(0) ? counts.get(1) : counts.get(0);
+        assertEquals(12, first.sampleCount);
+        assertEquals("none", first.note);
+        assertNull(second.sampleCount); // SQL NULL stays null
+    }
+
+    @Test
+    public void testScalarsMatchedByAlias() throws Exception {
+        SelectBuilder<Measurement> builder = new SelectBuilder<>(Measurement.class)
+                .addScalar("COUNT", "*", "total");
+
+        // Absent primitive components get their default value
+        assertEquals(List.of(new Total(2, 0)), dao.select(builder, Total.class));
+    }
+
+    @Test
+    public void testResolveByLabel() throws Exception {
+        ProjectionMapper<Summary> mapper = ProjectionMapper.forType(Summary.class);
+        assertSame(mapper, ProjectionMapper.forType(Summary.class));
+        assertEquals(List.of("id", "label", "grade", "takenOn"), mapper.getPropertyNames());
+
+        try (Statement statement = session.getConnection().createStatement();
+                ResultSet rs = statement.executeQuery("SELECT taken_on, id, label AS LABEL FROM measurements")) {
+            assertArrayEquals(new int[] { 2, 3, 0, 1 }, mapper.resolve(rs.getMetaData()));
+        }
+    }
+
+    @Test
+    public void testRejectsTypeWithoutNoArgConstructor() {
+        assertThrows(IllegalArgumentException.class, () -> ProjectionMapper.forType(NoDefaultConstructor.class));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.client.User;
+import com.example.entity.ColumnMetadata;
+import com.example.entity.EntityMetadataRegistry;
+import com.example.entity.PropertyAccessor;
+
+/**
+ * Field access through precomputed VarHandles, typed for primitives.
+ */
+public class PropertyAccessorTest {
+
+    @SuppressWarnings("unused") // Accessed through VarHandles only
+    private static class Sample {
+        private int count;
+        private long total;
+        private boolean enabled;
+        private double ratio;
+        private String name;
+    }
+
+    private static PropertyAccessor accessor(String name) throws NoSuchFieldException {
+        return PropertyAccessor.of(Sample.class.getDeclaredField(name));
+    }
+
+    @Test
+    public void testPrimitiveAccessors() throws Exception {
+        Sample sample = new Sample();
+        accessor("count").setInt(sample, 3);
+        accessor("total").setLong(sample, 1L << 40);
+        accessor("enabled").setBoolean(sample, true);
+        accessor("ratio").setDouble(sample, 0.5);
+
+        assertEquals(3, accessor("count").getInt(sample));
+        assertEquals(1L << 40, accessor("total").getLong(sample));
+        assertTrue(accessor("enabled").getBoolean(sample));
+        assertEquals(0.5, accessor("ratio").getDouble(sample));
+        assertEquals(3, accessor("count").get(sample)); // Boxed by the generic getter
+    }
+
+    @Test
+    public void testReferenceAccessors() throws Exception {
+        PropertyAccessor name = accessor("name");
+        Sample sample = new Sample();
+        assertNull(name.get(sample));
+
+        name.set(sample, "first");
+        assertEquals("first", name.get(sample));
+        assertEquals("name", name.getName());
+        assertSame(String.class, name.getType());
+    }
+
+    @Test
+    public void testValueOfWrongTypeIsRejected() throws Exception {
+        Sample sample = new Sample();
+
+        assertThrows(ClassCastException.class, () -> accessor("name").set(sample, 1));
+        assertThrows(ClassCastException.class, () -> accessor("count").set(sample, "1"));
+    }
+
+    @Test
+    public void testColumnsReadAndWriteThroughAccessor() throws Exception {
+        ColumnMetadata username = EntityMetadataRegistry.getMetadata(User.class).findColumn("username").get();
+        User user = new User();
+
+        username.setValueToEntity(user, "student1");
+
+        assertEquals("student1", user.getUsername());
+        assertEquals("student1", username.getAccessor().get(user));
+        assertEquals("username", username.getAccessor().getName());
+    }
+}
@@ -0,0 +1,93 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.client.Class;
+import com.example.client.Subject;
+import com.example.client.User;
+import com.example.connection.DatabaseSession;
+import com.example.entity.EntityMetadata;
+import com.example.entity.EntityMetadataRegistry;
+import com.example.entity.GenericDaoImpl;
+import com.example.schema.SchemaManager;
+import com.example.schema.factory.MySQLStrategyFactory;
+
+/**
+ * CRUD statements with placeholders, the values bound apart, and the
+ * templates reused by every QueryBuilder of an entity.
+ */
+public class QueryBuilderTest {
+    private final QueryBuilder<Subject> subjects = new QueryBuilder<>(Subject.class);
+    private H2ConnectionFactory factory;
+    private DatabaseSession session;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        factory = new H2ConnectionFactory();
+        session = new DatabaseSession(factory);
+        SchemaManager schemaManager = new SchemaManager(session, new MySQLStrategyFactory());
+        schemaManager.createTable(Class.class);
+        schemaManager.createTable(User.class);
+        schemaManager.createTable(Subject.class);
+        factory.resetExecuted();
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        session.closeConnection();
+    }
+
+    @Test
+    public void testCrudQueriesUsePlaceholders() {
+        assertEquals("INSERT INTO subjects (id, name, credit, user_id) VALUES (?, ?, ?, ?)",
+                subjects.buildInsertQuery());
+        assertEquals("UPDATE subjects SET id = ?, name = ?, credit = ?, user_id = ? WHERE id = ?",
+                subjects.buildUpdateQuery("id = ?"));
+        assertEquals("SELECT * FROM subjects WHERE id = ?", subjects.buildSelectByIdQuery());
+        assertEquals("DELETE FROM subjects WHERE id = ?", subjects.buildDeleteQuery("id = ?"));
+    }
+
+    @Test
+    public void testValuesAreBoundNotInlined() throws Exception {
+        var dao = new GenericDaoImpl<>(session, Subject.class);
+        for (int id = 1; id <= 2; id++) {
+            Subject subject = new Subject();
+            subject.setId(id);
+            subject.setName(id == 1 ? "O'Brien; DROP TABLE subjects" : "Math");
+            dao.create(subject);
+        }
+
+        // One statement string for every row
+        assertEquals(List.of(subjects.buildInsertQuery(), subjects.buildInsertQuery()), factory.getExecuted());
+        session.getIdentityMap().clear();
+        assertEquals("O'Brien; DROP TABLE subjects", dao.findById(1).get().getName());
+        assertEquals(2, dao.read(null).size());
+    }
+
+    @Test
+    public void testTemplatesAreBuiltOncePerEntity() {
+        EntityMetadata metadata = EntityMetadataRegistry.getMetadata(Subject.class);
+        QueryBuilder<Subject> other = new QueryBuilder<>(Subject.class);
+
+        assertSame(metadata.getInsertSql(), subjects.buildInsertQuery());
+        assertSame(metadata.getInsertSql(), other.buildInsertQuery());
+        assertSame(subjects.buildSelectByIdQuery(), other.buildSelectByIdQuery());
+        assertSame(subjects.buildReadQuery(null), other.buildReadQuery(null));
+        assertSame(subjects.buildSelectInQuery("id", 4), other.buildSelectInQuery("id", 4));
+    }
+
+    @Test
+    public void testReadQueryWithoutJoin() {
+        assertEquals("SELECT * FROM subjects", subjects.buildReadQuery(null));
+        assertEquals("SELECT * FROM subjects WHERE credit > 0 ORDER BY name",
+                subjects.buildReadQuery("credit > 0 ORDER BY name"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.client.Class;
+import com.example.client.Subject;
+import com.example.client.User;
+import com.example.connection.DatabaseSession;
+import com.example.entity.GenericDaoImpl;
+import com.example.schema.SchemaManager;
+import com.example.schema.factory.MySQLStrategyFactory;
+
+// Rows shared by the fetch tests: class 1A, teacher1 (ID 1) teaching student1 (ID 2), and
+// SUBJECT_COUNT subjects, the even ones taken by the student and the odd ones by the teacher
+final class SchoolData {
+    static final int SUBJECT_COUNT = 40;
+
+    private SchoolData() {
+    }
+
+    static void create(DatabaseSession session) throws Exception {
+        SchemaManager schemaManager = new SchemaManager(session, new MySQLStrategyFactory());
+        schemaManager.createTable(Class.class);
+        schemaManager.createTable(User.class);
+        schemaManager.createTable(Subject.class);
+
+        Class classObject = new Class();
+        classObject.setId(1);
+        classObject.setName("1A");
+        new GenericDaoImpl<>(session, Class.class).create(classObject);
+        User teacher = newUser(1, "teacher1", null, classObject);
+        User student = newUser(2, "student1", teacher, classObject);
+        new GenericDaoImpl<>(session, User.class).createAll(List.of(teacher, student));
+        List<Subject> subjects = new ArrayList<>();
+        for (int i = 1; i <= SUBJECT_COUNT; i++) {
+            Subject subject = new Subject();
+            subject.setId(i);
+            subject.setName("S" + i);
+            subject.setUser(i % 2 == 0 ? student : teacher);
+            subjects.add(subject);
+        }
+        new GenericDaoImpl<>(session, Subject.class).createAll(subjects);
+        session.getIdentityMap().clear();
+    }
+
+    static User newUser(int id, String username, User teacher, Class classObject) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setTeacher(teacher);
+        user.setClassObject(classObject);
+        return user;
+    }
+
+    // Number of statements run against a table since the last reset
+    static long executedFrom(H2ConnectionFactory factory, String table) {
+        return factory.getExecuted().stream().filter(sql -> sql.contains("FROM " + table + " ")).count();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example;
+
+import java.sql.JDBCType;
+
+import com.example.annotation.Column;
+import com.example.annotation.Id;
+import com.example.annotation.Table;
+
+// Entity with a nullable ID, generated by the database when inserted as null
+@Table(name = "tags")
+public class Tag {
+    @Id
+    @Column(name = "id", type = JDBCType.INTEGER)
+    private Integer id;
+
+    @Column(name = "label")
+    private String label;
+
+    public Tag() {
+    }
+
+    public Tag(String label) {
+        this.label = label;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+}
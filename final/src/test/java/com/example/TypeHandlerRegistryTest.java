@@ -0,0 +1,148 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Date;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.connection.DatabaseSession;
+import com.example.entity.EntityMetadata;
+import com.example.entity.EntityMetadataRegistry;
+import com.example.entity.GenericDaoImpl;
+import com.example.schema.SchemaManager;
+import com.example.schema.factory.MySQLStrategyFactory;
+import com.example.type.SqlDateTypeHandler;
+import com.example.type.TimestampTypeHandler;
+import com.example.type.TypeHandler;
+import com.example.type.TypeHandlerRegistry;
+
+/**
+ * Values written and read back through the TypeHandlers of each column, on H2.
+ */
+public class TypeHandlerRegistryTest {
+    private DatabaseSession session;
+    private GenericDaoImpl<Measurement> dao;
+
+    @BeforeAll
+    public static void registerTypeHandlers() {
+        Measurement.registerTypeHandlers();
+    }
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        session = new DatabaseSession(new H2ConnectionFactory());
+        new SchemaManager(session, new MySQLStrategyFactory()).createTable(Measurement.class);
+        dao = new GenericDaoImpl<>(session, Measurement.class);
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        session.closeConnection();
+    }
+
+    private Measurement reload(int id) throws Exception {
+        session.getIdentityMap().clear();
+        return dao.findById(id).get();
+    }
+
+    @Test
+    public void testValuesRoundTrip() throws Exception {
+        Measurement measurement = new Measurement();
+        measurement.setId(1);
+        measurement.setLabel("pressure");
+        measurement.setSampleCount(12);
+        measurement.setValid(true);
+        measurement.setActive(true);
+        measurement.setRatio(0.25);
+        measurement.setAmount(new BigDecimal("1250"));
+        measurement.setTakenAt(new Date(1_700_000_000_000L));
+        measurement.setTakenOn(LocalDate.of(2024, 2, 29));
+        measurement.setGrade(Measurement.Grade.B);
+        dao.create(measurement);
+
+        Measurement loaded = reload(1);
+        assertEquals("pressure", loaded.getLabel());
+        assertEquals(12, loaded.getSampleCount());
+        assertEquals(true, loaded.getValid());
+        assertTrue(loaded.isActive());
+        assertEquals(0.25, loaded.getRatio());
+        assertEquals(new BigDecimal("1250"), loaded.getAmount());
+        assertEquals(1_700_000_000_000L, loaded.getTakenAt().getTime());
+        assertEquals(LocalDate.of(2024, 2, 29), loaded.getTakenOn());
+        assertEquals(Measurement.Grade.B, loaded.getGrade());
+    }
+
+    @Test
+    public void testNullsAndNumericBooleans() throws Exception {
+        session.executeUpdate("INSERT INTO measurements (id, valid, active) VALUES (1, NULL, 1), (2, 0, 0)");
+
+        Measurement nulls = reload(1);
+        assertNull(nulls.getSampleCount()); // Not 0
+        assertNull(nulls.getValid()); // Not false
+        assertTrue(nulls.isActive());
+        assertNull(nulls.getTakenAt());
+        assertNull(nulls.getGrade());
+
+        Measurement zeros = reload(2);
+        assertEquals(false, zeros.getValid());
+        assertFalse(zeros.isActive());
+    }
+
+    @Test
+    public void testCustomHandlerBindsAndReads() throws Exception {
+        Measurement measurement = new Measurement();
+        measurement.setId(1);
+        measurement.setGrade(Measurement.Grade.C);
+        dao.create(measurement);
+
+        try (PreparedStatement ps = session.getConnection().prepareStatement(
+                "SELECT grade FROM measurements WHERE id = 1"); ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            assertEquals("c", rs.getString(1)); // Written by the handler, not setObject
+        }
+        assertEquals(Measurement.Grade.C, reload(1).getGrade());
+    }
+
+    @Test
+    public void testLookupByJdbcType() {
+        assertTrue(TypeHandlerRegistry.getHandler(Date.class, null) instanceof TimestampTypeHandler);
+        assertTrue(TypeHandlerRegistry.getHandler(Date.class, JDBCType.DATE) instanceof SqlDateTypeHandler);
+        assertSame(TypeHandlerRegistry.getHandler(Integer.class, null), TypeHandlerRegistry.getHandler(int.class, null));
+        assertSame(Measurement.GRADE_HANDLER, TypeHandlerRegistry.getHandler(Measurement.Grade.class, JDBCType.CHAR));
+        assertFalse(TypeHandlerRegistry.isBuiltIn(Measurement.GRADE_HANDLER));
+    }
+
+    @Test
+    public void testDirectGetterOnlyWhereHandlerStoresItUnchanged() {
+        TypeHandler<?> integer = TypeHandlerRegistry.getHandler(int.class, JDBCType.INTEGER);
+        TypeHandler<?> timestamp = TypeHandlerRegistry.getHandler(Timestamp.class, JDBCType.TIMESTAMP);
+
+        assertEquals("getInt", TypeHandlerRegistry.getDirectGetter(integer, int.class));
+        assertNull(TypeHandlerRegistry.getDirectGetter(integer, Integer.class)); // SQL NULL must stay null
+        assertEquals("getTimestamp", TypeHandlerRegistry.getDirectGetter(timestamp, Timestamp.class));
+        assertNull(TypeHandlerRegistry.getDirectGetter(timestamp, Date.class));
+        assertNull(TypeHandlerRegistry.getDirectGetter(Measurement.GRADE_HANDLER, Measurement.Grade.class));
+
+        EntityMetadata metadata = EntityMetadataRegistry.getMetadata(Measurement.class);
+        assertEquals("getString", metadata.findColumn("label").get().getDirectGetter());
+        assertEquals("getBoolean", metadata.findColumn("active").get().getDirectGetter());
+        assertNull(metadata.findColumn("valid").get().getDirectGetter());
+        assertNull(metadata.findColumn("taken_on").get().getDirectGetter());
+        assertNull(metadata.findColumn("grade").get().getDirectGetter());
+    }
+}
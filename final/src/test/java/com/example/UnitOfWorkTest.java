@@ -0,0 +1,116 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.client.Class;
+import com.example.client.Subject;
+import com.example.client.User;
+import com.example.connection.DatabaseSession;
+import com.example.entity.GenericDaoImpl;
+import com.example.schema.SchemaManager;
+import com.example.schema.factory.MySQLStrategyFactory;
+
+/**
+ * DAO writes of a transaction queued and sent in foreign key order, on H2.
+ */
+public class UnitOfWorkTest {
+    private H2ConnectionFactory factory;
+    private DatabaseSession session;
+    private GenericDaoImpl<Class> classDao;
+    private GenericDaoImpl<User> userDao;
+    private GenericDaoImpl<Subject> subjectDao;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        factory = new H2ConnectionFactory();
+        session = new DatabaseSession(factory);
+        SchemaManager schemaManager = new SchemaManager(session, new MySQLStrategyFactory());
+        schemaManager.createTable(Class.class);
+        schemaManager.createTable(User.class);
+        schemaManager.createTable(Subject.class);
+        classDao = new GenericDaoImpl<>(session, Class.class);
+        userDao = new GenericDaoImpl<>(session, User.class);
+        subjectDao = new GenericDaoImpl<>(session, Subject.class);
+        factory.resetExecuted();
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        session.closeConnection();
+    }
+
+    private static User newUser(int id, String username) {
+        User user = SchoolData.newUser(id, username, null, null);
+        user.setActive(true);
+        return user;
+    }
+
+    @Test
+    public void testUnitOfWorkOrdersWritesAtCommit() throws Exception {
+        Class classObject = new Class();
+        classObject.setId(1);
+        classObject.setName("1A");
+        User user = newUser(1, "student1");
+        user.setClassObject(classObject);
+        Subject subject = new Subject();
+        subject.setId(1);
+        subject.setName("Math");
+        subject.setUser(user);
+
+        session.beginTransaction();
+        subjectDao.create(subject); // Registered before the rows it references
+        userDao.create(user);
+        classDao.create(classObject);
+        user.setFullName("Jane Student");
+        userDao.update(user); // Part of its INSERT
+        assertEquals(List.of(), factory.getExecuted());
+        session.commitTransaction();
+
+        assertEquals(3, factory.getExecuted().size());
+        assertTrue(factory.getExecuted().get(0).startsWith("INSERT INTO classes"));
+        assertTrue(factory.getExecuted().get(1).startsWith("INSERT INTO users"));
+        assertTrue(factory.getExecuted().get(2).startsWith("INSERT INTO subjects"));
+        assertEquals("Jane Student", userDao.findById(1).get().getFullName());
+
+        factory.resetExecuted();
+        session.beginTransaction();
+        classDao.delete(classObject); // Registered before the rows referencing it
+        userDao.delete(user);
+        subjectDao.delete(subject);
+        session.commitTransaction();
+
+        assertEquals(List.of("DELETE FROM subjects WHERE id = ?", "DELETE FROM users WHERE id = ?",
+                "DELETE FROM classes WHERE id = ?"), factory.getExecuted());
+    }
+
+    @Test
+    public void testQueriesSeePendingWrites() throws Exception {
+        session.beginTransaction();
+        userDao.create(newUser(1, "student1"));
+        assertTrue(session.getUnitOfWork().hasPendingWrites());
+
+        assertEquals("student1", userDao.read(null).get(0).getUsername());
+        assertFalse(session.getUnitOfWork().hasPendingWrites()); // Flushed before the query
+        session.commitTransaction();
+    }
+
+    @Test
+    public void testRollbackDropsQueuedWrites() throws Exception {
+        session.beginTransaction();
+        userDao.create(newUser(1, "student1"));
+        session.rollbackTransaction();
+
+        assertEquals(List.of(), factory.getExecuted());
+        assertFalse(session.getUnitOfWork().isActive());
+        assertTrue(userDao.read(null).isEmpty());
+    }
+}
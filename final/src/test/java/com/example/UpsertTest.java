@@ -0,0 +1,113 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.client.Subject;
+import com.example.connection.DatabaseSession;
+import com.example.entity.GenericDaoImpl;
+import com.example.schema.SchemaManager;
+import com.example.schema.factory.MySQLStrategyFactory;
+import com.example.schema.strategy.DMLStrategy;
+import com.example.schema.strategy.MySQLDMLStrategy;
+import com.example.schema.strategy.PostgresDMLStrategy;
+import com.example.schema.strategy.SqlServerDMLStrategy;
+
+/**
+ * Upsert statements of each dialect, and upserts run on H2.
+ */
+public class UpsertTest {
+    private static final String SUBJECT_ROW = "(?, ?, ?, ?)";
+
+    private final QueryBuilder<Subject> subjects = new QueryBuilder<>(Subject.class);
+    private DatabaseSession session;
+
+    // H2 parses neither the MySQL row alias nor HOLDLOCK, its own MERGE is used instead
+    static class H2StrategyFactory extends MySQLStrategyFactory {
+        @Override
+        public DMLStrategy createDMLStrategy() {
+            return new MySQLDMLStrategy() {
+                @Override
+                public String getUpsertSQL(String tableName, List<String> columnNames, String idColumnName,
+                        int rowCount) {
+                    StringBuilder sql = new StringBuilder("MERGE INTO ").append(tableName).append(" (")
+                            .append(String.join(", ", columnNames)).append(") KEY (").append(idColumnName)
+                            .append(") VALUES ");
+                    DMLStrategy.appendRows(sql, columnNames.size(), rowCount);
+                    return sql.toString();
+                }
+            };
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        if (session != null) {
+            session.closeConnection();
+        }
+    }
+
+    private static Subject newSubject(int id, String name) {
+        Subject subject = new Subject();
+        subject.setId(id);
+        subject.setName(name);
+        subject.setCredit(id % 5);
+        return subject;
+    }
+
+    @Test
+    public void testUpsertQueryPerDialect() {
+        assertEquals("INSERT INTO subjects (id, name, credit, user_id) VALUES " + SUBJECT_ROW + ", " + SUBJECT_ROW
+                + " AS new ON DUPLICATE KEY UPDATE name = new.name, credit = new.credit, user_id = new.user_id",
+                subjects.buildUpsertQuery(new MySQLDMLStrategy(), 2));
+        assertEquals("INSERT INTO subjects (id, name, credit, user_id) VALUES " + SUBJECT_ROW + ", " + SUBJECT_ROW
+                + " ON CONFLICT (id) DO UPDATE SET name = EXCLUDED.name, credit = EXCLUDED.credit,"
+                + " user_id = EXCLUDED.user_id",
+                subjects.buildUpsertQuery(new PostgresDMLStrategy(), 2));
+        assertEquals("MERGE INTO subjects WITH (HOLDLOCK) AS target USING (VALUES " + SUBJECT_ROW + ", "
+                + SUBJECT_ROW + ") AS source (id, name, credit, user_id) ON target.id = source.id"
+                + " WHEN MATCHED THEN UPDATE SET name = source.name, credit = source.credit, user_id = source.user_id"
+                + " WHEN NOT MATCHED THEN INSERT (id, name, credit, user_id)"
+                + " VALUES (source.id, source.name, source.credit, source.user_id);",
+                subjects.buildUpsertQuery(new SqlServerDMLStrategy(), 2));
+    }
+
+    @Test
+    public void testUpsertOfIdOnly() {
+        List<String> id = List.of("id");
+
+        assertEquals("INSERT INTO tags (id) VALUES (?) AS new ON DUPLICATE KEY UPDATE id = id",
+                new MySQLDMLStrategy().getUpsertSQL("tags", id, "id", 1));
+        assertEquals("INSERT INTO tags (id) VALUES (?) ON CONFLICT (id) DO NOTHING",
+                new PostgresDMLStrategy().getUpsertSQL("tags", id, "id", 1));
+        assertEquals("MERGE INTO tags WITH (HOLDLOCK) AS target USING (VALUES (?)) AS source (id)"
+                + " ON target.id = source.id WHEN NOT MATCHED THEN INSERT (id) VALUES (source.id);",
+                new SqlServerDMLStrategy().getUpsertSQL("tags", id, "id", 1));
+    }
+
+    @Test
+    public void testUpsertInsertsAndUpdatesInOneStatement() throws Exception {
+        H2ConnectionFactory factory = new H2ConnectionFactory(new H2StrategyFactory());
+        session = new DatabaseSession(factory);
+        SchemaManager schemaManager = new SchemaManager(session, new MySQLStrategyFactory());
+        schemaManager.createTable(com.example.client.Class.class);
+        schemaManager.createTable(com.example.client.User.class);
+        schemaManager.createTable(Subject.class);
+        var dao = new GenericDaoImpl<>(session, Subject.class);
+        dao.create(newSubject(1, "Math"));
+        factory.resetExecuted();
+
+        dao.upsertAll(List.of(newSubject(1, "Algebra"), newSubject(2, "Physics"),
+                newSubject(2, "Chemistry"))); // The last entity of an ID wins
+
+        assertEquals(1, factory.getExecuted().size());
+        session.getIdentityMap().clear();
+        assertEquals("Algebra", dao.findById(1).get().getName());
+        assertEquals("Chemistry", dao.findById(2).get().getName());
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.bulkload;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.core.BaseConnection;
+
+import com.example.Measurement;
+import com.example.entity.EntityMetadata;
+import com.example.entity.EntityMetadataRegistry;
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.jdbc.JdbcConnection;
+import com.mysql.cj.jdbc.JdbcPropertySetImpl;
+import com.mysql.cj.jdbc.JdbcStatement;
+
+/**
+ * Rows produced by each bulk loader, checked against stand-in drivers that
+ * capture the statement and the data instead of sending them.
+ */
+public class BulkLoaderTest {
+    private static final String FIRST_ROW = "1\ttab\\there\\nline\\\\\t12\t1\t1\t0.25\t1250"
+            + "\t2024-02-29 10:30:00.0\t2024-02-29\tb\n";
+    private static final String SECOND_ROW = "2\t\\N\t\\N\t\\N\t0\t0.0\t\\N\t\\N\t\\N\t\\N\n";
+
+    private final List<String> executed = new ArrayList<>();
+
+    @BeforeAll
+    public static void registerTypeHandlers() {
+        Measurement.registerTypeHandlers();
+    }
+
+    private static List<Measurement> measurements() {
+        Measurement first = new Measurement();
+        first.setId(1);
+        first.setLabel("tab\there\nline\\"); // Escaped in the text format
+        first.setSampleCount(12);
+        first.setValid(true);
+        first.setActive(true);
+        first.setRatio(0.25);
+        first.setAmount(new BigDecimal("1250"));
+        first.setTakenAt(Timestamp.valueOf("2024-02-29 10:30:00"));
+        first.setTakenOn(LocalDate.of(2024, 2, 29));
+        first.setGrade(Measurement.Grade.B); // Stored as "b" by its custom TypeHandler
+        Measurement second = new Measurement();
+        second.setId(2);
+        return List.of(first, second);
+    }
+
+    private static EntityMetadata metadata() {
+        return EntityMetadataRegistry.getMetadata(Measurement.class);
+    }
+
+    private static String readAll(InputStream in) throws IOException {
+        return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testTextRowsAreConvertedByTypeHandlers() throws IOException {
+        TextRowStream stream = new TextRowStream(metadata().getColumns(), measurements().iterator());
+
+        assertEquals(FIRST_ROW + SECOND_ROW, readAll(stream));
+        assertEquals(2, stream.getRowCount());
+    }
+
+    @Test
+    public void testMySQLLoadsThroughLocalInfileStream() throws SQLException {
+        JdbcPropertySetImpl properties = new JdbcPropertySetImpl();
+        StringBuilder data = new StringBuilder();
+        JdbcStatement statement = (JdbcStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { JdbcStatement.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "unwrap":
+                            return proxy;
+                        case "setLocalInfileInputStream":
+                            data.append(readAll((InputStream) args[0]));
+                            return null;
+                        case "executeLargeUpdate":
+                            assertTrue(properties.getBooleanProperty(PropertyKey.allowLoadLocalInfile)
+                                    .getValue());
+                            executed.add((String) args[0]);
+                            return data.toString().split("\n").length * 1L;
+                        case "close":
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        JdbcConnection connection = (JdbcConnection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { JdbcConnection.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "unwrap":
+                            return proxy;
+                        case "getPropertySet":
+                            return properties;
+                        case "createStatement":
+                            return statement;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+
+        assertEquals(2, new MySQLBulkLoader().load(connection, metadata(), measurements().iterator()));
+        assertEquals(List.of("LOAD DATA LOCAL INFILE 'stream' INTO TABLE measurements CHARACTER SET utf8mb4"
+                + " (id, label, sample_count, valid, active, ratio, amount, taken_at, taken_on, grade)"), executed);
+        assertEquals(FIRST_ROW + SECOND_ROW, data.toString());
+        assertFalse(properties.getBooleanProperty(PropertyKey.allowLoadLocalInfile).getValue()); // Restored
+    }
+
+    @Test
+    public void testPostgresCopiesFromStdin() throws SQLException {
+        BaseConnection base = (BaseConnection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { BaseConnection.class }, (proxy, method, args) -> null);
+        StringBuilder data = new StringBuilder();
+        CopyManager copyManager = new CopyManager(base) {
+            @Override
+            public long copyIn(String sql, InputStream from, int bufferSize) throws IOException {
+                executed.add(sql);
+                data.append(readAll(from));
+                return data.toString().split("\n").length;
+            }
+        };
+        Connection connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { Connection.class, PGConnection.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "unwrap":
+                            return proxy;
+                        case "getCopyAPI":
+                            return copyManager;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+
+        assertEquals(2, new PostgresBulkLoader().load(connection, metadata(), measurements().iterator()));
+        assertEquals(List.of("COPY measurements (id, label, sample_count, valid, active, ratio, amount,"
+                + " taken_at, taken_on, grade) FROM STDIN"), executed);
+        assertEquals(FIRST_ROW + SECOND_ROW, data.toString());
+    }
+
+    @Test
+    public void testSqlServerRowsAreConvertedByTypeHandlers() throws SQLException {
+        EntityBulkData rows = new EntityBulkData(metadata().getColumns(), measurements().iterator());
+
+        assertEquals(10, rows.getColumnOrdinals().size());
+        assertEquals("grade", rows.getColumnName(10));
+        assertEquals(java.sql.Types.CHAR, rows.getColumnType(10));
+
+        rows.next();
+        assertArrayEquals(new Object[] { 1, "tab\there\nline\\", 12, true, true, 0.25, new BigDecimal("1250"),
+                Timestamp.valueOf("2024-02-29 10:30:00"), Date.valueOf("2024-02-29"), "b" }, rows.getRowData());
+        rows.next();
+        Object[] nulls = rows.getRowData();
+        assertEquals(2, nulls[0]);
+        assertNull(nulls[1]);
+        assertNull(nulls[9]); // Bound as SQL NULL by the custom handler
+        assertFalse(rows.next());
+        assertEquals(2, rows.getRowCount());
+    }
+}